@@ -8,11 +8,13 @@ dependencies {
     compileOnly("org.springframework:spring-jdbc")
     compileOnly("org.springframework:spring-tx")
     compileOnly("org.springframework.integration:spring-integration-core")
+    compileOnly("io.micrometer:micrometer-core")
     testImplementation(project(":framework-spring-boot-starter"))
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.boot:spring-boot-starter-data-jdbc-test")
     testImplementation("org.springframework.integration:spring-integration-core")
     testImplementation("org.springframework.integration:spring-integration-jdbc")
+    testImplementation("io.micrometer:micrometer-core")
     testImplementation("org.testcontainers:junit-jupiter:1.21.4")
     testImplementation("org.awaitility:awaitility:4.3.0")
     testRuntimeOnly("com.h2database:h2")
@@ -0,0 +1,22 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.framework.persistence.BatchingImmediateEventPublisher;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured} {@link CommandRouter}
+ * event publication batching.
+ *
+ * @param enabled Whether concurrent event publications shall be combined.
+ * @param linger The maximum time to wait for further concurrent event publications.
+ * @param maxBatchSize The maximum number of event publications to combine.
+ * @see BatchingImmediateEventPublisher
+ */
+@ConfigurationProperties("opencqrs.command-handling.batching")
+public record CommandHandlingBatchingProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("500us") Duration linger,
+        @DefaultValue("100") Integer maxBatchSize) {}
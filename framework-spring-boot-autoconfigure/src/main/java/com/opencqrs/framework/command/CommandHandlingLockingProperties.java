@@ -0,0 +1,18 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.framework.command.locking.StripedSubjectLocking;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured} {@link CommandRouter}
+ * subject locking.
+ *
+ * @param enabled Whether commands for the same subject shall be executed sequentially within the JVM.
+ * @param stripes The number of locks subjects are mapped to.
+ * @see StripedSubjectLocking
+ */
+@ConfigurationProperties("opencqrs.command-handling.locking")
+public record CommandHandlingLockingProperties(
+        @DefaultValue("false") Boolean enabled, @DefaultValue("1024") Integer stripes) {}
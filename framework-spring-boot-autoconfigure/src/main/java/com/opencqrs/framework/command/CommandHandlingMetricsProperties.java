@@ -0,0 +1,15 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured} {@link CommandRouter}
+ * metrics.
+ *
+ * @param enabled Whether command executions shall be recorded using Micrometer, if available.
+ * @see com.opencqrs.framework.command.metrics.MicrometerCommandMetrics
+ */
+@ConfigurationProperties("opencqrs.command-handling.metrics")
+public record CommandHandlingMetricsProperties(@DefaultValue("true") Boolean enabled) {}
@@ -0,0 +1,19 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured} {@link CommandRouter}
+ * precondition compaction.
+ *
+ * @param compactionEnabled Whether preconditions for recursively sourced subjects shall be collapsed into a single
+ *     EventQL query.
+ * @param compactionThreshold The number of preconditions for recursively sourced subjects, above which they are
+ *     collapsed.
+ * @see PreconditionCompaction
+ */
+@ConfigurationProperties("opencqrs.command-handling.preconditions")
+public record CommandHandlingPreconditionProperties(
+        @DefaultValue("false") Boolean compactionEnabled, @DefaultValue("100") Integer compactionThreshold) {}
@@ -0,0 +1,20 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for the {@linkplain CommandRouterAutoConfiguration auto-configured}
+ * {@link RefreshingStateRebuildingCache}.
+ *
+ * @param enabled Whether cached instances shall be refreshed by observing newly published events.
+ * @param maxTrackedKeys The maximum number of most recently used cache keys to refresh.
+ * @param retryInterval The interval to wait before resuming observation after errors.
+ */
+@ConfigurationProperties("opencqrs.command-handling.refresh")
+public record CommandHandlingRefreshProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("10000") Integer maxTrackedKeys,
+        @DefaultValue("5s") Duration retryInterval) {}
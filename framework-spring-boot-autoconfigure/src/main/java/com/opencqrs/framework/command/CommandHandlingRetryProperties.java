@@ -0,0 +1,25 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured} {@link CommandRouter}
+ * retries upon {@linkplain com.opencqrs.framework.client.ConcurrencyException concurrent modifications}.
+ *
+ * @param enabled Whether command executions failing due to concurrently published events shall be retried.
+ * @param maxRetries The maximum number of retries per command execution.
+ * @param initialBackoff The maximum delay before the first retry, doubled for each further retry.
+ * @param maxBackoff The maximum delay before any retry.
+ * @param budgetRatio The ratio of retries to command executions allowed in total.
+ * @see ConflictRetryPolicy
+ */
+@ConfigurationProperties("opencqrs.command-handling.retry")
+public record CommandHandlingRetryProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("3") Integer maxRetries,
+        @DefaultValue("10ms") Duration initialBackoff,
+        @DefaultValue("500ms") Duration maxBackoff,
+        @DefaultValue("0.1") Double budgetRatio) {}
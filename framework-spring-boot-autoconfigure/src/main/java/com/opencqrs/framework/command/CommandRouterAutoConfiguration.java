@@ -2,27 +2,65 @@
 package com.opencqrs.framework.command;
 
 import com.opencqrs.framework.command.cache.CommandHandlingCacheProperties;
+import com.opencqrs.framework.command.cache.JacksonStateCodec;
 import com.opencqrs.framework.command.cache.LruInMemoryStateRebuildingCache;
 import com.opencqrs.framework.command.cache.NoStateRebuildingCache;
+import com.opencqrs.framework.command.cache.OffHeapStateRebuildingCache;
+import com.opencqrs.framework.command.cache.SingleFlightStateRebuildingCache;
+import com.opencqrs.framework.command.cache.StateCodec;
 import com.opencqrs.framework.command.cache.StateRebuildingCache;
+import com.opencqrs.framework.command.cache.StateWeigher;
+import com.opencqrs.framework.command.cache.TinyLfuStateRebuildingCache;
+import com.opencqrs.framework.command.locking.NoSubjectLocking;
+import com.opencqrs.framework.command.locking.StripedSubjectLocking;
+import com.opencqrs.framework.command.metrics.CommandMetrics;
+import com.opencqrs.framework.command.metrics.MicrometerCommandMetrics;
+import com.opencqrs.framework.command.metrics.NoCommandMetrics;
+import com.opencqrs.framework.command.snapshot.CommandHandlingSnapshotProperties;
+import com.opencqrs.framework.command.snapshot.FileSystemSnapshotStore;
+import com.opencqrs.framework.command.snapshot.NoSnapshotting;
+import com.opencqrs.framework.command.snapshot.SnapshotStore;
+import com.opencqrs.framework.command.snapshot.Snapshotting;
+import com.opencqrs.framework.command.snapshot.StoreSnapshotting;
 import com.opencqrs.framework.metadata.MetaDataPropagationProperties;
+import com.opencqrs.framework.persistence.BatchingImmediateEventPublisher;
 import com.opencqrs.framework.persistence.EventReader;
 import com.opencqrs.framework.persistence.ImmediateEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.util.ClassUtils;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * {@linkplain org.springframework.boot.autoconfigure.EnableAutoConfiguration Auto-configuration} for
- * {@link CommandRouter} and {@link StateRebuildingCache} default implementations.
+ * {@link CommandRouter}, {@link StateRebuildingCache}, {@link Snapshotting}, and {@link CommandMetrics} default
+ * implementations.
  */
-@AutoConfiguration
+@AutoConfiguration(
+        afterName = "org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties({
     MetaDataPropagationProperties.class,
     CommandHandlingCacheProperties.class,
+    CommandHandlingBatchingProperties.class,
+    CommandHandlingLockingProperties.class,
+    CommandHandlingRetryProperties.class,
+    CommandHandlingSnapshotProperties.class,
+    CommandHandlingRefreshProperties.class,
+    CommandHandlingPreconditionProperties.class,
+    CommandHandlingMetricsProperties.class,
 })
 public class CommandRouterAutoConfiguration {
 
@@ -34,26 +72,87 @@ public class CommandRouterAutoConfiguration {
             @SuppressWarnings("rawtypes") List<CommandHandlerDefinition> commandHandlerDefinitions,
             @SuppressWarnings("rawtypes") List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions,
             CommandHandlingCacheProperties cacheProperties,
+            CommandHandlingBatchingProperties batchingProperties,
+            CommandHandlingLockingProperties lockingProperties,
+            CommandHandlingRetryProperties retryProperties,
+            CommandHandlingPreconditionProperties preconditionProperties,
             MetaDataPropagationProperties metaDataPropagationProperties,
+            ObjectProvider<Snapshotting> snapshotting,
+            @SuppressWarnings("rawtypes") ObjectProvider<SnapshotEventDefinition> snapshotEventDefinitions,
+            ObjectProvider<RefreshingStateRebuildingCache> refreshingStateRebuildingCache,
+            ObjectProvider<CommandMetrics> commandMetrics,
             ApplicationContext applicationContext) {
+        StateRebuildingCache cache =
+                refreshingStateRebuildingCache.getIfAvailable(() -> resolveCache(cacheProperties, applicationContext));
+
+        ImmediateEventPublisher publisher = batchingProperties.enabled()
+                ? new BatchingImmediateEventPublisher(
+                        immediateEventPublisher, batchingProperties.linger(), batchingProperties.maxBatchSize())
+                : immediateEventPublisher;
+
+        return CommandRouter.builder(
+                        eventReader, publisher, commandHandlerDefinitions, stateRebuildingHandlerDefinitions)
+                .stateRebuildingCache(cache)
+                .propagationMode(metaDataPropagationProperties.mode())
+                .propagationKeys(metaDataPropagationProperties.keys())
+                .subjectLocking(
+                        lockingProperties.enabled()
+                                ? new StripedSubjectLocking(lockingProperties.stripes())
+                                : new NoSubjectLocking())
+                .conflictRetryPolicy(
+                        retryProperties.enabled()
+                                ? new ConflictRetryPolicy(
+                                        retryProperties.maxRetries(),
+                                        retryProperties.initialBackoff(),
+                                        retryProperties.maxBackoff(),
+                                        retryProperties.budgetRatio())
+                                : ConflictRetryPolicy.none())
+                .snapshotting(snapshotting.getIfAvailable(NoSnapshotting::new))
+                .snapshotEventDefinitions(snapshotEventDefinitions.orderedStream().toList())
+                .trustCachedState(cacheProperties.trusted())
+                .preconditionCompaction(
+                        preconditionProperties.compactionEnabled()
+                                ? new PreconditionCompaction(preconditionProperties.compactionThreshold())
+                                : PreconditionCompaction.none())
+                .commandMetrics(commandMetrics.getIfAvailable(NoCommandMetrics::new))
+                .build();
+    }
+
+    private static StateRebuildingCache resolveCache(
+            CommandHandlingCacheProperties cacheProperties, ApplicationContext applicationContext) {
         String cacheBeanRef =
                 switch (cacheProperties.ref()) {
                     case null ->
                         switch (cacheProperties.type()) {
                             case NONE -> "openCqrsNoStateRebuildingCache";
                             case IN_MEMORY -> "openCqrsLruInMemoryStateRebuildingCache";
+                            case TINY_LFU -> "openCqrsTinyLfuStateRebuildingCache";
+                            case OFF_HEAP -> "openCqrsOffHeapStateRebuildingCache";
                         };
                     default -> cacheProperties.ref();
                 };
 
-        return new CommandRouter(
+        StateRebuildingCache cache = applicationContext.getBean(cacheBeanRef, StateRebuildingCache.class);
+        return cacheProperties.singleFlight() ? new SingleFlightStateRebuildingCache(cache) : cache;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "opencqrs.command-handling.refresh.enabled", havingValue = "true")
+    public RefreshingStateRebuildingCache openCqrsRefreshingStateRebuildingCache(
+            EventReader eventReader,
+            @SuppressWarnings("rawtypes") List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions,
+            CommandHandlingCacheProperties cacheProperties,
+            CommandHandlingRefreshProperties refreshProperties,
+            ObjectProvider<Snapshotting> snapshotting,
+            ApplicationContext applicationContext) {
+        return new RefreshingStateRebuildingCache(
+                resolveCache(cacheProperties, applicationContext),
                 eventReader,
-                immediateEventPublisher,
-                commandHandlerDefinitions,
                 stateRebuildingHandlerDefinitions,
-                applicationContext.getBean(cacheBeanRef, StateRebuildingCache.class),
-                metaDataPropagationProperties.mode(),
-                metaDataPropagationProperties.keys());
+                refreshProperties.maxTrackedKeys(),
+                refreshProperties.retryInterval(),
+                snapshotting.getIfAvailable(NoSnapshotting::new));
     }
 
     @Bean
@@ -66,4 +165,73 @@ public class CommandRouterAutoConfiguration {
             CommandHandlingCacheProperties properties) {
         return new LruInMemoryStateRebuildingCache(properties.capacity());
     }
+
+    @Bean
+    public TinyLfuStateRebuildingCache openCqrsTinyLfuStateRebuildingCache(
+            CommandHandlingCacheProperties properties, ApplicationContext applicationContext) {
+        Map<Class<?>, Long> instanceClassCapacity = new HashMap<>();
+        properties
+                .instanceClassCapacity()
+                .forEach((className, capacity) -> instanceClassCapacity.put(
+                        ClassUtils.resolveClassName(className, applicationContext.getClassLoader()), capacity));
+        return new TinyLfuStateRebuildingCache(
+                properties.capacity(),
+                instanceClassCapacity,
+                switch (properties.weigher()) {
+                    case ENTRIES -> StateWeigher.entries();
+                    case ESTIMATED_BYTES -> StateWeigher.estimatedBytes();
+                },
+                properties.expireAfterWrite());
+    }
+
+    @Bean
+    @Lazy
+    public OffHeapStateRebuildingCache openCqrsOffHeapStateRebuildingCache(
+            CommandHandlingCacheProperties properties,
+            ObjectProvider<StateCodec> stateCodec,
+            ObjectProvider<ObjectMapper> objectMapper) {
+        return new OffHeapStateRebuildingCache(
+                properties.capacity(),
+                properties.offHeapCapacity().toBytes(),
+                stateCodec.getIfAvailable(() -> new JacksonStateCodec(objectMapper.getIfAvailable(ObjectMapper::new))));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "opencqrs.command-handling.snapshot.enabled", havingValue = "true")
+    public SnapshotStore openCqrsFileSystemSnapshotStore(CommandHandlingSnapshotProperties properties) {
+        return new FileSystemSnapshotStore(properties.directory());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "opencqrs.command-handling.snapshot.enabled", havingValue = "true")
+    public Snapshotting openCqrsStoreSnapshotting(
+            SnapshotStore snapshotStore,
+            CommandHandlingSnapshotProperties properties,
+            ObjectProvider<StateCodec> stateCodec,
+            ObjectProvider<ObjectMapper> objectMapper) {
+        return new StoreSnapshotting(
+                snapshotStore,
+                stateCodec.getIfAvailable(() -> new JacksonStateCodec(objectMapper.getIfAvailable(ObjectMapper::new))),
+                task -> Thread.ofVirtual().name("snapshot-writer").start(task),
+                properties.everyEvents(),
+                properties.interval());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(
+            name = "opencqrs.command-handling.metrics.enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    public static class MicrometerCommandMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(CommandMetrics.class)
+        @ConditionalOnBean(MeterRegistry.class)
+        public MicrometerCommandMetrics openCqrsMicrometerCommandMetrics(MeterRegistry meterRegistry) {
+            return new MicrometerCommandMetrics(meterRegistry);
+        }
+    }
 }
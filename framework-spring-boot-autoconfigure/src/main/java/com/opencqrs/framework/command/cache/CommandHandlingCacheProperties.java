@@ -2,20 +2,40 @@
 package com.opencqrs.framework.command.cache;
 
 import com.opencqrs.framework.command.CommandRouterAutoConfiguration;
+import java.time.Duration;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 /**
  * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured}
  * {@link StateRebuildingCache}s.
  *
  * @param type The cache type to use, unless "ref" is specified.
- * @param capacity The cache capacity, if "in_memory" is used.
+ * @param capacity The cache capacity, if "in_memory" or "tiny_lfu" is used. Measured using the "weigher" for the
+ *     latter. The on-heap capacity, if "off_heap" is used.
  * @param ref Custom cache to use.
+ * @param weigher The weigher used to measure cache entries, if "tiny_lfu" is used.
+ * @param expireAfterWrite The duration after which cache entries expire since their last update, if "tiny_lfu" is
+ *     used.
+ * @param instanceClassCapacity Dedicated capacities per fully qualified instance class name, if "tiny_lfu" is used.
+ * @param singleFlight Whether concurrent state rebuilding for the same cache key shall be coalesced.
+ * @param offHeapCapacity The off-heap memory to use for serialized instances, if "off_heap" is used.
+ * @param trusted Whether cached instances shall be used without sourcing newer events, which are sourced only if
+ *     publishing fails due to concurrent modification.
  */
 @ConfigurationProperties("opencqrs.command-handling.cache")
 public record CommandHandlingCacheProperties(
-        @DefaultValue("none") Type type, @DefaultValue("1000") Integer capacity, String ref) {
+        @DefaultValue("none") Type type,
+        @DefaultValue("1000") Integer capacity,
+        String ref,
+        @DefaultValue("entries") Weigher weigher,
+        Duration expireAfterWrite,
+        @DefaultValue Map<String, Long> instanceClassCapacity,
+        @DefaultValue("false") Boolean singleFlight,
+        @DefaultValue("256MB") DataSize offHeapCapacity,
+        @DefaultValue("false") Boolean trusted) {
     /** The pre-defined cache type. */
     public enum Type {
         /**
@@ -31,5 +51,36 @@ public record CommandHandlingCacheProperties(
          * @see LruInMemoryStateRebuildingCache
          */
         IN_MEMORY,
+
+        /**
+         * Concurrent in-memory caching with frequency-based admission is used.
+         *
+         * @see TinyLfuStateRebuildingCache
+         */
+        TINY_LFU,
+
+        /**
+         * In-memory caching backed by serialized instances kept off-heap is used.
+         *
+         * @see OffHeapStateRebuildingCache
+         */
+        OFF_HEAP,
+    }
+
+    /** The pre-defined cache entry weigher. */
+    public enum Weigher {
+        /**
+         * Every cache entry weighs {@code 1}.
+         *
+         * @see StateWeigher#entries()
+         */
+        ENTRIES,
+
+        /**
+         * Cache entries weigh their estimated heap size in bytes.
+         *
+         * @see StateWeigher#estimatedBytes()
+         */
+        ESTIMATED_BYTES,
     }
 }
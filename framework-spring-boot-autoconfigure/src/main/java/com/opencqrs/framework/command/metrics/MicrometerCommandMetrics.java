@@ -0,0 +1,181 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.metrics;
+
+import com.opencqrs.framework.client.ConcurrencyException;
+import com.opencqrs.framework.command.Command;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link CommandMetrics} implementation recording Micrometer meters tagged with the {@code command} class name:
+ *
+ * <ul>
+ *   <li>{@value #COMMANDS} timer for the overall command execution, tagged with its {@code outcome}, being one of
+ *       {@code success}, {@code conflict}, or {@code failure}
+ *   <li>{@value #PHASES} timer for the {@code sourcing}, {@code rebuilding}, {@code handling}, and {@code publishing}
+ *       {@code phase} of the command execution
+ *   <li>{@value #SOURCED_EVENTS} distribution summary of the number of events sourced
+ *   <li>{@value #CACHE} counter for the {@code result} of fetching the cached instance state, being one of {@code hit},
+ *       {@code miss}, or {@code merge}
+ *   <li>{@value #PRECONDITIONS} distribution summary of the number of preconditions published
+ *   <li>{@value #CONFLICTS} counter for publications failing with a {@link ConcurrencyException}
+ * </ul>
+ */
+public final class MicrometerCommandMetrics implements CommandMetrics {
+
+    /** Name of the timer recording command executions. */
+    public static final String COMMANDS = "opencqrs.commands";
+
+    /** Name of the timer recording command execution phases. */
+    public static final String PHASES = "opencqrs.commands.phases";
+
+    /** Name of the distribution summary recording the number of sourced events. */
+    public static final String SOURCED_EVENTS = "opencqrs.commands.sourced.events";
+
+    /** Name of the counter recording state rebuilding cache results. */
+    public static final String CACHE = "opencqrs.commands.cache";
+
+    /** Name of the distribution summary recording the number of published preconditions. */
+    public static final String PRECONDITIONS = "opencqrs.commands.preconditions";
+
+    /** Name of the counter recording conflicting publications. */
+    public static final String CONFLICTS = "opencqrs.commands.conflicts";
+
+    private final ClassValue<Meters> meters;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param meterRegistry the registry to register the meters with
+     */
+    public MicrometerCommandMetrics(MeterRegistry meterRegistry) {
+        this.meters = new ClassValue<>() {
+            @Override
+            protected Meters computeValue(Class<?> commandClass) {
+                return new Meters(meterRegistry, commandClass.getName());
+            }
+        };
+    }
+
+    @Override
+    public Execution started(Class<? extends Command> commandClass) {
+        return new MeteredExecution(meters.get(commandClass), System.nanoTime());
+    }
+
+    private record MeteredExecution(Meters meters, long started) implements Execution {
+
+        @Override
+        public void sourced(CacheResult cacheResult, int sourcedEvents, long sourcingNanos, long rebuildingNanos) {
+            meters.cache(cacheResult).increment();
+            meters.sourcedEvents.record(sourcedEvents);
+            meters.sourcing.record(sourcingNanos, TimeUnit.NANOSECONDS);
+            meters.rebuilding.record(rebuildingNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void handled(long handlingNanos) {
+            meters.handling.record(handlingNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void published(int preconditions, long publishingNanos) {
+            meters.preconditions.record(preconditions);
+            meters.publishing.record(publishingNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void conflicted() {
+            meters.conflicts.increment();
+        }
+
+        @Override
+        public void completed(@Nullable Throwable failure) {
+            Timer timer =
+                    switch (failure) {
+                        case null -> meters.succeeded;
+                        case ConcurrencyException e -> meters.conflicted;
+                        default -> meters.failed;
+                    };
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class Meters {
+
+        final Timer succeeded;
+        final Timer conflicted;
+        final Timer failed;
+        final Timer sourcing;
+        final Timer rebuilding;
+        final Timer handling;
+        final Timer publishing;
+        final DistributionSummary sourcedEvents;
+        final DistributionSummary preconditions;
+        final Counter cacheHits;
+        final Counter cacheMisses;
+        final Counter cacheMerges;
+        final Counter conflicts;
+
+        Meters(MeterRegistry registry, String command) {
+            succeeded = command(registry, command, "success");
+            conflicted = command(registry, command, "conflict");
+            failed = command(registry, command, "failure");
+            sourcing = phase(registry, command, "sourcing");
+            rebuilding = phase(registry, command, "rebuilding");
+            handling = phase(registry, command, "handling");
+            publishing = phase(registry, command, "publishing");
+            sourcedEvents = DistributionSummary.builder(SOURCED_EVENTS)
+                    .description("Number of events sourced per command execution")
+                    .baseUnit("events")
+                    .tag("command", command)
+                    .register(registry);
+            preconditions = DistributionSummary.builder(PRECONDITIONS)
+                    .description("Number of preconditions published per command execution")
+                    .tag("command", command)
+                    .register(registry);
+            cacheHits = cache(registry, command, "hit");
+            cacheMisses = cache(registry, command, "miss");
+            cacheMerges = cache(registry, command, "merge");
+            conflicts = Counter.builder(CONFLICTS)
+                    .description("Command publications failing due to concurrent modifications")
+                    .tag("command", command)
+                    .register(registry);
+        }
+
+        Counter cache(CacheResult cacheResult) {
+            return switch (cacheResult) {
+                case HIT -> cacheHits;
+                case MISS -> cacheMisses;
+                case MERGE -> cacheMerges;
+            };
+        }
+
+        private static Timer command(MeterRegistry registry, String command, String outcome) {
+            return Timer.builder(COMMANDS)
+                    .description("Command executions")
+                    .tag("command", command)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        private static Timer phase(MeterRegistry registry, String command, String phase) {
+            return Timer.builder(PHASES)
+                    .description("Phases of command executions")
+                    .tag("command", command)
+                    .tag("phase", phase)
+                    .register(registry);
+        }
+
+        private static Counter cache(MeterRegistry registry, String command, String result) {
+            return Counter.builder(CACHE)
+                    .description("State rebuilding cache results of command executions")
+                    .tag("command", command)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
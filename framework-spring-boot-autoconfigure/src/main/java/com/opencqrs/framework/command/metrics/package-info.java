@@ -0,0 +1,4 @@
+@NullMarked
+package com.opencqrs.framework.command.metrics;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,24 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.CommandRouterAutoConfiguration;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain CommandRouterAutoConfiguration auto-configured}
+ * {@link Snapshotting}.
+ *
+ * @param enabled Whether instance state shall be restored from and persisted as snapshots.
+ * @param directory The directory to store snapshots in, unless a custom {@link SnapshotStore} is defined.
+ * @param everyEvents The number of events sourced for an instance after which a snapshot is taken.
+ * @param interval The time elapsed after which a snapshot is taken, if further events were sourced for an instance.
+ */
+@ConfigurationProperties("opencqrs.command-handling.snapshot")
+public record CommandHandlingSnapshotProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("snapshots") Path directory,
+        @DefaultValue("100") Integer everyEvents,
+        @DefaultValue("5m") Duration interval) {}
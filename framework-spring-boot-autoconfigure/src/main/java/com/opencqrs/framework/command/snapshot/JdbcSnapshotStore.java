@@ -0,0 +1,160 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.SourcingMode;
+import com.uber.nullaway.annotations.Initializer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link SnapshotStore} implementation using Spring {@link JdbcOperations} to persist {@link Snapshot}s, one row per
+ * subject, instance type, and sourcing mode, encoded using {@link SnapshotFormat}. The {@code EVENT_ID} column holds
+ * the {@linkplain Snapshot#position() position} of the snapshot, which is compared numerically, so that rows are only
+ * updated with newer snapshots.
+ */
+public class JdbcSnapshotStore implements SnapshotStore, InitializingBean, SmartLifecycle {
+
+    public static final String DEFAULT_TABLE_PREFIX = "COMMAND_";
+
+    private final DataSource dataSource;
+
+    private JdbcOperations jdbcOperations;
+
+    /**
+     * Initializes {@code this} snapshot store given a {@link DataSource}.
+     *
+     * @param dataSource the data source to use for persisting {@link Snapshot}s
+     */
+    public JdbcSnapshotStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private boolean checkDatabaseOnStart = true;
+    private String tablePrefix = DEFAULT_TABLE_PREFIX;
+
+    private String findQuery =
+            """
+            SELECT DATA
+            FROM %sSNAPSHOT
+            WHERE SUBJECT = ? AND INSTANCE_TYPE = ? AND SOURCING_MODE = ?
+            """;
+
+    private String updateQuery =
+            """
+            UPDATE %sSNAPSHOT
+            SET EVENT_ID = ?, DATA = ?
+            WHERE SUBJECT = ? AND INSTANCE_TYPE = ? AND SOURCING_MODE = ?
+            AND (LENGTH(EVENT_ID) < ? OR (LENGTH(EVENT_ID) = ? AND EVENT_ID < ?))
+            """;
+
+    private String insertQuery =
+            """
+            INSERT INTO %sSNAPSHOT(SUBJECT, INSTANCE_TYPE, SOURCING_MODE, EVENT_ID, DATA)
+            VALUES(?, ?, ?, ?, ?)
+            """;
+
+    private String countAllQuery = """
+            SELECT COUNT(EVENT_ID)
+            FROM %sSNAPSHOT
+            """;
+
+    /**
+     * Configures, if the SQL database should be checked on startup, in order to be sure the tables have been created.
+     *
+     * @param checkDatabaseOnStart {@code false} if check shall be disabled (defaults to {@code true})
+     */
+    public void setCheckDatabaseOnStart(boolean checkDatabaseOnStart) {
+        this.checkDatabaseOnStart = checkDatabaseOnStart;
+    }
+
+    /**
+     * Configures the SQL table prefix.
+     *
+     * @param tablePrefix the table prefix, defaults to {@value #DEFAULT_TABLE_PREFIX}
+     */
+    public void setTablePrefix(String tablePrefix) {
+        this.tablePrefix = tablePrefix;
+    }
+
+    @Override
+    @Initializer
+    public void afterPropertiesSet() {
+        this.jdbcOperations = new JdbcTemplate(dataSource);
+
+        this.findQuery = String.format(findQuery, tablePrefix);
+        this.updateQuery = String.format(updateQuery, tablePrefix);
+        this.insertQuery = String.format(insertQuery, tablePrefix);
+        this.countAllQuery = String.format(countAllQuery, tablePrefix);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return checkDatabaseOnStart;
+    }
+
+    @Override
+    public void start() {
+        if (this.running.compareAndSet(false, true)) {
+            this.jdbcOperations.queryForObject(this.countAllQuery, Long.class);
+        }
+    }
+
+    @Override
+    public void stop() {
+        this.running.set(false);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running.get();
+    }
+
+    @Override
+    public Optional<Snapshot> load(String subject, String instanceType, SourcingMode sourcingMode) {
+        Stream<byte[]> query = jdbcOperations.queryForStream(
+                findQuery, (rs, rowNum) -> rs.getBytes(1), subject, instanceType, sourcingMode.name());
+        return Optional.ofNullable(DataAccessUtils.singleResult(query)).map(SnapshotFormat::read);
+    }
+
+    @Override
+    public void save(Snapshot snapshot) {
+        byte[] data = SnapshotFormat.write(snapshot);
+        String position = String.valueOf(snapshot.position());
+        if (update(snapshot, position, data) == 0) {
+            try {
+                jdbcOperations.update(
+                        insertQuery,
+                        snapshot.subject(),
+                        snapshot.instanceType(),
+                        snapshot.sourcingMode().name(),
+                        position,
+                        data);
+            } catch (DuplicateKeyException e) {
+                update(snapshot, position, data);
+            }
+        }
+    }
+
+    /** Updates the saved snapshot, if it is older, comparing the unpadded numeric positions by length first. */
+    private int update(Snapshot snapshot, String position, byte[] data) {
+        return jdbcOperations.update(
+                updateQuery,
+                position,
+                data,
+                snapshot.subject(),
+                snapshot.instanceType(),
+                snapshot.sourcingMode().name(),
+                position.length(),
+                position.length(),
+                position);
+    }
+}
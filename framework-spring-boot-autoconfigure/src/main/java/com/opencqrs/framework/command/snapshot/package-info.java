@@ -0,0 +1,4 @@
+@NullMarked
+package com.opencqrs.framework.command.snapshot;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,46 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.EsdbClient;
+import com.opencqrs.framework.persistence.EventPersistenceAutoConfiguration;
+import com.opencqrs.framework.persistence.EventRepository;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@linkplain org.springframework.boot.autoconfigure.EnableAutoConfiguration Auto-configuration} for
+ * {@link LocalEventMirror} and a {@link Primary} {@link MirroringEventReader} wrapping the {@link EventRepository}.
+ */
+@AutoConfiguration(after = {JacksonAutoConfiguration.class, EventPersistenceAutoConfiguration.class})
+@ConditionalOnProperty(name = "opencqrs.persistence.mirror.enabled", havingValue = "true")
+@ConditionalOnBean({ObjectMapper.class, EventRepository.class})
+@EnableConfigurationProperties(LocalEventMirrorProperties.class)
+public class LocalEventMirrorAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EventLog openCqrsEventLog(LocalEventMirrorProperties properties, ObjectMapper objectMapper) {
+        return new EventLog(properties.directory(), (int) properties.segmentSize().toBytes(), objectMapper);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public LocalEventMirror openCqrsLocalEventMirror(
+            EsdbClient client, EventLog eventLog, LocalEventMirrorProperties properties) {
+        return new LocalEventMirror(client, eventLog, properties.retryInterval());
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean
+    public MirroringEventReader openCqrsMirroringEventReader(EventRepository eventRepository, EventLog eventLog) {
+        return new MirroringEventReader(eventRepository, eventLog);
+    }
+}
@@ -0,0 +1,24 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain LocalEventMirrorAutoConfiguration auto-configured}
+ * {@link LocalEventMirror}.
+ *
+ * @param enabled Whether events shall be mirrored to and read from a local event log.
+ * @param directory The directory containing the event log segment files.
+ * @param segmentSize The size of newly created segment files.
+ * @param retryInterval The interval to wait before resuming mirroring after errors.
+ */
+@ConfigurationProperties("opencqrs.persistence.mirror")
+public record LocalEventMirrorProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("event-mirror") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("5s") Duration retryInterval) {}
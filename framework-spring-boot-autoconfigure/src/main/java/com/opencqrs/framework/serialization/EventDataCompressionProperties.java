@@ -0,0 +1,21 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization;
+
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain JacksonEventDataMarshallerAutoConfiguration auto-configured}
+ * {@link CompressingEventDataMarshaller}.
+ *
+ * @param enabled Whether large event payloads shall be compressed.
+ * @param threshold The minimum payload size from which on payloads are compressed.
+ * @param eventClasses The event classes eligible for compression, or all if empty.
+ */
+@ConfigurationProperties("opencqrs.serialization.compression")
+public record EventDataCompressionProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("64KB") DataSize threshold,
+        @DefaultValue Set<Class<?>> eventClasses) {}
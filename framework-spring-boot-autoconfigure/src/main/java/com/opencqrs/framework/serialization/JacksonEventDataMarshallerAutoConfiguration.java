@@ -1,26 +1,77 @@
 /* Copyright (C) 2025 OpenCQRS and contributors */
 package com.opencqrs.framework.serialization;
 
+import com.opencqrs.framework.serialization.blob.BlobStore;
+import com.opencqrs.framework.serialization.blob.ClaimCheckEventDataMarshaller;
+import com.opencqrs.framework.serialization.blob.EventDataClaimCheckProperties;
+import com.opencqrs.framework.serialization.blob.FileSystemBlobStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import tools.jackson.databind.ObjectMapper;
 
 /**
  * {@linkplain org.springframework.boot.autoconfigure.EnableAutoConfiguration Auto-configuration} for
- * {@link JacksonEventDataMarshaller}.
+ * {@link JacksonEventDataMarshaller}, optionally wrapped by {@link CompressingEventDataMarshaller} and/or
+ * {@link ClaimCheckEventDataMarshaller}.
  */
 @AutoConfiguration(after = JacksonAutoConfiguration.class)
 @ConditionalOnClass(ObjectMapper.class)
 @ConditionalOnBean(ObjectMapper.class)
+@EnableConfigurationProperties({
+    EventDataCompressionProperties.class,
+    EventDataClaimCheckProperties.class,
+})
 public class JacksonEventDataMarshallerAutoConfiguration {
 
+    private static final String WRAPPING_ENABLED = "${opencqrs.serialization.compression.enabled:false}"
+            + " or ${opencqrs.serialization.claim-check.enabled:false}";
+
     @Bean
     @ConditionalOnMissingBean(EventDataMarshaller.class)
+    @ConditionalOnExpression("!(" + WRAPPING_ENABLED + ")")
     public JacksonEventDataMarshaller openCqrsJacksonEventSerializer(ObjectMapper objectMapper) {
         return new JacksonEventDataMarshaller(objectMapper);
     }
+
+    @Bean
+    @ConditionalOnMissingBean(EventDataMarshaller.class)
+    @ConditionalOnExpression(WRAPPING_ENABLED)
+    public EventDataMarshaller openCqrsWrappingEventSerializer(
+            ObjectMapper objectMapper,
+            EventDataCompressionProperties compressionProperties,
+            EventDataClaimCheckProperties claimCheckProperties,
+            ObjectProvider<BlobStore> blobStore) {
+        EventDataMarshaller result = new JacksonEventDataMarshaller(objectMapper);
+        if (compressionProperties.enabled()) {
+            result = new CompressingEventDataMarshaller(
+                    result,
+                    objectMapper,
+                    (int) compressionProperties.threshold().toBytes(),
+                    compressionProperties.eventClasses());
+        }
+        if (claimCheckProperties.enabled()) {
+            result = new ClaimCheckEventDataMarshaller(
+                    result,
+                    objectMapper,
+                    blobStore.getObject(),
+                    (int) claimCheckProperties.threshold().toBytes(),
+                    claimCheckProperties.cacheCapacity().toBytes());
+        }
+        return result;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(BlobStore.class)
+    @ConditionalOnProperty(name = "opencqrs.serialization.claim-check.enabled", havingValue = "true")
+    public FileSystemBlobStore openCqrsFileSystemBlobStore(EventDataClaimCheckProperties properties) {
+        return new FileSystemBlobStore(properties.directory());
+    }
 }
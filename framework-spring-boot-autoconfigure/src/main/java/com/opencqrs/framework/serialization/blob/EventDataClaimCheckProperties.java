@@ -0,0 +1,24 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import com.opencqrs.framework.serialization.JacksonEventDataMarshallerAutoConfiguration;
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * {@link ConfigurationProperties} for {@linkplain JacksonEventDataMarshallerAutoConfiguration auto-configured}
+ * {@link ClaimCheckEventDataMarshaller}.
+ *
+ * @param enabled Whether large event payloads shall be offloaded to a blob store.
+ * @param threshold The minimum payload size from which on payloads are offloaded.
+ * @param cacheCapacity The maximum total size of resolved payloads to cache.
+ * @param directory The directory used by the file system blob store, unless a custom blob store is provided.
+ */
+@ConfigurationProperties("opencqrs.serialization.claim-check")
+public record EventDataClaimCheckProperties(
+        @DefaultValue("false") Boolean enabled,
+        @DefaultValue("1MB") DataSize threshold,
+        @DefaultValue("64MB") DataSize cacheCapacity,
+        @DefaultValue("blobs") Path directory) {}
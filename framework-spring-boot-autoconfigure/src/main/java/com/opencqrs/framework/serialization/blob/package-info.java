@@ -0,0 +1,4 @@
+@NullMarked
+package com.opencqrs.framework.serialization.blob;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,88 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.client.ConcurrencyException;
+import com.opencqrs.framework.command.Command;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class MicrometerCommandMetricsTest {
+
+    public record BorrowBookCommand(String getSubject) implements Command {}
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerCommandMetrics subject = new MicrometerCommandMetrics(registry);
+
+    @Test
+    public void phasesRecordedPerCommandClass() {
+        var execution = subject.started(BorrowBookCommand.class);
+        execution.sourced(CommandMetrics.CacheResult.MERGE, 3, 1_000_000, 2_000_000);
+        execution.handled(3_000_000);
+        execution.published(2, 4_000_000);
+        execution.completed(null);
+
+        var command = BorrowBookCommand.class.getName();
+        assertThat(registry.get(MicrometerCommandMetrics.COMMANDS)
+                        .tags("command", command, "outcome", "success")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+        assertThat(registry.get(MicrometerCommandMetrics.PHASES)
+                        .tags("command", command, "phase", "rebuilding")
+                        .timer()
+                        .totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(2);
+        assertThat(registry.get(MicrometerCommandMetrics.PHASES)
+                        .tags("command", command, "phase", "publishing")
+                        .timer()
+                        .totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(4);
+        assertThat(registry.get(MicrometerCommandMetrics.SOURCED_EVENTS)
+                        .tag("command", command)
+                        .summary()
+                        .totalAmount())
+                .isEqualTo(3);
+        assertThat(registry.get(MicrometerCommandMetrics.PRECONDITIONS)
+                        .tag("command", command)
+                        .summary()
+                        .totalAmount())
+                .isEqualTo(2);
+        assertThat(registry.get(MicrometerCommandMetrics.CACHE)
+                        .tags("command", command, "result", "merge")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+        assertThat(registry.get(MicrometerCommandMetrics.CACHE)
+                        .tags("command", command, "result", "hit")
+                        .counter()
+                        .count())
+                .isZero();
+    }
+
+    @Test
+    public void conflictsRecorded() {
+        var execution = subject.started(BorrowBookCommand.class);
+        execution.conflicted();
+        execution.completed(new ConcurrencyException("conflict"));
+
+        var command = BorrowBookCommand.class.getName();
+        assertThat(registry.get(MicrometerCommandMetrics.CONFLICTS)
+                        .tag("command", command)
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+        assertThat(registry.get(MicrometerCommandMetrics.COMMANDS)
+                        .tags("command", command, "outcome", "conflict")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+        assertThat(registry.get(MicrometerCommandMetrics.COMMANDS)
+                        .tags("command", command, "outcome", "failure")
+                        .timer()
+                        .count())
+                .isZero();
+    }
+}
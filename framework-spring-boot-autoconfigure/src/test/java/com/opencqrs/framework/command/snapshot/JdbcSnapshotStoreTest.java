@@ -0,0 +1,100 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.command.SourcingMode;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jdbc.test.autoconfigure.DataJdbcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJdbcTest
+@Transactional(propagation = Propagation.NEVER)
+public class JdbcSnapshotStoreTest {
+
+    @TestConfiguration
+    public static class JdbcSnapshotStoreConfig {
+
+        @Bean
+        public JdbcSnapshotStore jdbcSnapshotStore(DataSource dataSource) {
+            var result = new JdbcSnapshotStore(dataSource);
+            result.setTablePrefix("TEST_");
+            return result;
+        }
+    }
+
+    @Autowired
+    private JdbcSnapshotStore jdbcSnapshotStore;
+
+    private Snapshot snapshot(String subject, String eventId, String state) {
+        return new Snapshot(
+                subject,
+                "com.example.Book",
+                SourcingMode.RECURSIVE,
+                "0011223344556677",
+                eventId,
+                Map.of(subject, eventId),
+                "com.example.Book",
+                state.getBytes());
+    }
+
+    @Test
+    public void nonExistingSnapshotNotLoaded() {
+        assertThat(jdbcSnapshotStore.load("/no-such-subject", "com.example.Book", SourcingMode.RECURSIVE)).isEmpty();
+    }
+
+    @Test
+    public void snapshotProperlyPersistedInitially() {
+        var subject = "/books/" + UUID.randomUUID();
+        jdbcSnapshotStore.save(snapshot(subject, "42", "state"));
+
+        assertThat(jdbcSnapshotStore.load(subject, "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.eventId()).isEqualTo("42");
+                    assertThat(loaded.sourcedSubjectIds()).isEqualTo(Map.of(subject, "42"));
+                    assertThat(loaded.state()).isEqualTo("state".getBytes());
+                });
+        assertThat(jdbcSnapshotStore.load(subject, "com.example.Book", SourcingMode.LOCAL)).isEmpty();
+    }
+
+    @Test
+    public void snapshotProperlyUpdated() {
+        var subject = "/books/" + UUID.randomUUID();
+        jdbcSnapshotStore.save(snapshot(subject, "42", "old"));
+
+        jdbcSnapshotStore.save(snapshot(subject, "43", "new"));
+
+        assertThat(jdbcSnapshotStore.load(subject, "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.eventId()).isEqualTo("43");
+                    assertThat(loaded.state()).isEqualTo("new".getBytes());
+                });
+    }
+
+    @Test
+    public void olderSnapshotsNotSaved() {
+        var subject = "/books/" + UUID.randomUUID();
+        jdbcSnapshotStore.save(snapshot(subject, "10", "newer"));
+
+        jdbcSnapshotStore.save(snapshot(subject, "9", "older"));
+        jdbcSnapshotStore.save(snapshot(subject, "10", "same"));
+
+        assertThat(jdbcSnapshotStore.load(subject, "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.eventId()).isEqualTo("10");
+                    assertThat(loaded.state()).isEqualTo("newer".getBytes());
+                });
+
+        jdbcSnapshotStore.save(snapshot(subject, "100", "newest"));
+
+        assertThat(jdbcSnapshotStore.load(subject, "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> assertThat(loaded.state()).isEqualTo("newest".getBytes()));
+    }
+}
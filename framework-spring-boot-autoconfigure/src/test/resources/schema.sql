@@ -5,6 +5,15 @@ CREATE TABLE IF NOT EXISTS TEST_PROGRESS (
     constraint TEST_PROGRESS_PK primary key (GROUP_KEY, PARTITION_ID)
 );
 
+CREATE TABLE IF NOT EXISTS TEST_SNAPSHOT (
+    SUBJECT VARCHAR(500) NOT NULL,
+    INSTANCE_TYPE VARCHAR(500) NOT NULL,
+    SOURCING_MODE VARCHAR(20) NOT NULL,
+    EVENT_ID VARCHAR(100) NOT NULL,
+    DATA BLOB NOT NULL,
+    constraint TEST_SNAPSHOT_PK primary key (SUBJECT, INSTANCE_TYPE, SOURCING_MODE)
+);
+
 CREATE TABLE INT_LOCK  (
    LOCK_KEY CHAR(36) NOT NULL,
    REGION VARCHAR(100) NOT NULL,
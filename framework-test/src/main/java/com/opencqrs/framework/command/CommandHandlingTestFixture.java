@@ -269,21 +269,25 @@ public class CommandHandlingTestFixture<C extends Command> {
                                 UUID.randomUUID().toString(),
                                 UUID.randomUUID().toString());
 
-                        AtomicReference reference = new AtomicReference<@Nullable Object>(state());
-                        if (!Util.applyUsingHandlers(
+                        List<StateRebuildingHandlerDefinition<Object, Object>> relevantSRHDs =
                                 stateRebuildingHandlerDefinitions.stream()
                                         .filter(srhd -> srhd.instanceClass().equals(instanceClass()))
-                                        .toList(),
-                                reference,
-                                rawEvent.subject(),
-                                event.payload(),
-                                event.metaData() != null ? event.metaData() : Map.of(),
-                                rawEvent)) {
+                                        .toList();
+                        if (relevantSRHDs.stream()
+                                .noneMatch(srhd -> srhd.eventClass().isAssignableFrom(event.payload().getClass()))) {
                             throw new IllegalArgumentException(
                                     "No suitable state rebuilding handler definition found for event type: "
                                             + event.payload().getClass().getSimpleName());
                         }
-                        yield withSubject(rawEvent.subject()).withState(reference.get());
+                        var instance = new StateRebuildingHandlers<>(relevantSRHDs)
+                                .rebuild(state())
+                                .apply(
+                                        rawEvent.subject(),
+                                        event.payload(),
+                                        event.metaData() != null ? event.metaData() : Map.of(),
+                                        rawEvent)
+                                .instance();
+                        yield withSubject(rawEvent.subject()).withState(instance);
                     }
                 };
             }
@@ -493,7 +497,7 @@ public class CommandHandlingTestFixture<C extends Command> {
                         };
 
                 return new Expect(
-                        command, eventCapturer.previousInstance.get(), eventCapturer.getEvents(), result, null);
+                        command, eventCapturer.previousInstance.instance(), eventCapturer.getEvents(), result, null);
             } catch (Throwable t) {
                 return new Expect(command, currentState, List.of(), null, t);
             }
@@ -10,6 +10,10 @@ import com.opencqrs.framework.CqrsFrameworkException;
  */
 public class ConcurrencyException extends CqrsFrameworkException.TransientException {
 
+    public ConcurrencyException(String message) {
+        super(message);
+    }
+
     public ConcurrencyException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -6,7 +6,6 @@ import com.opencqrs.framework.persistence.CapturedEvent;
 import com.opencqrs.framework.persistence.EventCapturer;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -17,17 +16,20 @@ import org.jspecify.annotations.Nullable;
  */
 public class CommandEventCapturer<I> extends EventCapturer implements CommandEventPublisher<I> {
 
-    private final List<StateRebuildingHandlerDefinition<I, Object>> stateRebuildingHandlerDefinitions;
     private final String subject;
 
-    final AtomicReference<@Nullable I> previousInstance;
+    final StateRebuildingHandlers<I>.Rebuild previousInstance;
 
     public CommandEventCapturer(
             @Nullable I initialInstance,
             String subject,
             List<StateRebuildingHandlerDefinition<I, Object>> stateRebuildingHandlerDefinitions) {
-        this.stateRebuildingHandlerDefinitions = stateRebuildingHandlerDefinitions;
-        this.previousInstance = new AtomicReference<@Nullable I>(initialInstance);
+        this(initialInstance, subject, new StateRebuildingHandlers<>(stateRebuildingHandlerDefinitions));
+    }
+
+    CommandEventCapturer(
+            @Nullable I initialInstance, String subject, StateRebuildingHandlers<I> stateRebuildingHandlers) {
+        this.previousInstance = stateRebuildingHandlers.rebuild(initialInstance);
         this.subject = subject;
     }
 
@@ -35,9 +37,7 @@ public class CommandEventCapturer<I> extends EventCapturer implements CommandEve
     public <E> @Nullable I publish(E event, Map<String, ?> metaData, List<Precondition> preconditions) {
         getEvents().add(new CapturedEvent(subject, event, metaData, preconditions));
 
-        Util.applyUsingHandlers(stateRebuildingHandlerDefinitions, previousInstance, subject, event, metaData, null);
-
-        return previousInstance.get();
+        return previousInstance.apply(subject, event, metaData, null).instance();
     }
 
     @Override
@@ -46,8 +46,6 @@ public class CommandEventCapturer<I> extends EventCapturer implements CommandEve
         String s = subject + "/" + subjectSuffix;
         getEvents().add(new CapturedEvent(s, event, metaData, preconditions));
 
-        Util.applyUsingHandlers(stateRebuildingHandlerDefinitions, previousInstance, s, event, metaData, null);
-
-        return previousInstance.get();
+        return previousInstance.apply(s, event, metaData, null).instance();
     }
 }
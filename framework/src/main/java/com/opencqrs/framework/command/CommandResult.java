@@ -0,0 +1,36 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Sealed base interface for the outcome of a single {@link Command} executed as part of
+ * {@linkplain CommandRouter#sendAll(List) batch command execution}.
+ */
+public sealed interface CommandResult {
+
+    /**
+     * The command executed.
+     *
+     * @return the command
+     */
+    Command command();
+
+    /**
+     * The {@link Command} has been executed successfully and the events it captured, if any, have been published.
+     *
+     * @param command the command executed
+     * @param result the result from the {@link CommandHandler}, may be {@code null}
+     */
+    record Success(Command command, @Nullable Object result) implements CommandResult {}
+
+    /**
+     * The {@link Command} execution failed, hence none of the events it captured have been published.
+     *
+     * @param command the command executed
+     * @param exception the exception thrown from the {@link CommandHandler}, while checking the
+     *     {@link Command#getSubjectCondition()}, or while sourcing or publishing events
+     */
+    record Failure(Command command, RuntimeException exception) implements CommandResult {}
+}
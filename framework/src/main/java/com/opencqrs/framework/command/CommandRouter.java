@@ -4,20 +4,39 @@ package com.opencqrs.framework.command;
 import static java.util.stream.Collectors.*;
 
 import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
 import com.opencqrs.esdb.client.Option;
 import com.opencqrs.esdb.client.Precondition;
 import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.client.ClientInterruptedException;
+import com.opencqrs.framework.client.ConcurrencyException;
 import com.opencqrs.framework.command.cache.NoStateRebuildingCache;
 import com.opencqrs.framework.command.cache.StateRebuildingCache;
+import com.opencqrs.framework.command.locking.NoSubjectLocking;
+import com.opencqrs.framework.command.locking.SubjectLocking;
+import com.opencqrs.framework.command.metrics.CommandMetrics;
+import com.opencqrs.framework.command.metrics.NoCommandMetrics;
+import com.opencqrs.framework.command.snapshot.NoSnapshotting;
+import com.opencqrs.framework.command.snapshot.Snapshotting;
+import com.opencqrs.framework.metadata.CompactMetaData;
 import com.opencqrs.framework.metadata.PropagationMode;
 import com.opencqrs.framework.metadata.PropagationUtil;
 import com.opencqrs.framework.persistence.CapturedEvent;
 import com.opencqrs.framework.persistence.EventReader;
 import com.opencqrs.framework.persistence.ImmediateEventPublisher;
+import com.opencqrs.framework.subject.Subject;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Stream;
 import org.jspecify.annotations.Nullable;
 
@@ -28,17 +47,104 @@ import org.jspecify.annotations.Nullable;
  */
 public final class CommandRouter {
 
+    private static final Logger log = Logger.getLogger(CommandRouter.class.getName());
+    private static final int MAX_TRACKED_SNAPSHOT_EVENTS = 10_000;
+    static final int MAX_BATCH_EVENTS = 1_000;
+    private static final StateRebuildingHandlers<Object> NO_STATE_REBUILDING_HANDLERS =
+            new StateRebuildingHandlers<>(List.of());
+
     private final EventReader eventReader;
     private final ImmediateEventPublisher immediateEventPublisher;
     private final Map<Class<Command>, CommandHandlerDefinition> commandHandlerDefinitions;
-    private final Map<Class<?>, List<StateRebuildingHandlerDefinition<Object, Object>>>
-            stateRebuildingHandlerDefinitions;
+    private final Map<Class<?>, StateRebuildingHandlers<Object>> stateRebuildingHandlers = new HashMap<>();
     private final StateRebuildingCache stateRebuildingCache;
     private final PropagationMode propagationMode;
     private final Set<String> propagationKeys;
+    private final SubjectLocking subjectLocking;
+    private final ConflictRetryPolicy conflictRetryPolicy;
+    private final Snapshotting snapshotting;
+    private final Map<Class<?>, SnapshotEventDefinition<Object, Object>> snapshotEventDefinitions;
+    private final Map<StateRebuildingCache.CacheKey<?>, Integer> eventsSinceSnapshotEvent =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StateRebuildingCache.CacheKey<?>, Integer> eldest) {
+                    return size() > MAX_TRACKED_SNAPSHOT_EVENTS;
+                }
+            });
+    private final boolean trustCachedState;
+    private final PreconditionCompaction preconditionCompaction;
+    private final Executor asyncExecutor;
+    private final CommandMetrics commandMetrics;
+
+    private CommandRouter(Builder builder) {
+        this.eventReader = builder.eventReader;
+        this.immediateEventPublisher = builder.immediateEventPublisher;
+        this.stateRebuildingCache = builder.stateRebuildingCache;
+        this.propagationMode = builder.propagationMode;
+        this.propagationKeys = builder.propagationKeys;
+        this.subjectLocking = builder.subjectLocking;
+        this.conflictRetryPolicy = builder.conflictRetryPolicy;
+        this.snapshotting = builder.snapshotting;
+        this.trustCachedState = builder.trustCachedState;
+        this.preconditionCompaction = builder.preconditionCompaction;
+        this.asyncExecutor = builder.asyncExecutor;
+        this.commandMetrics = builder.commandMetrics;
+
+        Set<Class<Command>> ambiguousCommands =
+                findDuplicates(builder.commandHandlerDefinitions.stream().map(CommandHandlerDefinition::commandClass));
+        if (!ambiguousCommands.isEmpty()) {
+            throw new IllegalStateException("duplicate command handler definitions found for: " + ambiguousCommands);
+        }
+        this.commandHandlerDefinitions = builder.commandHandlerDefinitions.stream()
+                .collect(toMap(CommandHandlerDefinition::commandClass, Function.identity()));
+        Map<Class<?>, List<StateRebuildingHandlerDefinition<Object, Object>>> srhdsByInstanceClass = new HashMap<>();
+        builder.stateRebuildingHandlerDefinitions.forEach(srhd -> srhdsByInstanceClass
+                .computeIfAbsent(srhd.instanceClass(), clazz -> new ArrayList<>())
+                .add(srhd));
+
+        Set<Class<?>> ambiguousSnapshotEvents =
+                findDuplicates(builder.snapshotEventDefinitions.stream().map(SnapshotEventDefinition::instanceClass));
+        if (!ambiguousSnapshotEvents.isEmpty()) {
+            throw new IllegalStateException(
+                    "duplicate snapshot event definitions found for: " + ambiguousSnapshotEvents);
+        }
+        this.snapshotEventDefinitions = new HashMap<>();
+        builder.snapshotEventDefinitions.forEach(sed -> {
+            this.snapshotEventDefinitions.put(sed.instanceClass(), sed);
+            srhdsByInstanceClass
+                    .computeIfAbsent(sed.instanceClass(), clazz -> new ArrayList<>())
+                    .add(new StateRebuildingHandlerDefinition<>(
+                            sed.instanceClass(),
+                            sed.eventClass(),
+                            (StateRebuildingHandler.FromObject<Object, Object>)
+                                    (instance, event) -> sed.restore().apply(event)));
+        });
+        Map<Class<?>, Set<SourcingMode>> snapshotSourcingModes = new HashMap<>();
+        builder.commandHandlerDefinitions.forEach(chd -> {
+            if (chd.sourcingMode() != SourcingMode.NONE
+                    && this.snapshotEventDefinitions.containsKey(chd.instanceClass())) {
+                snapshotSourcingModes
+                        .computeIfAbsent(chd.instanceClass(), clazz -> EnumSet.noneOf(SourcingMode.class))
+                        .add(chd.sourcingMode());
+            }
+        });
+        snapshotSourcingModes.values().removeIf(modes -> modes.size() == 1);
+        if (!snapshotSourcingModes.isEmpty()) {
+            // snapshot events represent the instance state as sourced in a single mode only
+            throw new IllegalStateException(
+                    "snapshot event definitions require a single sourcing mode per instance type, found: "
+                            + snapshotSourcingModes);
+        }
+        srhdsByInstanceClass.forEach((instanceClass, srhds) ->
+                stateRebuildingHandlers.put(instanceClass, new StateRebuildingHandlers<>(srhds)));
+    }
 
     /**
-     * Creates a pre-configured instance of {@code this}.
+     * Creates a pre-configured instance of {@code this} with {@link NoSubjectLocking}, {@link NoSnapshotting},
+     * {@linkplain ConflictRetryPolicy#none() without conflict retries}, {@linkplain PreconditionCompaction#none()
+     * precondition compaction}, snapshot events, and {@link NoCommandMetrics metrics}, sourcing newer events for cached
+     * instance state and executing {@linkplain #sendAsync(Command, Map) asynchronous commands} using a new virtual
+     * thread per command.
      *
      * @param eventReader the event source
      * @param immediateEventPublisher the event sink
@@ -57,23 +163,10 @@ public final class CommandRouter {
             StateRebuildingCache stateRebuildingCache,
             PropagationMode propagationMode,
             Set<String> propagationKeys) {
-        this.eventReader = eventReader;
-        this.immediateEventPublisher = immediateEventPublisher;
-        this.stateRebuildingCache = stateRebuildingCache;
-        this.propagationMode = propagationMode;
-        this.propagationKeys = propagationKeys;
-
-        Set<Class<Command>> ambiguousCommands =
-                findDuplicates(commandHandlerDefinitions.stream().map(CommandHandlerDefinition::commandClass));
-        if (!ambiguousCommands.isEmpty()) {
-            throw new IllegalStateException("duplicate command handler definitions found for: " + ambiguousCommands);
-        }
-        this.commandHandlerDefinitions = commandHandlerDefinitions.stream()
-                .collect(toMap(CommandHandlerDefinition::commandClass, Function.identity()));
-        this.stateRebuildingHandlerDefinitions = new HashMap<>();
-        stateRebuildingHandlerDefinitions.forEach(srhd -> this.stateRebuildingHandlerDefinitions
-                .computeIfAbsent(srhd.instanceClass(), clazz -> new ArrayList<>())
-                .add(srhd));
+        this(builder(eventReader, immediateEventPublisher, commandHandlerDefinitions, stateRebuildingHandlerDefinitions)
+                .stateRebuildingCache(stateRebuildingCache)
+                .propagationMode(propagationMode)
+                .propagationKeys(propagationKeys));
     }
 
     /**
@@ -101,6 +194,192 @@ public final class CommandRouter {
                 Set.of());
     }
 
+    /**
+     * Creates a {@link Builder} for a {@link CommandRouter}, which is configured as described for
+     * {@link #CommandRouter(EventReader, ImmediateEventPublisher, List, List)}, unless customized.
+     *
+     * @param eventReader the event source
+     * @param immediateEventPublisher the event sink
+     * @param commandHandlerDefinitions a non-empty list of command handler definitions to be executable
+     * @param stateRebuildingHandlerDefinitions a non-empty list of state rebuilding handler definitions used for
+     *     event-sourcing
+     * @return a {@link Builder} instance
+     */
+    public static Builder builder(
+            EventReader eventReader,
+            ImmediateEventPublisher immediateEventPublisher,
+            List<CommandHandlerDefinition> commandHandlerDefinitions,
+            List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions) {
+        return new Builder(
+                eventReader, immediateEventPublisher, commandHandlerDefinitions, stateRebuildingHandlerDefinitions);
+    }
+
+    /** Builder for {@link CommandRouter}. */
+    public static final class Builder {
+        private final EventReader eventReader;
+        private final ImmediateEventPublisher immediateEventPublisher;
+        private final List<CommandHandlerDefinition> commandHandlerDefinitions;
+        private final List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions;
+        private StateRebuildingCache stateRebuildingCache = new NoStateRebuildingCache();
+        private PropagationMode propagationMode = PropagationMode.NONE;
+        private Set<String> propagationKeys = Set.of();
+        private SubjectLocking subjectLocking = new NoSubjectLocking();
+        private ConflictRetryPolicy conflictRetryPolicy = ConflictRetryPolicy.none();
+        private Snapshotting snapshotting = new NoSnapshotting();
+        private List<SnapshotEventDefinition> snapshotEventDefinitions = List.of();
+        private boolean trustCachedState;
+        private PreconditionCompaction preconditionCompaction = PreconditionCompaction.none();
+        private Executor asyncExecutor = task -> Thread.ofVirtual().name("command-router-async").start(task);
+        private CommandMetrics commandMetrics = new NoCommandMetrics();
+
+        private Builder(
+                EventReader eventReader,
+                ImmediateEventPublisher immediateEventPublisher,
+                List<CommandHandlerDefinition> commandHandlerDefinitions,
+                List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions) {
+            this.eventReader = eventReader;
+            this.immediateEventPublisher = immediateEventPublisher;
+            this.commandHandlerDefinitions = commandHandlerDefinitions;
+            this.stateRebuildingHandlerDefinitions = stateRebuildingHandlerDefinitions;
+        }
+
+        /**
+         * Configures the cache to use for state rebuilding, {@link NoStateRebuildingCache} by default.
+         *
+         * @param stateRebuildingCache the cache to use for state rebuilding
+         * @return {@code this}
+         */
+        public Builder stateRebuildingCache(StateRebuildingCache stateRebuildingCache) {
+            this.stateRebuildingCache = stateRebuildingCache;
+            return this;
+        }
+
+        /**
+         * Configures the propagation mode for command meta-data, {@link PropagationMode#NONE} by default.
+         *
+         * @param propagationMode the propagation mode for command meta-data
+         * @return {@code this}
+         */
+        public Builder propagationMode(PropagationMode propagationMode) {
+            this.propagationMode = propagationMode;
+            return this;
+        }
+
+        /**
+         * Configures the command meta-data keys to propagate, if necessary.
+         *
+         * @param propagationKeys the command meta-data keys to propagate
+         * @return {@code this}
+         */
+        public Builder propagationKeys(Set<String> propagationKeys) {
+            this.propagationKeys = propagationKeys;
+            return this;
+        }
+
+        /**
+         * Configures the locking used to serialize command executions per subject, {@link NoSubjectLocking} by
+         * default.
+         *
+         * @param subjectLocking the locking used to serialize command executions per subject
+         * @return {@code this}
+         */
+        public Builder subjectLocking(SubjectLocking subjectLocking) {
+            this.subjectLocking = subjectLocking;
+            return this;
+        }
+
+        /**
+         * Configures the policy used to retry command executions failing with a {@link ConcurrencyException},
+         * {@linkplain ConflictRetryPolicy#none() without retries} by default.
+         *
+         * @param conflictRetryPolicy the policy used to retry conflicting command executions
+         * @return {@code this}
+         */
+        public Builder conflictRetryPolicy(ConflictRetryPolicy conflictRetryPolicy) {
+            this.conflictRetryPolicy = conflictRetryPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the snapshotting used to restore instance state prior to sourcing, {@link NoSnapshotting} by
+         * default.
+         *
+         * @param snapshotting the snapshotting used to restore instance state
+         * @return {@code this}
+         */
+        public Builder snapshotting(Snapshotting snapshotting) {
+            this.snapshotting = snapshotting;
+            return this;
+        }
+
+        /**
+         * Configures the snapshot event definitions, at most one per instance type, none by default.
+         *
+         * @param snapshotEventDefinitions a list of snapshot event definitions
+         * @return {@code this}
+         */
+        public Builder snapshotEventDefinitions(List<SnapshotEventDefinition> snapshotEventDefinitions) {
+            this.snapshotEventDefinitions = snapshotEventDefinitions;
+            return this;
+        }
+
+        /**
+         * Configures whether cached instance state is used without sourcing newer events, relying on
+         * {@linkplain Precondition.SubjectIsOnEventId preconditions} to detect stale state, {@code false} by default.
+         *
+         * @param trustCachedState whether cached instance state is trusted
+         * @return {@code this}
+         */
+        public Builder trustCachedState(boolean trustCachedState) {
+            this.trustCachedState = trustCachedState;
+            return this;
+        }
+
+        /**
+         * Configures the compaction applied to the preconditions derived from the sourced subjects,
+         * {@linkplain PreconditionCompaction#none() none} by default.
+         *
+         * @param preconditionCompaction the precondition compaction
+         * @return {@code this}
+         */
+        public Builder preconditionCompaction(PreconditionCompaction preconditionCompaction) {
+            this.preconditionCompaction = preconditionCompaction;
+            return this;
+        }
+
+        /**
+         * Configures the executor used for {@linkplain #sendAsync(Command, Map) asynchronous command execution}, using
+         * a new virtual thread per command by default.
+         *
+         * @param asyncExecutor the executor used for asynchronous command execution
+         * @return {@code this}
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        /**
+         * Configures the metrics recording the phases of each command execution, {@link NoCommandMetrics} by default.
+         *
+         * @param commandMetrics the command metrics
+         * @return {@code this}
+         */
+        public Builder commandMetrics(CommandMetrics commandMetrics) {
+            this.commandMetrics = commandMetrics;
+            return this;
+        }
+
+        /**
+         * Creates the configured {@link CommandRouter}.
+         *
+         * @return a fully initialized command router
+         */
+        public CommandRouter build() {
+            return new CommandRouter(this);
+        }
+    }
+
     /**
      * Sends the given command with empty meta-data to the {@linkplain CommandHandlerDefinition#commandClass()
      * appropriate} {@link CommandHandler} for execution. The command execution process involves the following:
@@ -114,8 +393,9 @@ public final class CommandRouter {
      *       {@linkplain StateRebuildingCache#fetchAndMerge(StateRebuildingCache.CacheKey, Function) fetched}
      *   <li>newer (than cached) events are {@linkplain EventReader#consumeAsObject(EventReader.ClientRequestor,
      *       BiConsumer)} read} from the underlying event store, upcasted and converted to Java objects
+     *   <li>the events are applied to all matching {@link StateRebuildingHandler}s while being read, to reconstruct
+     *       the instance state
      *   <li>the {@link Command#getSubjectCondition()} is checked
-     *   <li>the events are applied to all matching {@link StateRebuildingHandler}s to reconstruct the instance state
      *   <li>the {@linkplain StateRebuildingCache cache is updated} with the reconstructed instance state
      *   <li>the command is {@linkplain CommandHandler executed} on the instance
      *   <li>all events captured as part of the command execution are {@linkplain ImmediateEventPublisher#publish(List,
@@ -138,22 +418,38 @@ public final class CommandRouter {
      * {@link CommandHandler} for execution. The command execution process involves the following:
      *
      * <ol>
+     *   <li>the {@linkplain SubjectLocking#withLock(String, java.util.function.Supplier) subject lock} is acquired for
+     *       the {@link Command#getSubject()}, if configured
      *   <li>the {@linkplain CommandHandlerDefinition#commandClass() matching} {@link CommandHandler} is determined
      *   <li>the {@linkplain CommandHandlerDefinition#instanceClass() instance type} for event-sourcing is determined
      *   <li>all {@linkplain StateRebuildingHandlerDefinition#instanceClass() matching} {@link StateRebuildingHandler}s
      *       are determined
      *   <li>the {@link StateRebuildingCache} is
      *       {@linkplain StateRebuildingCache#fetchAndMerge(StateRebuildingCache.CacheKey, Function) fetched}
+     *   <li>the instance state is {@linkplain Snapshotting#restore(StateRebuildingCache.CacheKey) restored} from a
+     *       snapshot, if not cached
      *   <li>newer (than cached) events are {@linkplain EventReader#consumeAsObject(EventReader.ClientRequestor,
-     *       BiConsumer)} read} from the underlying event store, upcasted and converted to Java objects
+     *       BiConsumer)} read} from the underlying event store, upcasted and converted to Java objects, starting with
+     *       the latest {@linkplain SnapshotEventDefinition snapshot event} if defined and not cached, unless cached
+     *       instance state is trusted
+     *   <li>the events are applied to all matching {@link StateRebuildingHandler}s while being read, to reconstruct
+     *       the instance state
      *   <li>the {@link Command#getSubjectCondition()} is checked
-     *   <li>the events are applied to all matching {@link StateRebuildingHandler}s to reconstruct the instance state
+     *   <li>a snapshot of the reconstructed instance state is taken, if due according to the {@link Snapshotting}
      *   <li>the {@linkplain StateRebuildingCache cache is updated} with the reconstructed instance state
      *   <li>the command is {@linkplain CommandHandler executed} on the instance
      *   <li>all events captured as part of the command execution are {@linkplain PropagationUtil#propagateMetaData(Map,
      *       Map, PropagationMode) applied with propagated command meta-data}
      *   <li>the events are {@linkplain ImmediateEventPublisher#publish(List, List) published atomically} to the
      *       underlying event store
+     *   <li>if publication fails with a {@link ConcurrencyException}, newer events are sourced and applied to the
+     *       instance state and the command is re-executed, as permitted by the {@link ConflictRetryPolicy} or once if
+     *       executed on trusted cached instance state, releasing the subject lock while backing off
+     *   <li>the published events are applied to the instance state, which is written through to the
+     *       {@link StateRebuildingCache}
+     *   <li>a {@linkplain SnapshotEventDefinition snapshot event} of the resulting instance state is published, if
+     *       due, once the subject lock has been released
+     *   <li>the phases of the command execution are {@linkplain CommandMetrics recorded}
      *   <li>the {@link CommandHandler} result is returned to the caller
      * </ol>
      *
@@ -165,134 +461,876 @@ public final class CommandRouter {
      * @param <R> the result type
      */
     public <R> @Nullable R send(Command command, Map<String, ?> metaData) {
+        var execution = commandMetrics.started(command.getClass());
+        try {
+            var retry = new Retry();
+            while (true) {
+                R result = subjectLocking.withLock(
+                        command.getSubject(), () -> doSend(command, metaData, execution, retry));
+                ConcurrencyException conflict = retry.conflict;
+                if (conflict == null) {
+                    retry.afterUnlocking.forEach(Runnable::run);
+                    execution.completed(null);
+                    return result;
+                }
+                // backing off outside of the subject lock, so that other commands for the subject may proceed
+                retry.conflict = null;
+                backoff(retry.backoffMillis, conflict);
+            }
+        } catch (Throwable t) {
+            execution.completed(t);
+            throw t;
+        }
+    }
+
+    private <R> @Nullable R doSend(
+            Command command, Map<String, ?> metaData, CommandMetrics.Execution execution, Retry retry) {
         CommandHandlerDefinition<Object, Command, R> commandHandlerDefinition =
                 commandHandlerDefinitions.get(command.getClass());
         if (commandHandlerDefinition == null) {
             throw new CqrsFrameworkException.NonTransientException("no command handler definition for command: "
                     + command.getClass().getName());
         }
-        Optional<List<StateRebuildingHandlerDefinition<Object, Object>>> relevantSRHDs =
-                Optional.ofNullable(stateRebuildingHandlerDefinitions.get(commandHandlerDefinition.instanceClass()));
+        StateRebuildingHandlers<Object> relevantSRHDs = stateRebuildingHandlers.getOrDefault(
+                commandHandlerDefinition.instanceClass(), NO_STATE_REBUILDING_HANDLERS);
 
-        var fromCacheMerged = stateRebuildingCache.fetchAndMerge(
-                new StateRebuildingCache.CacheKey<>(
+        var cacheKey = new StateRebuildingCache.CacheKey<>(
+                command.getSubject(),
+                commandHandlerDefinition.instanceClass(),
+                commandHandlerDefinition.sourcingMode());
+        StateRebuildingCache.CacheValue<Object> sourced;
+        var previous = retry.sourced;
+        if (previous == null) {
+            var trusted = new AtomicBoolean();
+            sourced = stateRebuildingCache.fetchAndMerge(cacheKey, cached -> {
+                if (trustCachedState && cached.eventId() != null) {
+                    trusted.set(true);
+                    return cached;
+                }
+                return source(
                         command.getSubject(),
-                        commandHandlerDefinition.instanceClass(),
-                        commandHandlerDefinition.sourcingMode()),
-                cached -> {
-                    Set<Option> options = new HashSet<>();
-                    if (cached.eventId() != null) {
-                        options.add(new Option.LowerBoundExclusive(cached.eventId()));
+                        commandHandlerDefinition,
+                        command,
+                        relevantSRHDs,
+                        cacheKey,
+                        cached,
+                        execution);
+            });
+            if (trusted.get()) {
+                execution.sourced(CommandMetrics.CacheResult.HIT, 0, 0, 0);
+                checkSubjectCondition(command, commandHandlerDefinition, sourced.sourcedSubjectIds().keySet());
+            }
+            retry.trusted = trusted.get();
+            conflictRetryPolicy.executed();
+        } else {
+            sourced = stateRebuildingCache.fetchAndMerge(
+                    cacheKey,
+                    cached -> source(
+                            command.getSubject(),
+                            commandHandlerDefinition,
+                            command,
+                            relevantSRHDs,
+                            cacheKey,
+                            previous,
+                            execution));
+        }
+
+        while (true) {
+            try {
+                return handleAndPublish(
+                        command,
+                        metaData,
+                        commandHandlerDefinition,
+                        relevantSRHDs,
+                        cacheKey,
+                        sourced,
+                        execution,
+                        retry.afterUnlocking);
+            } catch (ConcurrencyException e) {
+                execution.conflicted();
+                if (retry.trusted) {
+                    retry.trusted = false;
+                    log.fine(() -> "re-sourcing stale cached instance state for subject: " + command.getSubject());
+                } else if (conflictRetryPolicy.tryRetry(retry.number)) {
+                    retry.backoffMillis = conflictRetryPolicy.backoffMillis(retry.number++);
+                    retry.sourced = sourced;
+                    retry.conflict = e;
+                    return null;
+                } else {
+                    throw e;
+                }
+                var stale = sourced;
+                sourced = stateRebuildingCache.fetchAndMerge(
+                        cacheKey,
+                        cached -> source(
+                                command.getSubject(),
+                                commandHandlerDefinition,
+                                command,
+                                relevantSRHDs,
+                                cacheKey,
+                                stale,
+                                execution));
+            }
+        }
+    }
+
+    /**
+     * State of a {@linkplain #send(Command, Map) command execution} carried across {@linkplain ConflictRetryPolicy
+     * retries}, which back off after releasing the subject lock and re-source once it has been acquired again, as well
+     * as the actions, i.e. snapshot event publication, to be run once the subject lock has been released.
+     */
+    private static final class Retry {
+        private final List<Runnable> afterUnlocking = new ArrayList<>();
+        private int number = 1;
+        private boolean trusted;
+        private StateRebuildingCache.@Nullable CacheValue<Object> sourced;
+        private @Nullable ConcurrencyException conflict;
+        private long backoffMillis;
+    }
+
+    /**
+     * Sources the events of the given subject newer than the fetched instance state and applies them.
+     *
+     * @param conditionedCommand the command whose {@link Command#getSubjectCondition()} is checked while sourcing, or
+     *     {@code null} if checked by the caller, e.g. for every command of a {@linkplain #sendAll(List, Map) batch}
+     * @return the merged instance state
+     */
+    private StateRebuildingCache.CacheValue<Object> source(
+            String subject,
+            CommandHandlerDefinition<Object, Command, ?> commandHandlerDefinition,
+            @Nullable Command conditionedCommand,
+            StateRebuildingHandlers<Object> relevantSRHDs,
+            StateRebuildingCache.CacheKey<Object> cacheKey,
+            StateRebuildingCache.CacheValue<Object> fetched,
+            CommandMetrics.Execution execution) {
+        long started = System.nanoTime();
+        var cached = fetched.eventId() != null ? fetched : snapshotting.restore(cacheKey).orElse(fetched);
+        var snapshotEventDefinition = snapshotEventDefinitions.get(cacheKey.instanceClass());
+
+        Set<Option> options = new HashSet<>();
+        if (cached.eventId() != null) {
+            options.add(new Option.LowerBoundExclusive(cached.eventId()));
+        } else if (snapshotEventDefinition != null) {
+            options.add(new Option.FromLatestEvent(
+                    subject,
+                    snapshotEventDefinition.eventType(),
+                    Option.FromLatestEvent.IfEventIsMissing.READ_EVERYTHING));
+        }
+
+        EventReader.ClientRequestor clientRequestor =
+                switch (commandHandlerDefinition.sourcingMode()) {
+                    case NONE -> (client, eventConsumer) -> {};
+                    case LOCAL -> new EventReader.ClientRequestor.Read(subject, options);
+                    case RECURSIVE -> {
+                        options.add(new Option.Recursive());
+                        yield new EventReader.ClientRequestor.Read(subject, options);
                     }
+                };
 
-                    EventReader.ClientRequestor clientRequestor =
-                            switch (commandHandlerDefinition.sourcingMode()) {
-                                case NONE -> (client, eventConsumer) -> {};
-                                case LOCAL ->
-                                    (client, eventConsumer) ->
-                                            client.read(command.getSubject(), options, eventConsumer);
-                                case RECURSIVE ->
-                                    (client, eventConsumer) -> {
-                                        options.add(new Option.Recursive());
-                                        client.read(command.getSubject(), options, eventConsumer);
-                                    };
-                            };
-
-                    AtomicReference<@Nullable String> latestSourcedId =
-                            new AtomicReference<@Nullable String>(cached.eventId());
-                    Map<String, String> sourcedSubjectIds = new HashMap<>(cached.sourcedSubjectIds());
-                    List<SourcedEvent> sourcedEvents = new ArrayList<>();
-
-                    eventReader.consumeRaw(clientRequestor, (rawCallback, raw) -> {
-                        latestSourcedId.set(raw.id());
-                        sourcedSubjectIds.put(raw.subject(), raw.id());
-                        rawCallback.upcast((upcastedCallback, upcasted) -> upcastedCallback.convert(
-                                (metadata, o) -> sourcedEvents.add(new SourcedEvent(o, metadata, raw))));
-                    });
+        AtomicReference<@Nullable String> latestSourcedId = new AtomicReference<@Nullable String>(cached.eventId());
+        var instance = relevantSRHDs.rebuild(cached.instance());
+        Map<String, String> sourcedSubjectIds = new HashMap<>(cached.sourcedSubjectIds());
+        var sourcedEvents = new AtomicInteger();
+        var rebuildingNanos = new AtomicLong();
+        var eventsSinceSnapshot = new AtomicInteger(
+                cached.eventId() != null ? eventsSinceSnapshotEvent.getOrDefault(cacheKey, 0) : 0);
+
+        boolean pristine = conditionedCommand != null
+                && conditionedCommand.getSubjectCondition() == Command.SubjectCondition.PRISTINE;
+        if (conditionedCommand != null && pristine) {
+            checkSubjectCondition(conditionedCommand, commandHandlerDefinition, sourcedSubjectIds.keySet());
+        }
 
-                    if (!commandHandlerDefinition.sourcingMode().equals(SourcingMode.NONE)) {
-                        switch (command.getSubjectCondition()) {
-                            case NONE -> {}
-                            case EXISTS -> {
-                                if (!sourcedSubjectIds.containsKey(command.getSubject())) {
-                                    throw new CommandSubjectDoesNotExistException(
-                                            "subject condition violated, no event was sourced matching the subject of"
-                                                    + " the given command: "
-                                                    + command.getClass().getName(),
-                                            command);
-                                }
-                            }
-                            case PRISTINE -> {
-                                if (sourcedSubjectIds.containsKey(command.getSubject())) {
-                                    throw new CommandSubjectAlreadyExistsException(
-                                            "subject condition violated, at least one event was sourced matching the"
-                                                    + " subject of given command: "
-                                                    + command.getClass().getName(),
-                                            command);
-                                }
-                            }
-                        }
+        eventReader.consumeRaw(clientRequestor, (rawCallback, raw) -> {
+            latestSourcedId.set(raw.id());
+            if (isWrittenThrough(cached, raw)) {
+                // already applied when written through, see writeThrough()
+                return;
+            }
+            if (pristine && sourcedSubjectIds.containsKey(subject)) {
+                // subject condition already violated, so the remaining events need not be applied
+                return;
+            }
+            rawCallback.upcast((upcastedCallback, upcasted) -> upcastedCallback.convert((metadata, o) -> {
+                sourcedEvents.incrementAndGet();
+                if (snapshotEventDefinition != null && snapshotEventDefinition.eventClass().isInstance(o)) {
+                    restoreSourcedSubjectIds(metadata, sourcedSubjectIds);
+                    eventsSinceSnapshot.set(0);
+                } else {
+                    eventsSinceSnapshot.incrementAndGet();
+                }
+                long rebuilding = System.nanoTime();
+                instance.apply(raw.subject(), o, metadata, raw);
+                rebuildingNanos.addAndGet(System.nanoTime() - rebuilding);
+            }));
+            sourcedSubjectIds.put(raw.subject(), raw.id());
+        });
+        execution.sourced(
+                fetched.eventId() == null
+                        ? CommandMetrics.CacheResult.MISS
+                        : sourcedEvents.get() > 0 ? CommandMetrics.CacheResult.MERGE : CommandMetrics.CacheResult.HIT,
+                sourcedEvents.get(),
+                System.nanoTime() - started - rebuildingNanos.get(),
+                rebuildingNanos.get());
+
+        if (conditionedCommand != null) {
+            checkSubjectCondition(conditionedCommand, commandHandlerDefinition, sourcedSubjectIds.keySet());
+        }
+        if (snapshotEventDefinition != null) {
+            eventsSinceSnapshotEvent.put(cacheKey, eventsSinceSnapshot.get());
+        }
+
+        var merged =
+                new StateRebuildingCache.CacheValue<>(latestSourcedId.get(), instance.instance(), sourcedSubjectIds);
+        snapshotting.sourced(cacheKey, merged, sourcedEvents.get());
+        return merged;
+    }
+
+    /**
+     * Determines whether the given event has already been applied to the cached instance state when written through,
+     * without advancing the position to continue sourcing from.
+     */
+    static boolean isWrittenThrough(StateRebuildingCache.CacheValue<?> cached, Event raw) {
+        String eventId = cached.eventId();
+        String writtenId = cached.sourcedSubjectIds().get(raw.subject());
+        return eventId != null
+                && writtenId != null
+                && IdUtil.fromEventId(writtenId) > IdUtil.fromEventId(eventId)
+                && IdUtil.fromEventId(raw.id()) <= IdUtil.fromEventId(writtenId);
+    }
+
+    private static void checkSubjectCondition(
+            Command command,
+            CommandHandlerDefinition<Object, Command, ?> commandHandlerDefinition,
+            Set<String> sourcedSubjects) {
+        if (!commandHandlerDefinition.sourcingMode().equals(SourcingMode.NONE)) {
+            switch (command.getSubjectCondition()) {
+                case NONE -> {}
+                case EXISTS -> {
+                    if (!sourcedSubjects.contains(command.getSubject())) {
+                        throw new CommandSubjectDoesNotExistException(
+                                "subject condition violated, no event was sourced matching the subject of"
+                                        + " the given command: "
+                                        + command.getClass().getName(),
+                                command);
+                    }
+                }
+                case PRISTINE -> {
+                    if (sourcedSubjects.contains(command.getSubject())) {
+                        throw new CommandSubjectAlreadyExistsException(
+                                "subject condition violated, at least one event was sourced matching the"
+                                        + " subject of given command: "
+                                        + command.getClass().getName(),
+                                command);
                     }
+                }
+            }
+        }
+    }
 
-                    final AtomicReference<@Nullable Object> instance =
-                            new AtomicReference<@Nullable Object>(cached.instance());
-                    sourcedEvents.forEach(sourced -> relevantSRHDs.ifPresent(srhds -> Util.applyUsingHandlers(
-                            srhds, instance, sourced.raw.subject(), sourced.event, sourced.metaData, sourced.raw)));
-
-                    return new StateRebuildingCache.CacheValue<>(
-                            latestSourcedId.get(), instance.get(), sourcedSubjectIds);
-                });
-
-        var eventCapturer = new CommandEventCapturer<>(
-                fromCacheMerged.instance(), command.getSubject(), relevantSRHDs.orElseGet(List::of));
-
-        R result =
-                switch (commandHandlerDefinition.handler()) {
-                    case CommandHandler.ForCommand<Object, Command, R> handler ->
-                        handler.handle(command, eventCapturer);
-                    case CommandHandler.ForInstanceAndCommand<Object, Command, R> handler ->
-                        handler.handle(fromCacheMerged.instance(), command, eventCapturer);
-                    case CommandHandler.ForInstanceAndCommandAndMetaData<Object, Command, R> handler ->
-                        handler.handle(fromCacheMerged.instance(), command, metaData, eventCapturer);
-                };
+    private static void restoreSourcedSubjectIds(Map<String, ?> metaData, Map<String, String> sourcedSubjectIds) {
+        if (metaData.get(SnapshotEventDefinition.SOURCED_SUBJECT_IDS_META_DATA_KEY) instanceof Map<?, ?> ids) {
+            ids.forEach((subject, id) -> sourcedSubjectIds.put(subject.toString(), id.toString()));
+        }
+    }
 
+    private <R> @Nullable R handleAndPublish(
+            Command command,
+            Map<String, ?> metaData,
+            CommandHandlerDefinition<Object, Command, R> commandHandlerDefinition,
+            StateRebuildingHandlers<Object> relevantSRHDs,
+            StateRebuildingCache.CacheKey<Object> cacheKey,
+            StateRebuildingCache.CacheValue<Object> sourced,
+            CommandMetrics.Execution execution,
+            List<Runnable> afterUnlocking) {
+        var eventCapturer = new CommandEventCapturer<>(sourced.instance(), command.getSubject(), relevantSRHDs);
+
+        long handling = System.nanoTime();
+        R result = handle(command, metaData, commandHandlerDefinition, sourced.instance(), eventCapturer);
+        execution.handled(System.nanoTime() - handling);
+
+        List<Event> published = List.of();
+        var written = sourced;
         if (!eventCapturer.getEvents().isEmpty()) {
-            Map<String, ?> propagationMetaData = new HashMap<>(metaData);
-            propagationMetaData.keySet().retainAll(propagationKeys);
-
-            var events = eventCapturer.getEvents().stream()
-                    .map(it -> new CapturedEvent(
-                            it.subject(),
-                            it.event(),
-                            PropagationUtil.propagateMetaData(it.metaData(), propagationMetaData, propagationMode),
-                            it.preconditions()))
-                    .toList();
-
-            List<Precondition> additionalPreconditions = events.stream()
-                    .map(CapturedEvent::subject)
-                    .filter(subject -> switch (commandHandlerDefinition.sourcingMode()) {
+            var events = propagate(eventCapturer.getEvents(), metaData);
+            Set<Precondition> additionalPreconditions =
+                    preconditions(command, commandHandlerDefinition, sourced, events);
+            long publishing = System.nanoTime();
+            published = immediateEventPublisher.publish(events, new ArrayList<>(additionalPreconditions));
+            execution.published(additionalPreconditions.size(), System.nanoTime() - publishing);
+            written = writeThrough(
+                    command, cacheKey, relevantSRHDs, sourced, events, additionalPreconditions, published);
+        }
+        var snapshotEvent = snapshotEventIfDue(
+                command,
+                cacheKey,
+                relevantSRHDs,
+                sourced,
+                written,
+                eventCapturer.previousInstance.instance(),
+                published);
+        if (snapshotEvent != null) {
+            afterUnlocking.add(snapshotEvent);
+        }
+        return result;
+    }
+
+    private static <R> @Nullable R handle(
+            Command command,
+            Map<String, ?> metaData,
+            CommandHandlerDefinition<Object, Command, R> commandHandlerDefinition,
+            @Nullable Object instance,
+            CommandEventCapturer<Object> eventCapturer) {
+        return switch (commandHandlerDefinition.handler()) {
+            case CommandHandler.ForCommand<Object, Command, R> handler -> handler.handle(command, eventCapturer);
+            case CommandHandler.ForInstanceAndCommand<Object, Command, R> handler ->
+                handler.handle(instance, command, eventCapturer);
+            case CommandHandler.ForInstanceAndCommandAndMetaData<Object, Command, R> handler ->
+                handler.handle(instance, command, metaData, eventCapturer);
+        };
+    }
+
+    private List<CapturedEvent> propagate(List<CapturedEvent> captured, Map<String, ?> metaData) {
+        Map<String, ?> propagationMetaData = CompactMetaData.retained(metaData, propagationKeys);
+
+        return captured.stream()
+                .map(it -> new CapturedEvent(
+                        it.subject(),
+                        it.event(),
+                        PropagationUtil.propagateMetaData(it.metaData(), propagationMetaData, propagationMode),
+                        it.preconditions()))
+                .toList();
+    }
+
+    private Set<Precondition> preconditions(
+            Command command,
+            CommandHandlerDefinition<Object, Command, ?> commandHandlerDefinition,
+            StateRebuildingCache.CacheValue<Object> sourced,
+            List<CapturedEvent> events) {
+        List<Precondition> sourcingPreconditions = events.stream()
+                .map(CapturedEvent::subject)
+                .filter(subject -> switch (commandHandlerDefinition.sourcingMode()) {
+                    case NONE -> false;
+                    case LOCAL -> subject.equals(command.getSubject());
+                    case RECURSIVE -> Subject.isSameOrDescendantOf(subject, command.getSubject());
+                })
+                .filter(subject -> !sourced.sourcedSubjectIds().containsKey(subject))
+                .map(Precondition.SubjectIsPristine::new)
+                .collect(toList());
+        sourced.sourcedSubjectIds().entrySet().stream()
+                .map(e -> new Precondition.SubjectIsOnEventId(e.getKey(), e.getValue()))
+                .collect(toCollection(() -> sourcingPreconditions));
+
+        Set<Precondition> additionalPreconditions = new LinkedHashSet<>(preconditionCompaction.compact(
+                command.getSubject(), commandHandlerDefinition.sourcingMode(), sourcingPreconditions));
+        switch (command.getSubjectCondition()) {
+            case PRISTINE -> additionalPreconditions.add(new Precondition.SubjectIsPristine(command.getSubject()));
+            case EXISTS -> additionalPreconditions.add(new Precondition.SubjectIsPopulated(command.getSubject()));
+        }
+        events.stream().flatMap(e -> e.preconditions().stream()).collect(toCollection(() -> additionalPreconditions));
+        return additionalPreconditions;
+    }
+
+    /**
+     * Applies the given published events to the instance state and updates the cache accordingly, unless it has been
+     * modified concurrently. Events outside the sourcing scope of the cache key are skipped, as they would not have
+     * been sourced either.
+     *
+     * <p>For {@link SourcingMode#RECURSIVE} the position to continue sourcing from is advanced to the published events
+     * only, if the preconditions {@linkplain PreconditionCompaction#guardsHierarchy(String, Collection) guard the whole
+     * subject hierarchy}. Otherwise, events published concurrently for subjects not sourced so far would be missed,
+     * hence the position is retained and the published events are skipped once sourced again.
+     *
+     * @return the instance state after applying the published events
+     */
+    private StateRebuildingCache.CacheValue<Object> writeThrough(
+            Command command,
+            StateRebuildingCache.CacheKey<Object> cacheKey,
+            StateRebuildingHandlers<Object> relevantSRHDs,
+            StateRebuildingCache.CacheValue<Object> base,
+            List<CapturedEvent> events,
+            Collection<Precondition> preconditions,
+            List<Event> published) {
+        if (cacheKey.sourcingMode() == SourcingMode.NONE || events.size() != published.size()) {
+            return base;
+        }
+
+        boolean advance = cacheKey.sourcingMode() == SourcingMode.LOCAL
+                || PreconditionCompaction.guardsHierarchy(command.getSubject(), preconditions);
+        var instance = relevantSRHDs.rebuild(base.instance());
+        Map<String, String> sourcedSubjectIds = new HashMap<>(base.sourcedSubjectIds());
+        @Nullable String eventId = base.eventId();
+        int applied = 0;
+        for (int i = 0; i < events.size(); i++) {
+            Event raw = published.get(i);
+            boolean sourceable =
+                    switch (cacheKey.sourcingMode()) {
                         case NONE -> false;
-                        case LOCAL -> subject.equals(command.getSubject());
-                        case RECURSIVE -> subject.startsWith(command.getSubject());
-                    })
-                    .filter(subject -> !fromCacheMerged.sourcedSubjectIds().containsKey(subject))
-                    .map(Precondition.SubjectIsPristine::new)
-                    .collect(toList());
-            switch (command.getSubjectCondition()) {
-                case PRISTINE -> additionalPreconditions.add(new Precondition.SubjectIsPristine(command.getSubject()));
-                case EXISTS -> additionalPreconditions.add(new Precondition.SubjectIsPopulated(command.getSubject()));
+                        case LOCAL -> raw.subject().equals(command.getSubject());
+                        case RECURSIVE -> Subject.isSameOrDescendantOf(raw.subject(), command.getSubject());
+                    };
+            if (!sourceable) {
+                continue;
+            }
+            CapturedEvent captured = events.get(i);
+            instance.apply(raw.subject(), captured.event(), captured.metaData(), raw);
+            sourcedSubjectIds.put(raw.subject(), raw.id());
+            if (advance) {
+                eventId = raw.id();
+            }
+            applied++;
+        }
+        if (applied == 0) {
+            return base;
+        }
+
+        var written = new StateRebuildingCache.CacheValue<>(eventId, instance.instance(), sourcedSubjectIds);
+        stateRebuildingCache.fetchAndMerge(cacheKey, cached -> {
+            boolean unmodified = cached.eventId() == null || Objects.equals(cached.eventId(), base.eventId());
+            return unmodified ? written : cached;
+        });
+        snapshotting.sourced(cacheKey, written, applied);
+        return written;
+    }
+
+    /**
+     * Determines whether a snapshot event of the given instance state is due and creates the action publishing it,
+     * which is to be run once the subject lock has been released, so that it does not delay other commands for the
+     * subject.
+     *
+     * @return the action publishing the snapshot event, or {@code null} if none is due
+     */
+    private @Nullable Runnable snapshotEventIfDue(
+            Command command,
+            StateRebuildingCache.CacheKey<Object> cacheKey,
+            StateRebuildingHandlers<Object> relevantSRHDs,
+            StateRebuildingCache.CacheValue<Object> sourced,
+            StateRebuildingCache.CacheValue<Object> written,
+            @Nullable Object instance,
+            List<Event> published) {
+        var snapshotEventDefinition = snapshotEventDefinitions.get(cacheKey.instanceClass());
+        if (snapshotEventDefinition == null || cacheKey.sourcingMode() == SourcingMode.NONE || instance == null) {
+            return null;
+        }
+        synchronized (eventsSinceSnapshotEvent) {
+            int events = eventsSinceSnapshotEvent.getOrDefault(cacheKey, 0) + published.size();
+            boolean due = events >= snapshotEventDefinition.everyEvents();
+            eventsSinceSnapshotEvent.put(cacheKey, due ? 0 : events);
+            if (!due) {
+                return null;
+            }
+        }
+
+        Map<String, String> subjectIds = new HashMap<>(sourced.sourcedSubjectIds());
+        published.forEach(event -> subjectIds.put(event.subject(), event.id()));
+        List<Precondition> preconditions = preconditionCompaction.compact(
+                command.getSubject(),
+                cacheKey.sourcingMode(),
+                subjectIds.entrySet().stream()
+                        .map(e -> (Precondition) new Precondition.SubjectIsOnEventId(e.getKey(), e.getValue()))
+                        .toList());
+        if (!subjectIds.containsKey(command.getSubject())) {
+            preconditions.add(new Precondition.SubjectIsPristine(command.getSubject()));
+        }
+        List<CapturedEvent> snapshotEvent;
+        try {
+            snapshotEvent = List.of(new CapturedEvent(
+                    command.getSubject(),
+                    snapshotEventDefinition.snapshot().apply(instance),
+                    Map.of(SnapshotEventDefinition.SOURCED_SUBJECT_IDS_META_DATA_KEY, subjectIds),
+                    List.of()));
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "failed to create snapshot event for subject: " + command.getSubject());
+            return null;
+        }
+        return () -> {
+            try {
+                writeThrough(
+                        command,
+                        cacheKey,
+                        relevantSRHDs,
+                        written,
+                        snapshotEvent,
+                        preconditions,
+                        immediateEventPublisher.publish(snapshotEvent, preconditions));
+            } catch (ConcurrencyException e) {
+                log.fine(() -> "skipped snapshot event for concurrently modified subject: " + command.getSubject());
+            } catch (ClientInterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.log(
+                        Level.WARNING,
+                        e,
+                        () -> "failed to publish snapshot event for subject: " + command.getSubject());
+            }
+        };
+    }
+
+    private static void backoff(long delay, ConcurrencyException conflict) {
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                conflict.addSuppressed(e);
+                throw conflict;
             }
-            fromCacheMerged.sourcedSubjectIds().entrySet().stream()
-                    .map(e -> new Precondition.SubjectIsOnEventId(e.getKey(), e.getValue()))
-                    .collect(toCollection(() -> additionalPreconditions));
-            events.stream()
-                    .flatMap(e -> e.preconditions().stream())
-                    .collect(toCollection(() -> additionalPreconditions));
-            immediateEventPublisher.publish(events, additionalPreconditions);
+        }
+    }
+
+    /**
+     * Asynchronously sends the given command with empty meta-data for execution.
+     *
+     * @param command the command to be executed
+     * @return a future completed with the result from the {@link CommandHandler}
+     * @param <R> the result type
+     * @see #sendAsync(Command, Map)
+     */
+    public <R> CompletableFuture<@Nullable R> sendAsync(Command command) {
+        return sendAsync(command, Map.of());
+    }
+
+    /**
+     * Asynchronously sends the given command and meta-data for execution, as described for
+     * {@link #send(Command, Map)}. The command is executed using the configured {@link Executor}, by default on a new
+     * virtual thread, so that callers are not blocked while events are sourced, handled, and published.
+     *
+     * <p>The returned future is completed with the very same exception that {@link #send(Command, Map)} would have
+     * thrown, i.e. {@link CompletableFuture#whenComplete(BiConsumer)} or
+     * {@link CompletableFuture#exceptionally(Function)} observe exceptions like
+     * {@link CommandSubjectDoesNotExistException} or {@link ConcurrencyException} unwrapped.
+     *
+     * @param command the command to be executed
+     * @param metaData the meta-data to be passed to the command handler
+     * @return a future completed with the result from the {@link CommandHandler}
+     * @param <R> the result type
+     */
+    public <R> CompletableFuture<@Nullable R> sendAsync(Command command, Map<String, ?> metaData) {
+        var result = new CompletableFuture<@Nullable R>();
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    result.complete(send(command, metaData));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
         }
         return result;
     }
 
+    /**
+     * Sends the given commands with empty meta-data for batch execution.
+     *
+     * @param commands the commands to be executed
+     * @return the results in the order of the given commands
+     * @see #sendAll(List, Map)
+     */
+    public List<CommandResult> sendAll(List<? extends Command> commands) {
+        return sendAll(commands, Map.of());
+    }
+
+    /**
+     * Sends the given commands and meta-data for batch execution, e.g. for bulk imports. The commands are grouped by
+     * their {@link Command#getSubject()} as well as the {@linkplain CommandHandlerDefinition#instanceClass() instance
+     * type} and {@linkplain CommandHandlerDefinition#sourcingMode() sourcing mode} of their {@link CommandHandler}.
+     * Each group is executed as follows:
+     *
+     * <ol>
+     *   <li>the {@linkplain SubjectLocking#withLock(String, java.util.function.Supplier) subject lock} is acquired, if
+     *       configured
+     *   <li>the instance state is sourced once, as described for {@link #send(Command, Map)}
+     *   <li>the commands are executed sequentially in the given order, each one on the instance state resulting from
+     *       its predecessors, using a {@link CommandEventCapturer}, after checking its
+     *       {@link Command#getSubjectCondition()} against the events sourced or captured so far
+     *   <li>the events captured by the successfully executed commands are
+     *       {@linkplain ImmediateEventPublisher#publish(List, List) published atomically} using a single write request
+     *       per 1,000 events
+     *   <li>if a write fails with a {@link ConcurrencyException}, newer events are sourced and the commands of that
+     *       write are re-executed, as permitted by the {@link ConflictRetryPolicy}, releasing the subject lock while
+     *       backing off
+     *   <li>the published events are applied to the instance state, which is written through to the
+     *       {@link StateRebuildingCache}
+     *   <li>{@linkplain SnapshotEventDefinition snapshot events} are published, if due, once the subject lock has been
+     *       released
+     * </ol>
+     *
+     * Commands failing do not affect the remaining commands, unless the write of their events fails, in which case all
+     * commands of that write fail. Commands using {@link SourcingMode#NONE} and a {@link Command#getSubjectCondition()}
+     * start a new write, as their condition can only be checked by the event store. Groups are executed one after
+     * another, with a group failing otherwise, e.g. while sourcing, failing its own remaining commands only.
+     *
+     * @param commands the commands to be executed
+     * @param metaData the meta-data to be passed to the command handlers
+     * @return the results in the order of the given commands
+     */
+    public List<CommandResult> sendAll(List<? extends Command> commands, Map<String, ?> metaData) {
+        CommandResult[] results = new CommandResult[commands.size()];
+        Map<StateRebuildingCache.CacheKey<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            Command command = commands.get(i);
+            CommandHandlerDefinition<Object, Command, ?> commandHandlerDefinition =
+                    commandHandlerDefinitions.get(command.getClass());
+            if (commandHandlerDefinition == null) {
+                results[i] = new CommandResult.Failure(
+                        command,
+                        new CqrsFrameworkException.NonTransientException("no command handler definition for command: "
+                                + command.getClass().getName()));
+                continue;
+            }
+            var cacheKey = new StateRebuildingCache.CacheKey<>(
+                    command.getSubject(),
+                    commandHandlerDefinition.instanceClass(),
+                    commandHandlerDefinition.sourcingMode());
+            groups.computeIfAbsent(cacheKey, key -> new ArrayList<>()).add(i);
+        }
+
+        groups.forEach((cacheKey, indices) -> {
+            List<Command> grouped = indices.stream().map(i -> (Command) commands.get(i)).toList();
+            List<CommandResult> groupResults;
+            try {
+                groupResults = sendGroup(cacheKey, grouped, metaData);
+            } catch (RuntimeException e) {
+                // a failing group must not affect the remaining groups
+                groupResults = grouped.stream()
+                        .map(command -> (CommandResult) new CommandResult.Failure(command, e))
+                        .toList();
+            }
+            for (int i = 0; i < indices.size(); i++) {
+                results[indices.get(i)] = groupResults.get(i);
+            }
+        });
+        return List.of(results);
+    }
+
+    /**
+     * State of a {@linkplain #sendAll(List, Map) group execution} carried across {@linkplain ConflictRetryPolicy
+     * retries}, which back off after releasing the subject lock and re-source once it has been acquired again, as well
+     * as the actions, i.e. snapshot event publication, to be run once the subject lock has been released.
+     */
+    private static final class Group {
+        private final CommandResult[] results;
+        private final List<Runnable> afterUnlocking = new ArrayList<>();
+        private int next;
+        private int retry = 1;
+        private boolean trusted;
+        private StateRebuildingCache.@Nullable CacheValue<Object> sourced;
+        private @Nullable ConcurrencyException conflict;
+        private long backoffMillis;
+
+        private Group(int size) {
+            this.results = new CommandResult[size];
+        }
+    }
+
+    private List<CommandResult> sendGroup(
+            StateRebuildingCache.CacheKey<Object> cacheKey, List<Command> commands, Map<String, ?> metaData) {
+        List<CommandMetrics.Execution> executions = commands.stream()
+                .map(command -> commandMetrics.started(command.getClass()))
+                .toList();
+        var group = new Group(commands.size());
+        try {
+            while (true) {
+                try {
+                    subjectLocking.withLock(cacheKey.subject(), () -> {
+                        sendBatches(cacheKey, commands, metaData, executions, group);
+                        return null;
+                    });
+                } finally {
+                    group.afterUnlocking.forEach(Runnable::run);
+                    group.afterUnlocking.clear();
+                }
+                ConcurrencyException conflict = group.conflict;
+                if (conflict == null) {
+                    return completed(commands, executions, group.results, commands.size(), null);
+                }
+                // backing off outside of the subject lock, so that other commands for the subject may proceed
+                group.conflict = null;
+                backoff(group.backoffMillis, conflict);
+            }
+        } catch (RuntimeException e) {
+            return completed(commands, executions, group.results, group.next, e);
+        }
+    }
+
+    /**
+     * Executes the commands of the given group starting at {@link Group#next}, while holding the subject lock. Returns
+     * early, if a write is to be retried after backing off, leaving the {@link Group#conflict} to be backed off from
+     * and the instance state to re-source from. Throws, if the remaining commands starting at {@link Group#next} fail.
+     */
+    private void sendBatches(
+            StateRebuildingCache.CacheKey<Object> cacheKey,
+            List<Command> commands,
+            Map<String, ?> metaData,
+            List<CommandMetrics.Execution> executions,
+            Group group) {
+        StateRebuildingHandlers<Object> relevantSRHDs =
+                stateRebuildingHandlers.getOrDefault(cacheKey.instanceClass(), NO_STATE_REBUILDING_HANDLERS);
+        // the subject conditions are checked per command, rather than while sourcing
+        CommandHandlerDefinition<Object, Command, ?> groupDefinition =
+                commandHandlerDefinitions.get(commands.getFirst().getClass());
+        CommandResult[] results = group.results;
+
+        StateRebuildingCache.CacheValue<Object> sourced;
+        var previous = group.sourced;
+        if (previous == null) {
+            var trusted = new AtomicBoolean();
+            sourced = stateRebuildingCache.fetchAndMerge(cacheKey, cached -> {
+                if (trustCachedState && cached.eventId() != null) {
+                    trusted.set(true);
+                    return cached;
+                }
+                return source(
+                        cacheKey.subject(),
+                        groupDefinition,
+                        null,
+                        relevantSRHDs,
+                        cacheKey,
+                        cached,
+                        executions.getFirst());
+            });
+            if (trusted.get()) {
+                executions.getFirst().sourced(CommandMetrics.CacheResult.HIT, 0, 0, 0);
+            }
+            group.trusted = trusted.get();
+            conflictRetryPolicy.executed();
+        } else {
+            var execution = executions.get(group.next);
+            sourced = stateRebuildingCache.fetchAndMerge(
+                    cacheKey,
+                    cached -> source(
+                            cacheKey.subject(), groupDefinition, null, relevantSRHDs, cacheKey, previous, execution));
+        }
+
+        while (group.next < commands.size()) {
+            int first = group.next;
+            var base = sourced;
+            @Nullable Object instance = base.instance();
+            Set<String> subjects = new HashSet<>(base.sourcedSubjectIds().keySet());
+            List<CapturedEvent> events = new ArrayList<>();
+            List<Integer> succeeded = new ArrayList<>();
+
+            while (group.next < commands.size() && events.size() < MAX_BATCH_EVENTS) {
+                int current = group.next;
+                Command command = commands.get(current);
+                if (!succeeded.isEmpty()
+                        && cacheKey.sourcingMode() == SourcingMode.NONE
+                        && command.getSubjectCondition() != Command.SubjectCondition.NONE) {
+                    break;
+                }
+                CommandHandlerDefinition<Object, Command, ?> commandHandlerDefinition =
+                        commandHandlerDefinitions.get(command.getClass());
+                try {
+                    checkSubjectCondition(command, commandHandlerDefinition, subjects);
+                    var eventCapturer = new CommandEventCapturer<>(instance, command.getSubject(), relevantSRHDs);
+                    long handling = System.nanoTime();
+                    Object result = handle(command, metaData, commandHandlerDefinition, instance, eventCapturer);
+                    executions.get(current).handled(System.nanoTime() - handling);
+
+                    instance = eventCapturer.previousInstance.instance();
+                    eventCapturer.getEvents().forEach(captured -> subjects.add(captured.subject()));
+                    events.addAll(propagate(eventCapturer.getEvents(), metaData));
+                    results[current] = new CommandResult.Success(command, result);
+                    succeeded.add(current);
+                } catch (RuntimeException e) {
+                    results[current] = new CommandResult.Failure(command, e);
+                }
+                group.next++;
+            }
+            if (events.isEmpty()) {
+                continue;
+            }
+
+            // preconditions derived from the leading command cover its successors, which are checked locally
+            int leading = succeeded.getFirst();
+            Command leadingCommand = commands.get(leading);
+            try {
+                Set<Precondition> preconditions = preconditions(
+                        leadingCommand, commandHandlerDefinitions.get(leadingCommand.getClass()), base, events);
+                long publishing = System.nanoTime();
+                List<Event> published = immediateEventPublisher.publish(events, new ArrayList<>(preconditions));
+                executions.get(leading).published(preconditions.size(), System.nanoTime() - publishing);
+
+                sourced = writeThrough(
+                        leadingCommand, cacheKey, relevantSRHDs, base, events, preconditions, published);
+                if (published.size() != events.size() && cacheKey.sourcingMode() != SourcingMode.NONE) {
+                    sourced = stateRebuildingCache.fetchAndMerge(
+                            cacheKey,
+                            cached -> source(
+                                    cacheKey.subject(),
+                                    groupDefinition,
+                                    null,
+                                    relevantSRHDs,
+                                    cacheKey,
+                                    base,
+                                    executions.get(leading)));
+                }
+                var snapshotEvent = snapshotEventIfDue(
+                        leadingCommand, cacheKey, relevantSRHDs, base, sourced, instance, published);
+                if (snapshotEvent != null) {
+                    group.afterUnlocking.add(snapshotEvent);
+                }
+                group.retry = 1;
+            } catch (ConcurrencyException e) {
+                executions.get(leading).conflicted();
+                if (group.trusted) {
+                    group.trusted = false;
+                    log.fine(() -> "re-sourcing stale cached instance state for subject: " + cacheKey.subject());
+                    group.next = first;
+                } else if (conflictRetryPolicy.tryRetry(group.retry)) {
+                    group.backoffMillis = conflictRetryPolicy.backoffMillis(group.retry++);
+                    group.sourced = base;
+                    group.conflict = e;
+                    group.next = first;
+                    return;
+                } else {
+                    succeeded.forEach(i -> results[i] = new CommandResult.Failure(commands.get(i), e));
+                    group.retry = 1;
+                }
+                sourced = stateRebuildingCache.fetchAndMerge(
+                        cacheKey,
+                        cached -> source(
+                                cacheKey.subject(),
+                                groupDefinition,
+                                null,
+                                relevantSRHDs,
+                                cacheKey,
+                                base,
+                                executions.get(leading)));
+            } catch (RuntimeException e) {
+                succeeded.forEach(i -> results[i] = new CommandResult.Failure(commands.get(i), e));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Fails all commands starting at the given index with the given exception, if any, and completes the executions of
+     * all commands.
+     */
+    private static List<CommandResult> completed(
+            List<Command> commands,
+            List<CommandMetrics.Execution> executions,
+            CommandResult[] results,
+            int failedFrom,
+            @Nullable RuntimeException failure) {
+        for (int i = 0; i < commands.size(); i++) {
+            if (i >= failedFrom && failure != null) {
+                results[i] = new CommandResult.Failure(commands.get(i), failure);
+            }
+            executions
+                    .get(i)
+                    .completed(
+                            switch (results[i]) {
+                                case CommandResult.Failure f -> f.exception();
+                                case CommandResult.Success success -> null;
+                            });
+        }
+        return List.of(results);
+    }
+
     record SourcedEvent(Object event, Map<String, ?> metaData, Event raw) {}
 
     private <T> Set<T> findDuplicates(Stream<T> input) {
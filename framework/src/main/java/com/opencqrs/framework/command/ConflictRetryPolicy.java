@@ -0,0 +1,105 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.framework.client.ConcurrencyException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Policy used by {@link CommandRouter} to retry command executions, whose event publication failed with a
+ * {@link ConcurrencyException} due to events concurrently published for the sourced subjects. Retries re-source only
+ * the events newer than the previously sourced ones, re-apply them to the instance state, and re-execute the
+ * {@link CommandHandler}.
+ *
+ * <p>Retries are delayed by an exponential backoff with full jitter, i.e. a random delay between zero and
+ * {@code initialBackoff * 2^(retry - 1)}, limited to {@code maxBackoff}. In addition, a retry budget shared by all
+ * command executions limits the number of retries to the given ratio of command executions, preventing retry storms
+ * under permanent contention.
+ */
+public final class ConflictRetryPolicy {
+
+    private static final long BUDGET_SCALE = 1000;
+    private static final long MAX_BUDGET = 100 * BUDGET_SCALE;
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final long budgetDeposit;
+    private final AtomicLong budget;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param maxRetries the maximum number of retries per command execution, {@code 0} disables retries
+     * @param initialBackoff the maximum delay before the first retry
+     * @param maxBackoff the maximum delay before any retry
+     * @param budgetRatio the ratio of retries to command executions allowed, in addition to an initial budget of
+     *     {@code 100} retries
+     */
+    public ConflictRetryPolicy(int maxRetries, Duration initialBackoff, Duration maxBackoff, double budgetRatio) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("max retries must not be negative: " + maxRetries);
+        }
+        if (initialBackoff.isNegative() || maxBackoff.isNegative()) {
+            throw new IllegalArgumentException("backoff must not be negative");
+        }
+        if (budgetRatio < 0) {
+            throw new IllegalArgumentException("budget ratio must not be negative: " + budgetRatio);
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.budgetDeposit = Math.round(budgetRatio * BUDGET_SCALE);
+        this.budget = new AtomicLong(MAX_BUDGET);
+    }
+
+    /**
+     * Creates an instance of {@code this} disabling retries.
+     *
+     * @return a policy never retrying
+     */
+    public static ConflictRetryPolicy none() {
+        return new ConflictRetryPolicy(0, Duration.ZERO, Duration.ZERO, 0);
+    }
+
+    /** Replenishes the retry budget for a command execution. */
+    void executed() {
+        if (budgetDeposit > 0) {
+            budget.accumulateAndGet(budgetDeposit, (current, deposit) -> Math.min(MAX_BUDGET, current + deposit));
+        }
+    }
+
+    /**
+     * Checks whether the given retry is permitted, withdrawing it from the retry budget.
+     *
+     * @param retry the retry number, starting with {@code 1}
+     * @return {@code true} if the retry is permitted
+     */
+    boolean tryRetry(int retry) {
+        if (retry > maxRetries) {
+            return false;
+        }
+        long current;
+        do {
+            current = budget.get();
+            if (current < BUDGET_SCALE) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - BUDGET_SCALE));
+        return true;
+    }
+
+    /**
+     * Determines the jittered delay before the given retry.
+     *
+     * @param retry the retry number, starting with {@code 1}
+     * @return the delay in milliseconds
+     */
+    long backoffMillis(int retry) {
+        long initial = initialBackoff.toMillis();
+        long max = maxBackoff.toMillis();
+        long bound = retry > 62 || initial > (max >> Math.min(retry - 1, 62)) ? max : initial << (retry - 1);
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+}
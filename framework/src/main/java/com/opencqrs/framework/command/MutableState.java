@@ -0,0 +1,23 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+/**
+ * Interface to be implemented by mutable instance types, whose state is rebuilt using
+ * {@link StateRebuildingHandler.InPlace} handlers instead of allocating a new instance per event.
+ *
+ * <p>Instance state may be shared, for instance by the {@link StateRebuildingCache} or with a {@link CommandHandler}.
+ * Hence, the {@link CommandRouter} {@linkplain #copy() copies} the instance once before the first in-place handler is
+ * applied during a rebuild and mutates the copy for all further events of that rebuild, leaving any shared instance
+ * untouched.
+ *
+ * @param <I> the instance type
+ */
+public interface MutableState<I extends MutableState<I>> {
+
+    /**
+     * Creates a copy of {@code this}, which may be mutated without affecting {@code this}.
+     *
+     * @return an independent copy of the instance state
+     */
+    I copy();
+}
@@ -0,0 +1,119 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.esdb.client.eventql.EventQueryBuilder;
+import com.opencqrs.framework.subject.Subject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Strategy used by {@link CommandRouter} to compact the {@link Precondition}s derived from the subjects sourced during
+ * command execution. Duplicate preconditions are always removed. For {@link SourcingMode#RECURSIVE} sourcing, the
+ * {@link Precondition.SubjectIsOnEventId} and {@link Precondition.SubjectIsPristine} preconditions for subjects
+ * underneath the {@link Command#getSubject()} are collapsed into a single {@link Precondition.EventQlQueryIsTrue},
+ * once their number exceeds the given threshold. The query ensures no event newer than the latest one sourced exists
+ * within the subject hierarchy, which is equivalent as long as all events within the hierarchy have been sourced, but
+ * keeps the size of the write request constant.
+ *
+ * <p>{@link Precondition.EventQlQueryIsTrue} is neither supported by every event store nor by
+ * {@link com.opencqrs.framework.persistence.BatchingImmediateEventPublisher} when combining publications, hence
+ * collapsing is disabled for {@link #none()}.
+ */
+public final class PreconditionCompaction {
+
+    private final int threshold;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param threshold the number of preconditions within a subject hierarchy, above which they are collapsed
+     */
+    public PreconditionCompaction(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("precondition compaction threshold must be positive: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Creates an instance of {@code this} removing duplicate preconditions only.
+     *
+     * @return a compaction never collapsing preconditions
+     */
+    public static PreconditionCompaction none() {
+        return new PreconditionCompaction(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compacts the given preconditions derived from the sourced subjects.
+     *
+     * @param subject the subject sourced
+     * @param sourcingMode the sourcing mode used
+     * @param preconditions the preconditions derived from the sourced subjects, including
+     *     {@link Precondition.SubjectIsPristine} for subjects not sourced
+     * @return the compacted preconditions
+     */
+    List<Precondition> compact(String subject, SourcingMode sourcingMode, Collection<Precondition> preconditions) {
+        Set<Precondition> distinct = new LinkedHashSet<>(preconditions);
+        if (sourcingMode != SourcingMode.RECURSIVE || distinct.size() <= threshold || subject.indexOf('\'') >= 0) {
+            return new ArrayList<>(distinct);
+        }
+
+        List<Precondition> compacted = new ArrayList<>();
+        int collapsed = 0;
+        long latestId = -1;
+        for (Precondition precondition : distinct) {
+            if (precondition instanceof Precondition.SubjectIsOnEventId p && isWithin(p.subject(), subject)) {
+                latestId = Math.max(latestId, IdUtil.fromEventId(p.eventId()));
+                collapsed++;
+            } else if (precondition instanceof Precondition.SubjectIsPristine p && isWithin(p.subject(), subject)) {
+                collapsed++;
+            } else {
+                compacted.add(precondition);
+            }
+        }
+        if (collapsed <= threshold) {
+            return new ArrayList<>(distinct);
+        }
+
+        var query = EventQueryBuilder.fromEventQlString(noNewerEvents(subject, latestId));
+        compacted.add(0, new Precondition.EventQlQueryIsTrue(query));
+        return compacted;
+    }
+
+    /**
+     * Determines whether the given preconditions contain one collapsed for the hierarchy of the given subject, hence
+     * guarding the whole hierarchy against events newer than the ones sourced, including subjects not sourced at all.
+     *
+     * @param subject the subject sourced
+     * @param preconditions the preconditions published with
+     * @return {@code true} if the subject hierarchy is guarded
+     */
+    static boolean guardsHierarchy(String subject, Collection<Precondition> preconditions) {
+        String prefix = hierarchyQuery(subject);
+        return preconditions.stream()
+                .anyMatch(precondition -> precondition instanceof Precondition.EventQlQueryIsTrue p
+                        && p.query().queryString().startsWith(prefix));
+    }
+
+    private static boolean isWithin(String subject, String root) {
+        return Subject.isSameOrDescendantOf(subject, root);
+    }
+
+    private static String hierarchyQuery(String subject) {
+        String hierarchy = subject.equals("/")
+                ? "e.subject STARTS WITH '/'"
+                : "(e.subject == '" + subject + "' OR e.subject STARTS WITH '" + subject + "/')";
+        return "FROM e IN events WHERE " + hierarchy;
+    }
+
+    private static String noNewerEvents(String subject, long latestId) {
+        String newer = latestId >= 0 ? " AND (e.id AS INT) > " + latestId : "";
+        return hierarchyQuery(subject) + newer + " PROJECT INTO COUNT() == 0";
+    }
+}
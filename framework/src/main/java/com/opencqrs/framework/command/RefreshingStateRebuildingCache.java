@@ -0,0 +1,317 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.esdb.client.Option;
+import com.opencqrs.framework.client.ClientInterruptedException;
+import com.opencqrs.framework.command.cache.StateRebuildingCache;
+import com.opencqrs.framework.command.snapshot.NoSnapshotting;
+import com.opencqrs.framework.command.snapshot.Snapshotting;
+import com.opencqrs.framework.persistence.EventReader;
+import com.opencqrs.framework.subject.Subject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link StateRebuildingCache} implementation wrapping a delegate cache, which is kept up to date by
+ * {@linkplain EventReader.ClientRequestor.Observe observing} newly published events in the background. Observed events
+ * are applied to the cached instances of all subjects affected, using the {@link StateRebuildingHandlerDefinition}s
+ * registered for their instance type. Hence, commands for instances modified by other application instances usually
+ * find an up-to-date cache, so that hardly any newer events need to be sourced and stale instances rarely cause a
+ * {@link com.opencqrs.framework.client.ConcurrencyException}.
+ *
+ * <p>Only keys {@linkplain #fetchAndMerge(CacheKey, Function) fetched} via {@code this} are refreshed, limited to the
+ * given number of most recently fetched keys. Events are applied to a cached instance only, if it is known to contain
+ * all events observed for its subject before, i.e. cached instances lagging behind are left unchanged and updated
+ * during command execution as usual. Observation starts after the first cached instance, so that events published
+ * earlier are not observed.
+ *
+ * <p>Events applied to cached instances are reported to the given {@link Snapshotting} as sourced, as instances kept up
+ * to date this way hardly source any events during command execution, which would otherwise never be snapshotted.
+ */
+public final class RefreshingStateRebuildingCache implements StateRebuildingCache {
+
+    private static final Logger log = Logger.getLogger(RefreshingStateRebuildingCache.class.getName());
+
+    private final StateRebuildingCache delegate;
+    private final EventReader eventReader;
+    private final Snapshotting snapshotting;
+    private final Map<Class<?>, StateRebuildingHandlers<Object>> stateRebuildingHandlers = new HashMap<>();
+    private final int maxTrackedKeys;
+    private final Duration retryInterval;
+    private final Map<CacheKey<?>, Tracking> tracked;
+    private final Map<String, Set<CacheKey<?>>> trackedBySubject = new HashMap<>();
+    private final AtomicReference<@Nullable ExecutorService> running = new AtomicReference<>();
+
+    private @Nullable String position;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param delegate the cache to keep up to date
+     * @param eventReader the event source to observe
+     * @param stateRebuildingHandlerDefinitions the state rebuilding handler definitions used to apply observed events
+     * @param maxTrackedKeys the maximum number of most recently fetched keys to refresh
+     * @param retryInterval the interval to wait, before observation is resumed after errors
+     */
+    public RefreshingStateRebuildingCache(
+            StateRebuildingCache delegate,
+            EventReader eventReader,
+            List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions,
+            int maxTrackedKeys,
+            Duration retryInterval) {
+        this(
+                delegate,
+                eventReader,
+                stateRebuildingHandlerDefinitions,
+                maxTrackedKeys,
+                retryInterval,
+                new NoSnapshotting());
+    }
+
+    /**
+     * Creates a pre-configured instance of {@code this}, which reports events applied to cached instances to the given
+     * {@link Snapshotting}.
+     *
+     * @param delegate the cache to keep up to date
+     * @param eventReader the event source to observe
+     * @param stateRebuildingHandlerDefinitions the state rebuilding handler definitions used to apply observed events
+     * @param maxTrackedKeys the maximum number of most recently fetched keys to refresh
+     * @param retryInterval the interval to wait, before observation is resumed after errors
+     * @param snapshotting the snapshotting notified about events applied to cached instances
+     */
+    public RefreshingStateRebuildingCache(
+            StateRebuildingCache delegate,
+            EventReader eventReader,
+            List<StateRebuildingHandlerDefinition> stateRebuildingHandlerDefinitions,
+            int maxTrackedKeys,
+            Duration retryInterval,
+            Snapshotting snapshotting) {
+        if (maxTrackedKeys < 1) {
+            throw new IllegalArgumentException("maximum number of tracked keys must be positive: " + maxTrackedKeys);
+        }
+        this.delegate = delegate;
+        this.eventReader = eventReader;
+        this.snapshotting = snapshotting;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.retryInterval = retryInterval;
+        this.tracked = new LinkedHashMap<>(16, 0.75f, true);
+        Map<Class<?>, List<StateRebuildingHandlerDefinition<Object, Object>>> srhdsByInstanceClass = new HashMap<>();
+        stateRebuildingHandlerDefinitions.forEach(srhd -> srhdsByInstanceClass
+                .computeIfAbsent(srhd.instanceClass(), clazz -> new ArrayList<>())
+                .add(srhd));
+        srhdsByInstanceClass.forEach((instanceClass, srhds) ->
+                stateRebuildingHandlers.put(instanceClass, new StateRebuildingHandlers<>(srhds)));
+    }
+
+    @Override
+    public <I> CacheValue<I> fetchAndMerge(CacheKey<I> key, Function<CacheValue<I>, CacheValue<I>> mergeFunction) {
+        CacheValue<I> result = delegate.fetchAndMerge(key, mergeFunction);
+        String eventId = result.eventId();
+        if (eventId != null && key.sourcingMode() != SourcingMode.NONE) {
+            track(key, eventId);
+        }
+        return result;
+    }
+
+    private synchronized void track(CacheKey<?> key, String eventId) {
+        if (tracked.get(key) != null) {
+            return;
+        }
+        if (position == null) {
+            position = eventId;
+            notifyAll();
+        }
+        tracked.put(key, new Tracking(IdUtil.fromEventId(position)));
+        trackedBySubject.computeIfAbsent(key.subject(), subject -> new HashSet<>()).add(key);
+
+        if (tracked.size() > maxTrackedKeys) {
+            var eldest = tracked.keySet().iterator().next();
+            untrack(eldest);
+        }
+    }
+
+    private synchronized void untrack(CacheKey<?> key) {
+        if (tracked.remove(key) != null) {
+            var keys = trackedBySubject.get(key.subject());
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                trackedBySubject.remove(key.subject());
+            }
+        }
+    }
+
+    /**
+     * Determines the keys affected by the given event and records it as observed.
+     *
+     * @return the affected keys and the id of the latest event observed for them before
+     */
+    private synchronized Map<CacheKey<?>, Tracking> observed(Event event) {
+        long id = IdUtil.fromEventId(event.id());
+        Map<CacheKey<?>, Tracking> affected = new HashMap<>();
+        for (@Nullable String current = event.subject(); current != null; current = Subject.parent(current)) {
+            var keys = trackedBySubject.get(current);
+            if (keys == null) {
+                continue;
+            }
+            for (CacheKey<?> key : keys) {
+                if (key.sourcingMode() == SourcingMode.RECURSIVE || key.subject().equals(event.subject())) {
+                    Tracking tracking = tracked.get(key);
+                    if (tracking != null) {
+                        affected.put(key, new Tracking(tracking.since, tracking.lastObserved));
+                        tracking.lastObserved = id;
+                    }
+                }
+            }
+        }
+        position = event.id();
+        return affected;
+    }
+
+    private synchronized String awaitPosition() throws InterruptedException {
+        while (position == null) {
+            wait();
+        }
+        return position;
+    }
+
+    /**
+     * Starts observing using a single dedicated thread.
+     *
+     * @return a future to determine, when observation ends
+     */
+    public Future<?> start() {
+        var es = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "state-rebuilding-cache-refresh"));
+        if (!running.compareAndSet(null, es)) {
+            es.shutdown();
+            throw new IllegalStateException("state rebuilding cache refresh already started");
+        }
+        log.info("starting state rebuilding cache refresh");
+        return es.submit(this::run);
+    }
+
+    /** Stops observing, if running. */
+    public void stop() {
+        var es = running.getAndSet(null);
+        if (es != null) {
+            log.info("stopping state rebuilding cache refresh");
+            es.shutdownNow();
+        }
+    }
+
+    /**
+     * Determines whether {@code this} is running.
+     *
+     * @return {@code true} if running, {@code false} otherwise
+     */
+    public boolean isRunning() {
+        return running.get() != null;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Set<Option> options = Set.of(new Option.Recursive(), new Option.LowerBoundExclusive(awaitPosition()));
+                eventReader.consumeRaw(new EventReader.ClientRequestor.Observe("/", options), this::refresh);
+            } catch (ClientInterruptedException | InterruptedException e) {
+                log.info("state rebuilding cache refresh interrupted, terminating");
+                return;
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "state rebuilding cache refresh failed, retrying in: " + retryInterval, e);
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    log.info("state rebuilding cache refresh interrupted, terminating");
+                    return;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refresh(EventReader.RawCallback rawCallback, Event raw) {
+        Map<CacheKey<?>, Tracking> affected = observed(raw);
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        List<CommandRouter.SourcedEvent> events = new ArrayList<>();
+        rawCallback.upcast((upcastedCallback, upcasted) -> upcastedCallback.convert(
+                (metaData, event) -> events.add(new CommandRouter.SourcedEvent(event, metaData, raw))));
+
+        long id = IdUtil.fromEventId(raw.id());
+        affected.forEach((key, tracking) -> {
+            CacheValue<?> refreshed = apply((CacheKey<Object>) key, tracking, id, events, raw);
+            if (refreshed.eventId() == null) {
+                untrack(key);
+            }
+        });
+    }
+
+    private CacheValue<Object> apply(
+            CacheKey<Object> key, Tracking tracking, long id, List<CommandRouter.SourcedEvent> events, Event raw) {
+        var relevantSRHDs = stateRebuildingHandlers.get(key.instanceClass());
+        var applied = new AtomicBoolean();
+        var refreshed = delegate.fetchAndMerge(key, cached -> {
+            String eventId = cached.eventId();
+            if (eventId == null) {
+                return cached;
+            }
+            long cachedId = IdUtil.fromEventId(eventId);
+            if (cachedId >= id || cachedId < tracking.since || cachedId < tracking.lastObserved) {
+                return cached;
+            }
+            if (CommandRouter.isWrittenThrough(cached, raw)) {
+                return new CacheValue<>(raw.id(), cached.instance(), cached.sourcedSubjectIds());
+            }
+
+            @Nullable Object instance = cached.instance();
+            if (relevantSRHDs != null) {
+                var rebuild = relevantSRHDs.rebuild(instance);
+                for (CommandRouter.SourcedEvent sourced : events) {
+                    rebuild.apply(raw.subject(), sourced.event(), sourced.metaData(), raw);
+                }
+                instance = rebuild.instance();
+            }
+            Map<String, String> sourcedSubjectIds = new HashMap<>(cached.sourcedSubjectIds());
+            sourcedSubjectIds.put(raw.subject(), raw.id());
+            applied.set(true);
+            return new CacheValue<>(raw.id(), instance, sourcedSubjectIds);
+        });
+        if (applied.get()) {
+            snapshotting.sourced(key, refreshed, 1);
+        }
+        return refreshed;
+    }
+
+    /** Position from which events are observed for a key, and the latest event observed for it since. */
+    private static final class Tracking {
+
+        final long since;
+        long lastObserved = -1;
+
+        Tracking(long since) {
+            this.since = since;
+        }
+
+        Tracking(long since, long lastObserved) {
+            this.since = since;
+            this.lastObserved = lastObserved;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.esdb.client.Option;
+import java.util.function.Function;
+
+/**
+ * Definition of a snapshot event type periodically published by the {@link CommandRouter} for an instance type. Events
+ * are sourced {@linkplain Option.FromLatestEvent from the latest snapshot event} of the {@link Command#getSubject()}
+ * onwards, which seeds the instance state using a dedicated {@link StateRebuildingHandler} derived from
+ * {@link #restore()}. This bounds the number of events sourced for long-lived instances.
+ *
+ * <p>Snapshot events are published once at least {@link #everyEvents()} events have been sourced or published for an
+ * instance since its latest snapshot event. They are published separately after the events captured during command
+ * execution, guarded by {@linkplain com.opencqrs.esdb.client.Precondition.SubjectIsOnEventId preconditions} for all
+ * subjects sourced or published, so that they represent the instance state exactly. Snapshot events failing to be
+ * published are skipped. They are published once the subject lock has been released, if
+ * {@linkplain com.opencqrs.framework.command.locking.SubjectLocking configured}.
+ *
+ * <p>As snapshot events represent the instance state sourced using a specific {@link SourcingMode}, all
+ * {@link CommandHandlerDefinition}s for the instance type must use the same {@link SourcingMode}, unless
+ * {@link SourcingMode#NONE}.
+ *
+ * @param instanceClass the instance type being snapshotted
+ * @param eventClass the snapshot event type
+ * @param eventType the snapshot event type as stored within the event store
+ * @param everyEvents the number of events after which a snapshot event is published
+ * @param snapshot function creating a snapshot event from the instance state
+ * @param restore function restoring the instance state from a snapshot event
+ * @param <I> the instance type
+ * @param <E> the snapshot event type
+ */
+public record SnapshotEventDefinition<I, E>(
+        Class<I> instanceClass,
+        Class<E> eventClass,
+        String eventType,
+        int everyEvents,
+        Function<I, E> snapshot,
+        Function<E, I> restore) {
+
+    /**
+     * Meta-data key of snapshot events holding the event ids of all subjects known when the snapshot event was
+     * published.
+     */
+    public static final String SOURCED_SUBJECT_IDS_META_DATA_KEY = "opencqrs.snapshot.sourced-subject-ids";
+
+    public SnapshotEventDefinition {
+        if (everyEvents < 1) {
+            throw new IllegalArgumentException("snapshot event threshold must be positive: " + everyEvents);
+        }
+    }
+}
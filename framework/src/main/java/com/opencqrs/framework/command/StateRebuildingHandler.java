@@ -146,4 +146,27 @@ public sealed interface StateRebuildingHandler<I, E> {
         @Nullable
         I on(@Nullable I instance, E event, Map<String, ?> metaData, String subject, @Nullable Event rawEvent);
     }
+
+    /**
+     * {@link FunctionalInterface} to be implemented, if the instance state is {@linkplain MutableState mutable} and
+     * the Java event is applied to it in place, avoiding the allocation of a new instance per event. The instance will
+     * be {@linkplain MutableState#copy() copied} before being mutated, if it may be shared.
+     *
+     * <p>In-place handlers can only be applied to existing instances. Hence, events creating the instance need to be
+     * handled by one of the other variants.
+     *
+     * @param <I> the instance type, which must implement {@link MutableState}
+     * @param <E> the event type to be sourced
+     */
+    @FunctionalInterface
+    non-sealed interface InPlace<I, E> extends StateRebuildingHandler<I, E> {
+
+        /**
+         * Applies the given event to the given instance (state) by mutating it.
+         *
+         * @param instance the instance to apply the event to
+         * @param event the event to apply
+         */
+        void on(I instance, E event);
+    }
 }
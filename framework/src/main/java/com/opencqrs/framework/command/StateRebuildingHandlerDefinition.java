@@ -12,4 +12,13 @@ package com.opencqrs.framework.command;
  * @param <E> the event type to be sourced
  */
 public record StateRebuildingHandlerDefinition<I, E>(
-        Class<I> instanceClass, Class<E> eventClass, StateRebuildingHandler<I, E> handler) {}
+        Class<I> instanceClass, Class<E> eventClass, StateRebuildingHandler<I, E> handler) {
+
+    public StateRebuildingHandlerDefinition {
+        if (handler instanceof StateRebuildingHandler.InPlace<?, ?>
+                && !MutableState.class.isAssignableFrom(instanceClass)) {
+            throw new IllegalArgumentException(
+                    "in-place state rebuilding handler requires mutable state instance type: " + instanceClass);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import com.opencqrs.esdb.client.Event;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Pre-compiled dispatch table for the {@link StateRebuildingHandlerDefinition}s of a single instance type. The
+ * handlers applicable to an event type are resolved once per concrete event class and cached in a {@link ClassValue},
+ * so that applying an event neither filters all definitions nor allocates intermediate objects.
+ *
+ * <p>Events are applied within a {@link Rebuild}, which copies {@link MutableState} instances on write, so that
+ * {@link StateRebuildingHandler.InPlace} handlers never mutate instance state shared with the
+ * {@link StateRebuildingCache} or a {@link CommandHandler}.
+ *
+ * @param <I> the instance type
+ */
+final class StateRebuildingHandlers<I> {
+
+    private final List<StateRebuildingHandlerDefinition<I, Object>> stateRebuildingHandlerDefinitions;
+    private final ClassValue<Invoker<I>[]> invokers = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Invoker<I>[] computeValue(Class<?> eventClass) {
+            return stateRebuildingHandlerDefinitions.stream()
+                    .filter(srhd -> srhd.eventClass().isAssignableFrom(eventClass))
+                    .map(srhd -> invokerFor(srhd.handler()))
+                    .toArray(Invoker[]::new);
+        }
+    };
+
+    StateRebuildingHandlers(List<StateRebuildingHandlerDefinition<I, Object>> stateRebuildingHandlerDefinitions) {
+        this.stateRebuildingHandlerDefinitions = List.copyOf(stateRebuildingHandlerDefinitions);
+    }
+
+    /**
+     * Starts rebuilding the given instance state. {@link MutableState} instances are treated as shared, so that they
+     * are {@linkplain MutableState#copy() copied} before being mutated by the first
+     * {@link StateRebuildingHandler.InPlace} handler applied during the rebuild.
+     *
+     * @param instance the instance to apply events to, may be {@code null}
+     * @return the rebuild to apply events to
+     */
+    Rebuild rebuild(@Nullable I instance) {
+        return new Rebuild(instance);
+    }
+
+    private static <I> Invoker<I> invokerFor(StateRebuildingHandler<I, Object> handler) {
+        return switch (handler) {
+            case StateRebuildingHandler.FromObject<I, Object> h ->
+                (instance, event, metaData, subject, rawEvent) -> h.on(instance, event);
+            case StateRebuildingHandler.FromObjectAndRawEvent<I, Object> h ->
+                (instance, event, metaData, subject, rawEvent) -> h.on(instance, event, rawEvent);
+            case StateRebuildingHandler.FromObjectAndMetaData<I, Object> h ->
+                (instance, event, metaData, subject, rawEvent) -> h.on(instance, event, metaData);
+            case StateRebuildingHandler.FromObjectAndMetaDataAndSubject<I, Object> h ->
+                (instance, event, metaData, subject, rawEvent) -> h.on(instance, event, metaData, subject);
+            case StateRebuildingHandler.FromObjectAndMetaDataAndSubjectAndRawEvent<I, Object> h -> h::on;
+            case StateRebuildingHandler.InPlace<I, Object> h -> new InPlaceInvoker<>(h);
+        };
+    }
+
+    /**
+     * Instance state being rebuilt by applying events in order. Tracks whether the current instance is owned by
+     * {@code this}, i.e. has been copied from a potentially shared instance, so that
+     * {@link StateRebuildingHandler.InPlace} handlers mutate it without copying it again for every event. Instances
+     * returned from any other handler variant are treated as shared again.
+     */
+    final class Rebuild {
+
+        private @Nullable I instance;
+        private boolean owned;
+
+        private Rebuild(@Nullable I instance) {
+            this.instance = instance;
+        }
+
+        /**
+         * Applies the given event to all applicable handlers in definition order.
+         *
+         * @param subject the subject of the event
+         * @param event the event to apply
+         * @param metaData the event meta-data
+         * @param rawEvent the raw event, {@code null} if the event is being published
+         * @return {@code this} with the event applied
+         */
+        Rebuild apply(String subject, Object event, Map<String, ?> metaData, @Nullable Event rawEvent) {
+            for (Invoker<I> invoker : invokers.get(event.getClass())) {
+                if (invoker instanceof InPlaceInvoker<I> && !owned) {
+                    instance = copy(instance);
+                    owned = true;
+                }
+                @Nullable I result = invoker.on(instance, event, metaData, subject, rawEvent);
+                owned &= result == instance;
+                instance = result;
+            }
+            return this;
+        }
+
+        /**
+         * The instance state with all events applied so far.
+         *
+         * @return the instance, may be {@code null}
+         */
+        @Nullable
+        I instance() {
+            return instance;
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable I copy(@Nullable I shared) {
+            return shared == null ? null : (I) ((MutableState<?>) shared).copy();
+        }
+    }
+
+    private record InPlaceInvoker<I>(StateRebuildingHandler.InPlace<I, Object> handler) implements Invoker<I> {
+
+        @Override
+        public I on(
+                @Nullable I instance, Object event, Map<String, ?> metaData, String subject, @Nullable Event rawEvent) {
+            if (instance == null) {
+                throw new IllegalStateException(
+                        "in-place state rebuilding handler requires existing instance for event: " + event.getClass());
+            }
+            handler.on(instance, event);
+            return instance;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invoker<I> {
+
+        @Nullable
+        I on(@Nullable I instance, Object event, Map<String, ?> metaData, String subject, @Nullable Event rawEvent);
+    }
+}
@@ -0,0 +1,66 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+/**
+ * Count-min sketch with four 4-bit counters per element, estimating the access frequency of cache entries for
+ * {@link TinyLfuStateRebuildingCache} admission decisions. Counters are halved periodically, so that the sketch
+ * adapts to changing access patterns. Instances are not thread-safe.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0x97cb3127dd3df1bdL, 0xb8f3a1c0bd63c4d1L, 0x2dd7a1c3c4a4bf9dL, 0x9e3779b97f4a7c15L,
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedEntries) {
+        int length = Integer.highestOneBit((int) Math.max(8, Math.min(expectedEntries, 1 << 16)) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int depth = 0; depth < 4; depth++) {
+            frequency = Math.min(frequency, (int) ((table[index(hash, depth)] >>> offset(hash, depth)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            int index = index(hash, depth);
+            int offset = offset(hash, depth);
+            if (((table[index] >>> offset) & 0xfL) < 15) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int index(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int offset(int hash, int depth) {
+        return ((hash >>> (depth << 3)) & 0xf) << 2;
+    }
+}
@@ -0,0 +1,24 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import tools.jackson.databind.ObjectMapper;
+
+/** {@link StateCodec} implementation that uses a configurable {@link ObjectMapper} for encoding instances as JSON. */
+public class JacksonStateCodec implements StateCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonStateCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(Object instance) {
+        return objectMapper.writeValueAsBytes(instance);
+    }
+
+    @Override
+    public <I> I decode(Class<I> instanceClass, byte[] bytes) {
+        return objectMapper.readValue(bytes, instanceClass);
+    }
+}
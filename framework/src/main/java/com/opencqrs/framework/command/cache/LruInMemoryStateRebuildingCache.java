@@ -5,6 +5,7 @@ import com.opencqrs.esdb.client.IdUtil;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import org.jspecify.annotations.Nullable;
@@ -25,11 +26,16 @@ public class LruInMemoryStateRebuildingCache implements StateRebuildingCache {
      *     {@linkplain LinkedHashMap#removeEldestEntry(Map.Entry) discarding exceed entries}
      */
     public LruInMemoryStateRebuildingCache(int capacity) {
+        this(capacity, (key, value) -> {});
+    }
+
+    LruInMemoryStateRebuildingCache(int capacity, BiConsumer<CacheKey<?>, CacheValue<?>> evictionListener) {
         cache = Collections.synchronizedMap(new LinkedHashMap<>(capacity, 0.75f, true) {
             @Override
             protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheValue> eldest) {
                 if (size() > capacity) {
                     log.fine(() -> "discarding eldest cache element: " + eldest.getKey());
+                    evictionListener.accept(eldest.getKey(), eldest.getValue());
                     return true;
                 }
                 return false;
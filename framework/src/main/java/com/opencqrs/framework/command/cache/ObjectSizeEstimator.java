@@ -0,0 +1,170 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/** Rough, sampling estimation of the heap size of object graphs, as used by {@link StateWeigher#estimatedBytes()}. */
+final class ObjectSizeEstimator {
+
+    private static final long HEADER = 16;
+    private static final long REFERENCE = 8;
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_SAMPLES = 32;
+
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long size = HEADER;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+                    }
+                }
+            }
+            return size;
+        }
+    };
+
+    private static final ClassValue<Method @Nullable []> RECORD_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Method @Nullable [] computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Method[] accessors = new Method[components.length];
+            for (int i = 0; i < components.length; i++) {
+                accessors[i] = components[i].getAccessor();
+                if (!accessors[i].trySetAccessible()) {
+                    return null;
+                }
+            }
+            return accessors;
+        }
+    };
+
+    private static final ClassValue<Field @Nullable []> REFERENCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field @Nullable [] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    if (!field.trySetAccessible()) {
+                        return null;
+                    }
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(Field[]::new);
+        }
+    };
+
+    private ObjectSizeEstimator() {}
+
+    static long estimate(@Nullable Object object) {
+        return estimate(object, 0, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static long estimate(@Nullable Object object, int depth, Set<Object> visited) {
+        if (object == null || object instanceof Enum<?> || object instanceof Class<?>) {
+            return 0;
+        }
+        if (object instanceof String string) {
+            return 40 + string.length();
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return HEADER + REFERENCE;
+        }
+        if (depth >= MAX_DEPTH || !visited.add(object)) {
+            return REFERENCE;
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            if (type.getComponentType().isPrimitive()) {
+                return HEADER + length * primitiveSize(type.getComponentType());
+            }
+            return HEADER + length * REFERENCE + sampled(Arrays.asList((Object[]) object), depth, visited);
+        }
+        if (object instanceof Collection<?> collection) {
+            return 3 * HEADER + collection.size() * HEADER + sampled(collection, depth, visited);
+        }
+        if (object instanceof Map<?, ?> map) {
+            return 3 * HEADER
+                    + map.size() * 2 * HEADER
+                    + sampled(map.keySet(), depth, visited)
+                    + sampled(map.values(), depth, visited);
+        }
+        long size = SHALLOW_SIZES.get(type);
+        if (type.isRecord()) {
+            Method[] accessors = RECORD_ACCESSORS.get(type);
+            if (accessors != null) {
+                for (Method accessor : accessors) {
+                    if (!accessor.getReturnType().isPrimitive()) {
+                        try {
+                            size += estimate(accessor.invoke(object), depth + 1, visited);
+                        } catch (ReflectiveOperationException | RuntimeException e) {
+                            // accounted with its shallow size only
+                        }
+                    }
+                }
+            }
+        } else {
+            // fields of classes not accessible reflectively, e.g. within JDK modules, are accounted shallowly only
+            Field[] fields = REFERENCE_FIELDS.get(type);
+            if (fields != null) {
+                for (Field field : fields) {
+                    try {
+                        size += estimate(field.get(object), depth + 1, visited);
+                    } catch (ReflectiveOperationException | RuntimeException e) {
+                        // accounted with its shallow size only
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long sampled(Collection<?> elements, int depth, Set<Object> visited) {
+        int size = elements.size();
+        if (size == 0) {
+            return 0;
+        }
+        long sampledSize = 0;
+        int samples = 0;
+        Iterator<?> iterator = elements.iterator();
+        while (samples < MAX_SAMPLES && iterator.hasNext()) {
+            sampledSize += estimate(iterator.next(), depth + 1, visited);
+            samples++;
+        }
+        return samples == 0 ? 0 : sampledSize * size / samples;
+    }
+
+    private static long primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,151 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Two-tier {@link StateRebuildingCache} implementation keeping recently used {@link CacheValue}s on-heap, backed by a
+ * {@link LruInMemoryStateRebuildingCache}, and values evicted from it serialized within off-heap memory. Hence, a
+ * large number of instances may be cached without increasing the heap or impairing garbage collection.
+ *
+ * <p>Instances are serialized using a configurable {@link StateCodec}. The off-heap tier is bounded by a byte budget,
+ * discarding the oldest serialized values first, once exhausted. Values that cannot be decoded, for instance due to
+ * incompatible changes of the instance class, are discarded.
+ *
+ * <p>Values evicted from the on-heap tier are serialized after its lock has been released, so serialization does not
+ * block concurrent cache access. Values fetched from the off-heap tier are removed from it, as they are kept on-heap
+ * again.
+ */
+public class OffHeapStateRebuildingCache implements StateRebuildingCache {
+
+    private static final Logger log = Logger.getLogger(OffHeapStateRebuildingCache.class.getName());
+
+    private final StateCodec codec;
+    private final Map<CacheKey<?>, CacheValue<?>> evicted = new ConcurrentHashMap<>();
+    final OffHeapStateStore offHeap;
+    final LruInMemoryStateRebuildingCache heap;
+
+    /**
+     * Configures {@code this} with the capacities of both tiers.
+     *
+     * @param heapCapacity the maximum number of {@link CacheValue}s to keep on-heap
+     * @param offHeapCapacity the maximum number of bytes to use for serialized {@link CacheValue}s
+     * @param codec the codec used to serialize instances
+     */
+    public OffHeapStateRebuildingCache(int heapCapacity, long offHeapCapacity, StateCodec codec) {
+        this.codec = codec;
+        this.offHeap = new OffHeapStateStore(offHeapCapacity);
+        this.heap = new LruInMemoryStateRebuildingCache(heapCapacity, evicted::put);
+    }
+
+    @Override
+    public <I> CacheValue<I> fetchAndMerge(CacheKey<I> key, Function<CacheValue<I>, CacheValue<I>> mergeFunction) {
+        try {
+            return heap.fetchAndMerge(
+                    key, cached -> mergeFunction.apply(cached.eventId() != null ? cached : promote(key, cached)));
+        } finally {
+            demoteEvicted();
+        }
+    }
+
+    private void demoteEvicted() {
+        for (CacheKey<?> key : evicted.keySet()) {
+            CacheValue<?> value = evicted.remove(key);
+            if (value != null) {
+                demote(key, value);
+            }
+        }
+    }
+
+    private void demote(CacheKey<?> key, CacheValue<?> value) {
+        try {
+            offHeap.put(key, encode(value));
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "failed to encode cache element, discarding it: " + key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <I> CacheValue<I> promote(CacheKey<I> key, CacheValue<I> missing) {
+        CacheValue<?> pending = evicted.remove(key);
+        if (pending != null) {
+            return (CacheValue<I>) pending;
+        }
+        byte[] bytes = offHeap.take(key);
+        if (bytes == null) {
+            return missing;
+        }
+        try {
+            return decode(key.instanceClass(), bytes);
+        } catch (RuntimeException | ClassNotFoundException e) {
+            log.log(Level.WARNING, e, () -> "failed to decode cache element, discarding it: " + key);
+            return missing;
+        }
+    }
+
+    private byte[] encode(CacheValue<?> value) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeUTF(String.valueOf(value.eventId()));
+            out.writeInt(value.sourcedSubjectIds().size());
+            for (Map.Entry<String, String> entry : value.sourcedSubjectIds().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            Object instance = value.instance();
+            out.writeBoolean(instance != null);
+            if (instance != null) {
+                byte[] encoded = codec.encode(instance);
+                out.writeUTF(instance.getClass().getName());
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private <I> CacheValue<I> decode(Class<I> instanceClass, byte[] bytes) throws ClassNotFoundException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String eventId = in.readUTF();
+            int subjects = in.readInt();
+            Map<String, String> sourcedSubjectIds = new HashMap<>(subjects * 2);
+            for (int i = 0; i < subjects; i++) {
+                sourcedSubjectIds.put(in.readUTF(), in.readUTF());
+            }
+            @Nullable I instance = null;
+            if (in.readBoolean()) {
+                Class<?> encodedClass = resolve(instanceClass, in.readUTF());
+                byte[] encoded = in.readNBytes(in.readInt());
+                instance = instanceClass.cast(codec.decode(encodedClass.asSubclass(instanceClass), encoded));
+            }
+            return new CacheValue<>(eventId, instance, sourcedSubjectIds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Class<?> resolve(Class<?> instanceClass, String className) throws ClassNotFoundException {
+        if (instanceClass.getName().equals(className)) {
+            return instanceClass;
+        }
+        ClassLoader classLoader = instanceClass.getClassLoader();
+        return Class.forName(
+                className,
+                false,
+                classLoader != null ? classLoader : Thread.currentThread().getContextClassLoader());
+    }
+}
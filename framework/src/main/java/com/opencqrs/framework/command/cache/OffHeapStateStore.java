@@ -0,0 +1,104 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Byte store backed by direct {@link ByteBuffer} segments used as a single circular log, addressing capacities beyond
+ * the {@code int} range of a single buffer. Entries are appended and evicted in insertion order, once the byte budget
+ * is exhausted, while replaced or removed entries are reclaimed as part of that. Entries never span segments.
+ */
+final class OffHeapStateStore {
+
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private final ByteBuffer[] segments;
+    private final long capacity;
+    private final int segmentSize;
+    private final Map<Object, Slot> index = new HashMap<>();
+    private final ArrayDeque<Slot> order = new ArrayDeque<>();
+    private long head;
+    private long tail;
+
+    OffHeapStateStore(long capacity) {
+        this(capacity, SEGMENT_SIZE);
+    }
+
+    OffHeapStateStore(long capacity, int segmentSize) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("off-heap capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.segmentSize = segmentSize;
+        this.segments = new ByteBuffer[Math.toIntExact((capacity + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) Math.min(segmentSize, capacity - (long) i * segmentSize));
+        }
+    }
+
+    synchronized void put(Object key, byte[] bytes) {
+        index.remove(key);
+        if (bytes.length > segments[0].capacity()) {
+            return;
+        }
+
+        long position = head;
+        long remaining;
+        while (bytes.length > (remaining = remainingInSegment(position))) {
+            position += remaining;
+        }
+        long end = position + bytes.length;
+        while (end - tail > capacity) {
+            Slot oldest = order.poll();
+            if (oldest == null) {
+                tail = position;
+                break;
+            }
+            tail = oldest.position + oldest.length;
+            index.remove(oldest.key, oldest);
+        }
+
+        long offset = position % capacity;
+        segments[(int) (offset / segmentSize)].put((int) (offset % segmentSize), bytes);
+        Slot slot = new Slot(key, position, bytes.length);
+        order.add(slot);
+        index.put(key, slot);
+        head = end;
+    }
+
+    synchronized byte @Nullable [] get(Object key) {
+        Slot slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        byte[] bytes = new byte[slot.length];
+        long offset = slot.position % capacity;
+        segments[(int) (offset / segmentSize)].get((int) (offset % segmentSize), bytes);
+        return bytes;
+    }
+
+    synchronized byte @Nullable [] take(Object key) {
+        byte[] bytes = get(key);
+        remove(key);
+        return bytes;
+    }
+
+    synchronized void remove(Object key) {
+        index.remove(key);
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    private long remainingInSegment(long position) {
+        long offset = position % capacity;
+        return segments[(int) (offset / segmentSize)].capacity() - offset % segmentSize;
+    }
+
+    private record Slot(Object key, long position, int length) {}
+}
@@ -0,0 +1,88 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.framework.client.ClientInterruptedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * {@link StateRebuildingCache} decorator coalescing concurrent {@linkplain #fetchAndMerge(CacheKey, Function) merges}
+ * for the same {@link CacheKey}. The first caller merges using the delegate cache, while concurrent callers wait for
+ * its result and merge on top of it, so that they only need to fetch events newer than those fetched by the first
+ * caller. This avoids sourcing the same instance state several times concurrently, for instance after cache misses.
+ *
+ * <p>If the first caller fails, waiting callers merge independently.
+ */
+public final class SingleFlightStateRebuildingCache implements StateRebuildingCache {
+
+    private final StateRebuildingCache delegate;
+    private final ConcurrentHashMap<CacheKey<?>, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Configures {@code this} with the cache to delegate to.
+     *
+     * @param delegate the delegate cache
+     */
+    public SingleFlightStateRebuildingCache(StateRebuildingCache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I> CacheValue<I> fetchAndMerge(CacheKey<I> key, Function<CacheValue<I>, CacheValue<I>> mergeFunction) {
+        var flight = new Flight(Thread.currentThread());
+        var leading = flights.putIfAbsent(key, flight);
+        if (leading == null) {
+            try {
+                CacheValue<I> merged = delegate.fetchAndMerge(key, mergeFunction);
+                flight.result.complete(merged);
+                return merged;
+            } catch (Throwable t) {
+                flight.result.completeExceptionally(t);
+                throw t;
+            } finally {
+                flights.remove(key, flight);
+            }
+        }
+        if (leading.leader == Thread.currentThread()) {
+            return delegate.fetchAndMerge(key, mergeFunction);
+        }
+
+        CacheValue<I> shared;
+        try {
+            shared = (CacheValue<I>) leading.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientInterruptedException("interrupted while waiting for concurrent merge of: " + key, e);
+        } catch (ExecutionException e) {
+            return delegate.fetchAndMerge(key, mergeFunction);
+        }
+        return delegate.fetchAndMerge(key, cached -> mergeFunction.apply(newer(cached, shared)));
+    }
+
+    private static <I> CacheValue<I> newer(CacheValue<I> a, CacheValue<I> b) {
+        String aId = a.eventId();
+        String bId = b.eventId();
+        if (bId == null) {
+            return a;
+        }
+        if (aId == null) {
+            return b;
+        }
+        return IdUtil.fromEventId(aId) >= IdUtil.fromEventId(bId) ? a : b;
+    }
+
+    /** Merge in progress, started by the leading thread. */
+    private static final class Flight {
+
+        final Thread leader;
+        final CompletableFuture<CacheValue<?>> result = new CompletableFuture<>();
+
+        Flight(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+/**
+ * Interface specifying the binary encoding of {@linkplain StateRebuildingCache.CacheValue#instance() cached instance
+ * state}, as required by {@link OffHeapStateRebuildingCache}.
+ */
+public interface StateCodec {
+
+    /**
+     * Encodes the given instance.
+     *
+     * @param instance the instance to encode
+     * @return the encoded instance
+     */
+    byte[] encode(Object instance);
+
+    /**
+     * Decodes an instance previously {@linkplain #encode(Object) encoded}.
+     *
+     * @param instanceClass the concrete class of the encoded instance
+     * @param bytes the encoded instance
+     * @return the decoded instance
+     * @param <I> the generic instance type
+     */
+    <I> I decode(Class<I> instanceClass, byte[] bytes);
+}
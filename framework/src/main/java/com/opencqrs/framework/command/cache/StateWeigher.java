@@ -0,0 +1,43 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+/**
+ * Functional interface determining the weight of {@link StateRebuildingCache.CacheValue}s, which is used by
+ * {@link TinyLfuStateRebuildingCache} to bound the cache size.
+ */
+@FunctionalInterface
+public interface StateWeigher {
+
+    /**
+     * Determines the weight of the given cache entry.
+     *
+     * @param key the cache key
+     * @param value the cache value
+     * @return the non-negative weight
+     */
+    long weigh(StateRebuildingCache.CacheKey<?> key, StateRebuildingCache.CacheValue<?> value);
+
+    /**
+     * Weighs every cache entry as {@code 1}, i.e. bounds the cache by the number of entries.
+     *
+     * @return a weigher counting entries
+     */
+    static StateWeigher entries() {
+        return (key, value) -> 1;
+    }
+
+    /**
+     * Weighs cache entries by their estimated heap size in bytes. The estimation inspects records, collections, maps,
+     * arrays, strings, boxed primitives, and the fields of other objects up to a fixed depth, while objects whose
+     * fields are not reflectively accessible, e.g. within JDK modules, are accounted with their shallow size only.
+     * Large object graphs are estimated from samples.
+     *
+     * @return a weigher estimating bytes
+     */
+    static StateWeigher estimatedBytes() {
+        return (key, value) -> ObjectSizeEstimator.estimate(key.subject())
+                + ObjectSizeEstimator.estimate(value.eventId())
+                + ObjectSizeEstimator.estimate(value.sourcedSubjectIds())
+                + ObjectSizeEstimator.estimate(value.instance());
+    }
+}
@@ -0,0 +1,423 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import com.opencqrs.esdb.client.IdUtil;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Concurrent {@link StateRebuildingCache} implementation using the W-TinyLFU eviction policy, which bounds the cache by
+ * a maximum {@linkplain StateWeigher weight} and admits new entries only if they are accessed more frequently than
+ * the entries they would replace.
+ *
+ * <p>Reads are lock-free, with accesses being recorded in a buffer, which is drained while holding the lock also used
+ * for writes. Entries are kept within a small LRU admission window and a segmented LRU main space, consisting of a
+ * probation and a protected segment. Entries evicted from the window compete with the least recently used
+ * probationary entries based on their access frequency, which is estimated using a {@link FrequencySketch}. Entries
+ * may optionally expire after a fixed duration since their last update.
+ *
+ * <p>Instance classes may be assigned a dedicated maximum weight, in which case they are cached separately and do not
+ * compete with other instance classes.
+ */
+public class TinyLfuStateRebuildingCache implements StateRebuildingCache {
+
+    private static final Logger log = Logger.getLogger(TinyLfuStateRebuildingCache.class.getName());
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final ConcurrentHashMap<CacheKey<?>, Node> data = new ConcurrentHashMap<>();
+    private final Segment defaultSegment;
+    private final Map<Class<?>, Segment> instanceClassSegments = new HashMap<>();
+    private final StateWeigher weigher;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Configures {@code this} with a maximum weight per instance class.
+     *
+     * @param maximumWeight the maximum total weight of cached entries, unless assigned to a specific instance class
+     * @param maximumWeightPerInstanceClass the maximum total weight of cached entries of specific instance classes
+     * @param weigher the weigher determining the weight of cache entries
+     * @param expireAfterWrite the duration after which entries expire since their last update, {@code null} if entries
+     *     shall not expire
+     */
+    public TinyLfuStateRebuildingCache(
+            long maximumWeight,
+            Map<Class<?>, Long> maximumWeightPerInstanceClass,
+            StateWeigher weigher,
+            @Nullable Duration expireAfterWrite) {
+        this(maximumWeight, maximumWeightPerInstanceClass, weigher, expireAfterWrite, System::nanoTime);
+    }
+
+    /**
+     * Configures {@code this} with a maximum number of entries.
+     *
+     * @param capacity the maximum number of {@link StateRebuildingCache.CacheValue}s to keep
+     */
+    public TinyLfuStateRebuildingCache(long capacity) {
+        this(capacity, Map.of(), StateWeigher.entries(), null);
+    }
+
+    TinyLfuStateRebuildingCache(
+            long maximumWeight,
+            Map<Class<?>, Long> maximumWeightPerInstanceClass,
+            StateWeigher weigher,
+            @Nullable Duration expireAfterWrite,
+            LongSupplier ticker) {
+        if (expireAfterWrite != null && (expireAfterWrite.isNegative() || expireAfterWrite.isZero())) {
+            throw new IllegalArgumentException("expiry must be positive: " + expireAfterWrite);
+        }
+        this.defaultSegment = new Segment(maximumWeight);
+        maximumWeightPerInstanceClass.forEach(
+                (instanceClass, weight) -> instanceClassSegments.put(instanceClass, new Segment(weight)));
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : 0;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public <I> CacheValue<I> fetchAndMerge(CacheKey<I> key, Function<CacheValue<I>, CacheValue<I>> mergeFunction) {
+        Segment segment = instanceClassSegments.getOrDefault(key.instanceClass(), defaultSegment);
+
+        CacheValue<I> cached = segment.read(key);
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        CacheValue<I> updatedValue =
+                mergeFunction.apply(cached != null ? cached : new CacheValue<>(null, null, Map.of()));
+
+        return switch (updatedValue.eventId()) {
+            case null -> updatedValue;
+            default -> segment.write(key, updatedValue);
+        };
+    }
+
+    /**
+     * Retrieves the current statistics of {@code this}.
+     *
+     * @return the cache statistics
+     */
+    public Statistics statistics() {
+        long weightedSize = defaultSegment.totalWeight;
+        for (Segment segment : instanceClassSegments.values()) {
+            weightedSize += segment.totalWeight;
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), data.size(), weightedSize);
+    }
+
+    int frequency(CacheKey<?> key) {
+        Segment segment = instanceClassSegments.getOrDefault(key.instanceClass(), defaultSegment);
+        segment.lock.lock();
+        try {
+            segment.drainReadBuffer();
+            return segment.sketch.frequency(spread(key.hashCode()));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    boolean contains(CacheKey<?> key) {
+        return data.containsKey(key);
+    }
+
+    private boolean isExpired(Node node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private static boolean isHigherEventId(@Nullable String a, @Nullable String b) {
+        if (a == null) {
+            return false;
+        }
+        if (b == null) {
+            return true;
+        }
+
+        return IdUtil.fromEventId(a) > IdUtil.fromEventId(b);
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Represents cache statistics.
+     *
+     * @param hitCount the number of fetches resulting in a cached value
+     * @param missCount the number of fetches not resulting in a cached value, including expired ones
+     * @param evictionCount the number of entries evicted due to size constraints or expiry
+     * @param entryCount the current number of entries
+     * @param weightedSize the current total weight of all entries
+     */
+    public record Statistics(long hitCount, long missCount, long evictionCount, long entryCount, long weightedSize) {
+
+        /**
+         * Calculates the ratio of fetches resulting in a cached value.
+         *
+         * @return the hit ratio, {@code 1.0} if nothing was fetched yet
+         */
+        public double hitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    private enum Area {
+        WINDOW,
+        PROBATION,
+        PROTECTED,
+    }
+
+    private static final class Node {
+
+        final CacheKey<?> key;
+        final int hash;
+        volatile CacheValue<?> value;
+        volatile long writeTime;
+        long weight;
+        boolean alive = true;
+        Area area = Area.WINDOW;
+        @Nullable Node previous;
+        @Nullable Node next;
+
+        Node(CacheKey<?> key, CacheValue<?> value, long weight, long writeTime) {
+            this.key = key;
+            this.hash = spread(key.hashCode());
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /** Doubly-linked list of nodes ordered from least to most recently used. */
+    private static final class AccessOrder {
+
+        @Nullable Node first;
+        @Nullable Node last;
+
+        void addLast(Node node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        void remove(Node node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node node) {
+            if (last != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /** Independently bounded part of the cache, guarded by its own lock. */
+    private final class Segment {
+
+        final long maximumWeight;
+        final long windowMaximum;
+        final long protectedMaximum;
+        final FrequencySketch sketch;
+        final ReentrantLock lock = new ReentrantLock();
+        final Queue<Node> readBuffer = new ConcurrentLinkedQueue<>();
+        final AtomicInteger readBufferSize = new AtomicInteger();
+        final AccessOrder window = new AccessOrder();
+        final AccessOrder probation = new AccessOrder();
+        final AccessOrder protectedArea = new AccessOrder();
+        long windowWeight;
+        long protectedWeight;
+        volatile long totalWeight;
+
+        Segment(long maximumWeight) {
+            if (maximumWeight < 1) {
+                throw new IllegalArgumentException("maximum weight must be positive: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            this.windowMaximum = Math.max(1, maximumWeight / 100);
+            this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+            this.sketch = new FrequencySketch(maximumWeight);
+        }
+
+        @SuppressWarnings("unchecked")
+        <I> @Nullable CacheValue<I> read(CacheKey<I> key) {
+            Node node = data.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (isExpired(node, ticker.getAsLong())) {
+                lock.lock();
+                try {
+                    if (node.alive && isExpired(node, ticker.getAsLong())) {
+                        log.fine(() -> "discarding expired cache element: " + key);
+                        evict(node);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return null;
+            }
+            if (readBufferSize.get() < READ_BUFFER_SIZE) {
+                readBufferSize.incrementAndGet();
+                readBuffer.add(node);
+            } else if (lock.tryLock()) {
+                try {
+                    drainReadBuffer();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return (CacheValue<I>) node.value;
+        }
+
+        @SuppressWarnings("unchecked")
+        <I> CacheValue<I> write(CacheKey<I> key, CacheValue<I> value) {
+            long weight = weigher.weigh(key, value);
+            if (weight < 0) {
+                throw new IllegalStateException("negative weight for cache element: " + key);
+            }
+            lock.lock();
+            try {
+                drainReadBuffer();
+                sketch.increment(spread(key.hashCode()));
+                long now = ticker.getAsLong();
+                Node node = data.get(key);
+                if (node != null && !isExpired(node, now) && !isHigherEventId(value.eventId(), node.value.eventId())) {
+                    onAccess(node);
+                    return isHigherEventId(node.value.eventId(), value.eventId()) ? (CacheValue<I>) node.value : value;
+                }
+                if (node != null) {
+                    node.value = value;
+                    node.writeTime = now;
+                    long delta = weight - node.weight;
+                    node.weight = weight;
+                    totalWeight += delta;
+                    switch (node.area) {
+                        case WINDOW -> windowWeight += delta;
+                        case PROTECTED -> protectedWeight += delta;
+                        case PROBATION -> {}
+                    }
+                    onAccess(node);
+                } else {
+                    node = new Node(key, value, weight, now);
+                    data.put(key, node);
+                    window.addLast(node);
+                    windowWeight += weight;
+                    totalWeight += weight;
+                }
+                evictExceeding();
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drainReadBuffer() {
+            Node node;
+            while ((node = readBuffer.poll()) != null) {
+                readBufferSize.decrementAndGet();
+                if (node.alive) {
+                    sketch.increment(node.hash);
+                    onAccess(node);
+                }
+            }
+        }
+
+        private void onAccess(Node node) {
+            switch (node.area) {
+                case WINDOW -> window.moveToLast(node);
+                case PROBATION -> {
+                    probation.remove(node);
+                    node.area = Area.PROTECTED;
+                    protectedArea.addLast(node);
+                    protectedWeight += node.weight;
+                    while (protectedWeight > protectedMaximum && protectedArea.first != null) {
+                        Node demoted = protectedArea.first;
+                        protectedArea.remove(demoted);
+                        protectedWeight -= demoted.weight;
+                        demoted.area = Area.PROBATION;
+                        probation.addLast(demoted);
+                    }
+                }
+                case PROTECTED -> protectedArea.moveToLast(node);
+            }
+        }
+
+        private void evictExceeding() {
+            while (windowWeight > windowMaximum && window.first != null) {
+                Node candidate = window.first;
+                window.remove(candidate);
+                windowWeight -= candidate.weight;
+                candidate.area = Area.PROBATION;
+                probation.addLast(candidate);
+            }
+            while (totalWeight > maximumWeight) {
+                Node victim = probation.first;
+                Node candidate = probation.last;
+                if (victim == null || candidate == null) {
+                    victim = protectedArea.first != null ? protectedArea.first : window.first;
+                    if (victim == null) {
+                        return;
+                    }
+                    evict(victim);
+                } else if (victim == candidate || sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                }
+            }
+        }
+
+        private void evict(Node node) {
+            switch (node.area) {
+                case WINDOW -> {
+                    window.remove(node);
+                    windowWeight -= node.weight;
+                }
+                case PROBATION -> probation.remove(node);
+                case PROTECTED -> {
+                    protectedArea.remove(node);
+                    protectedWeight -= node.weight;
+                }
+            }
+            totalWeight -= node.weight;
+            node.alive = false;
+            data.remove(node.key, node);
+            evictions.increment();
+            log.fine(() -> "discarding cache element: " + node.key);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.locking;
+
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/** {@link SubjectLocking} implementation that does not lock anything. */
+public final class NoSubjectLocking implements SubjectLocking {
+
+    @Override
+    public <T extends @Nullable Object> T withLock(String subject, Supplier<T> action) {
+        return action.get();
+    }
+}
@@ -0,0 +1,66 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.locking;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link SubjectLocking} implementation backed by a fixed number of {@link ReentrantLock}s, so-called stripes, which
+ * subjects are mapped to by their {@link String#hashCode()}. Commands for the same subject are executed sequentially,
+ * while commands for different subjects run in parallel, unless their subjects share the same stripe. The number of
+ * stripes hence limits the memory consumption, regardless of the number of subjects, at the expense of occasional
+ * false sharing.
+ *
+ * <p>Each thread holds at most one stripe at a time. Commands sent from within command handlers, i.e. while a stripe
+ * is already held by the current thread, are executed under that stripe without acquiring the one of their own
+ * subject. Hence, handlers sending commands to each other's subjects, or to subjects sharing a stripe with another
+ * subject, cannot deadlock. Such nested commands are, however, not serialized with respect to other commands for their
+ * subject, so they may fail with a {@link com.opencqrs.framework.client.ConcurrencyException} as without locking.
+ * Command handlers must not block on commands sent asynchronously, as these are executed on different threads.
+ */
+public class StripedSubjectLocking implements SubjectLocking {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final ThreadLocal<@Nullable ReentrantLock> held = new ThreadLocal<>();
+
+    /**
+     * Configures {@code this} with the given number of stripes.
+     *
+     * @param stripes the number of locks, rounded up to the next power of two
+     */
+    public StripedSubjectLocking(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("at least one stripe required: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public <T extends @Nullable Object> T withLock(String subject, Supplier<T> action) {
+        if (held.get() != null) {
+            return action.get();
+        }
+
+        ReentrantLock lock = stripeFor(subject);
+        lock.lock();
+        held.set(lock);
+        try {
+            return action.get();
+        } finally {
+            held.remove();
+            lock.unlock();
+        }
+    }
+
+    ReentrantLock stripeFor(String subject) {
+        int hash = subject.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
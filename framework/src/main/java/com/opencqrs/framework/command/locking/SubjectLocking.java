@@ -0,0 +1,31 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.locking;
+
+import com.opencqrs.framework.command.Command;
+import com.opencqrs.framework.command.CommandRouter;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Interface specifying operations to serialize {@linkplain CommandRouter#send(Command) command executions} for the same
+ * {@link Command#getSubject()} within the JVM. Serialized commands do not race for the same
+ * {@link com.opencqrs.esdb.client.Precondition.SubjectIsOnEventId}, so they do not fail with a
+ * {@link com.opencqrs.framework.client.ConcurrencyException}. Each of them may reuse the state cached by its
+ * predecessor instead.
+ *
+ * @see #withLock(String, Supplier)
+ */
+@FunctionalInterface
+public interface SubjectLocking {
+
+    /**
+     * Executes the given action exclusively with respect to other actions for the same subject, blocking until the
+     * subject is available.
+     *
+     * @param subject the subject to lock
+     * @param action the action to execute
+     * @return the result of the action
+     * @param <T> the result type
+     */
+    <T extends @Nullable Object> T withLock(String subject, Supplier<T> action);
+}
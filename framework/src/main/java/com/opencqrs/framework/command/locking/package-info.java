@@ -0,0 +1,5 @@
+/** Contains locking components supporting command execution. */
+@NullMarked
+package com.opencqrs.framework.command.locking;
+
+import org.jspecify.annotations.NullMarked;
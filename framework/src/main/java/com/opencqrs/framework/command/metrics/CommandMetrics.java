@@ -0,0 +1,82 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.metrics;
+
+import com.opencqrs.framework.command.Command;
+import com.opencqrs.framework.command.CommandRouter;
+import com.opencqrs.framework.command.cache.StateRebuildingCache;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Interface specifying how {@link CommandRouter} reports the phases of {@linkplain CommandRouter#send(Command) command
+ * executions}, e.g. to identify instance types worth snapshotting or caching.
+ *
+ * @see #started(Class)
+ */
+@FunctionalInterface
+public interface CommandMetrics {
+
+    /**
+     * Notifies {@code this} that the execution of a command has started.
+     *
+     * @param commandClass the type of the command being executed
+     * @return the execution to report the subsequent phases of the command execution to
+     */
+    Execution started(Class<? extends Command> commandClass);
+
+    /** Outcome of fetching the instance state from the {@link StateRebuildingCache}. */
+    enum CacheResult {
+
+        /** The cached instance state was used without applying any newer events. */
+        HIT,
+
+        /** No instance state was cached, so all events were sourced. */
+        MISS,
+
+        /** Newer events were sourced and applied to the cached instance state. */
+        MERGE,
+    }
+
+    /** Receives the phases of a single command execution, as reported by {@link CommandRouter}. */
+    interface Execution {
+
+        /**
+         * Notifies {@code this} that the instance state has been sourced. This is reported again, if newer events are
+         * sourced after a {@link com.opencqrs.framework.client.ConcurrencyException}, and not at all, if the instance
+         * state has been sourced by a concurrent command execution.
+         *
+         * @param cacheResult the outcome of fetching the cached instance state
+         * @param sourcedEvents the number of events sourced
+         * @param sourcingNanos the time spent reading, upcasting, and converting the events in nanoseconds
+         * @param rebuildingNanos the time spent applying the events to the state rebuilding handlers in nanoseconds
+         */
+        void sourced(CacheResult cacheResult, int sourcedEvents, long sourcingNanos, long rebuildingNanos);
+
+        /**
+         * Notifies {@code this} that the command handler has been executed.
+         *
+         * @param handlingNanos the time spent executing the command handler in nanoseconds
+         */
+        void handled(long handlingNanos);
+
+        /**
+         * Notifies {@code this} that the events captured by the command handler have been published.
+         *
+         * @param preconditions the number of preconditions published
+         * @param publishingNanos the time spent publishing the events in nanoseconds
+         */
+        void published(int preconditions, long publishingNanos);
+
+        /**
+         * Notifies {@code this} that publishing the events failed with a
+         * {@link com.opencqrs.framework.client.ConcurrencyException}, whether retried or not.
+         */
+        void conflicted();
+
+        /**
+         * Notifies {@code this} that the command execution has completed.
+         *
+         * @param failure the exception the command execution failed with, or {@code null} if successful
+         */
+        void completed(@Nullable Throwable failure);
+    }
+}
@@ -0,0 +1,31 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.metrics;
+
+import com.opencqrs.framework.command.Command;
+import org.jspecify.annotations.Nullable;
+
+/** {@link CommandMetrics} implementation that does not record anything. */
+public final class NoCommandMetrics implements CommandMetrics {
+
+    private static final Execution NO_EXECUTION = new Execution() {
+        @Override
+        public void sourced(CacheResult cacheResult, int sourcedEvents, long sourcingNanos, long rebuildingNanos) {}
+
+        @Override
+        public void handled(long handlingNanos) {}
+
+        @Override
+        public void published(int preconditions, long publishingNanos) {}
+
+        @Override
+        public void conflicted() {}
+
+        @Override
+        public void completed(@Nullable Throwable failure) {}
+    };
+
+    @Override
+    public Execution started(Class<? extends Command> commandClass) {
+        return NO_EXECUTION;
+    }
+}
@@ -0,0 +1,5 @@
+/** Contains components recording metrics for command execution. */
+@NullMarked
+package com.opencqrs.framework.command.metrics;
+
+import org.jspecify.annotations.NullMarked;
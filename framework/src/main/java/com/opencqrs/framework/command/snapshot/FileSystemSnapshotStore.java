@@ -0,0 +1,97 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.command.SourcingMode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * {@link SnapshotStore} implementation persisting each {@link Snapshot} as a file within a local directory. Files are
+ * named after a hash of the subject, instance type, and sourcing mode, and replaced atomically by newer snapshots.
+ * Snapshots are expected to be saved by a single instance of {@code this} per directory.
+ */
+public class FileSystemSnapshotStore implements SnapshotStore {
+
+    private final Path directory;
+
+    /**
+     * Configures {@code this} with the directory to store snapshots in, which will be created if necessary.
+     *
+     * @param directory the snapshot directory
+     */
+    public FileSystemSnapshotStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to create snapshot directory: " + directory, e);
+        }
+    }
+
+    @Override
+    public Optional<Snapshot> load(String subject, String instanceType, SourcingMode sourcingMode) {
+        try {
+            Snapshot snapshot = SnapshotFormat.read(Files.readAllBytes(file(subject, instanceType, sourcingMode)));
+            if (!snapshot.subject().equals(subject)
+                    || !snapshot.instanceType().equals(instanceType)
+                    || snapshot.sourcingMode() != sourcingMode) {
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException("failed to load snapshot for: " + subject, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(Snapshot snapshot) {
+        if (savedPosition(snapshot) >= snapshot.position()) {
+            return;
+        }
+        Path file = file(snapshot.subject(), snapshot.instanceType(), snapshot.sourcingMode());
+        try {
+            Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+            try {
+                Files.write(temp, SnapshotFormat.write(snapshot));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException(
+                    "failed to save snapshot for: " + snapshot.subject(), e);
+        }
+    }
+
+    private long savedPosition(Snapshot snapshot) {
+        try {
+            return load(snapshot.subject(), snapshot.instanceType(), snapshot.sourcingMode())
+                    .map(Snapshot::position)
+                    .orElse(-1L);
+        } catch (RuntimeException e) {
+            // unreadable snapshots are replaced
+            return -1;
+        }
+    }
+
+    private Path file(String subject, String instanceType, SourcingMode sourcingMode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((subject + "\n" + instanceType + "\n" + sourcingMode).getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest.digest()) + ".snapshot");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
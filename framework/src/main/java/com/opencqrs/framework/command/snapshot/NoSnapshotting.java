@@ -0,0 +1,18 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.util.Optional;
+
+/** {@link Snapshotting} implementation that neither restores nor takes snapshots. */
+public final class NoSnapshotting implements Snapshotting {
+
+    @Override
+    public <I> Optional<CacheValue<I>> restore(CacheKey<I> key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public <I> void sourced(CacheKey<I> key, CacheValue<I> value, int sourcedEvents) {}
+}
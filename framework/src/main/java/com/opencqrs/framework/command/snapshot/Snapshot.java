@@ -0,0 +1,49 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.framework.command.CommandHandlerDefinition;
+import com.opencqrs.framework.command.SourcingMode;
+import java.util.Map;
+
+/**
+ * Represents a persisted snapshot of event-sourced instance state, which allows to restore the instance state by
+ * sourcing only the events newer than the snapshot.
+ *
+ * @param subject the subject the instance state was sourced for
+ * @param instanceType the fully qualified {@link CommandHandlerDefinition#instanceClass()} name
+ * @param sourcingMode the sourcing mode used to source the instance state
+ * @param version the version of the {@code stateType}, used to discard snapshots after incompatible changes
+ * @param eventId the {@link Event#id()} to continue sourcing after, which precedes events written through to
+ *     recursively sourced instance state, see {@link #position()}
+ * @param sourcedSubjectIds the sourced subjects and their corresponding {@link Event#id()} to reconstruct
+ *     {@link Precondition.SubjectIsOnEventId}s
+ * @param stateType the fully qualified class name of the encoded instance state
+ * @param state the encoded instance state
+ */
+public record Snapshot(
+        String subject,
+        String instanceType,
+        SourcingMode sourcingMode,
+        String version,
+        String eventId,
+        Map<String, String> sourcedSubjectIds,
+        String stateType,
+        byte[] state) {
+
+    /**
+     * Determines the newest {@link Event#id()} represented by {@code this}, including events written through, which
+     * is used to order snapshots saved for the same instance.
+     *
+     * @return the newest event id as number
+     */
+    public long position() {
+        long result = IdUtil.fromEventId(eventId);
+        for (String id : sourcedSubjectIds.values()) {
+            result = Math.max(result, IdUtil.fromEventId(id));
+        }
+        return result;
+    }
+}
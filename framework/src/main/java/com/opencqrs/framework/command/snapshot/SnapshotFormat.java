@@ -0,0 +1,81 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.SourcingMode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Binary representation of {@link Snapshot}s, as used by {@link SnapshotStore} implementations. */
+public final class SnapshotFormat {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private SnapshotFormat() {}
+
+    /**
+     * Encodes the given snapshot.
+     *
+     * @param snapshot the snapshot
+     * @return the encoded snapshot
+     */
+    public static byte[] write(Snapshot snapshot) {
+        var bytes = new ByteArrayOutputStream(snapshot.state().length + 256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(snapshot.subject());
+            out.writeUTF(snapshot.instanceType());
+            out.writeUTF(snapshot.sourcingMode().name());
+            out.writeUTF(snapshot.version());
+            out.writeUTF(snapshot.eventId());
+            out.writeInt(snapshot.sourcedSubjectIds().size());
+            for (Map.Entry<String, String> entry : snapshot.sourcedSubjectIds().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            out.writeUTF(snapshot.stateType());
+            out.writeInt(snapshot.state().length);
+            out.write(snapshot.state());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot previously {@linkplain #write(Snapshot) encoded}.
+     *
+     * @param bytes the encoded snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the bytes do not represent a supported snapshot
+     */
+    public static Snapshot read(byte[] bytes) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int formatVersion = in.readByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalArgumentException("unsupported snapshot format version: " + formatVersion);
+            }
+            String subject = in.readUTF();
+            String instanceType = in.readUTF();
+            SourcingMode sourcingMode = SourcingMode.valueOf(in.readUTF());
+            String version = in.readUTF();
+            String eventId = in.readUTF();
+            int subjects = in.readInt();
+            Map<String, String> sourcedSubjectIds = new HashMap<>(subjects * 2);
+            for (int i = 0; i < subjects; i++) {
+                sourcedSubjectIds.put(in.readUTF(), in.readUTF());
+            }
+            String stateType = in.readUTF();
+            byte[] state = in.readNBytes(in.readInt());
+            return new Snapshot(
+                    subject, instanceType, sourcingMode, version, eventId, sourcedSubjectIds, stateType, state);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("malformed snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.SourcingMode;
+import java.util.Optional;
+
+/**
+ * Interface specifying operations to persist {@link Snapshot}s, at most one per subject, instance type, and sourcing
+ * mode.
+ *
+ * @see StoreSnapshotting
+ */
+public interface SnapshotStore {
+
+    /**
+     * Loads the snapshot for the given parameters.
+     *
+     * @param subject the {@link Snapshot#subject()}
+     * @param instanceType the {@link Snapshot#instanceType()}
+     * @param sourcingMode the {@link Snapshot#sourcingMode()}
+     * @return the snapshot or {@link Optional#empty()}, if none was saved
+     */
+    Optional<Snapshot> load(String subject, String instanceType, SourcingMode sourcingMode);
+
+    /**
+     * Saves the given snapshot, replacing the snapshot previously saved for the same subject, instance type, and
+     * sourcing mode, unless that one is not older, i.e. its {@linkplain Snapshot#position() position} is the same or
+     * newer. Hence, snapshots saved concurrently or out of order never replace newer ones.
+     *
+     * @param snapshot the snapshot to save
+     */
+    void save(Snapshot snapshot);
+}
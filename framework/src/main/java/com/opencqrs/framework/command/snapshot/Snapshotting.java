@@ -0,0 +1,35 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.CommandRouter;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.util.Optional;
+
+/**
+ * Interface specifying how {@link CommandRouter} restores instance state from snapshots prior to sourcing events and
+ * when snapshots are taken after sourcing.
+ */
+public interface Snapshotting {
+
+    /**
+     * Restores the instance state for the given key from a snapshot, if available. This is called only, if no cached
+     * instance state is available.
+     *
+     * @param key the key identifying the instance state
+     * @return the restored state or {@link Optional#empty()}, if there is no compatible snapshot
+     * @param <I> the generic instance type
+     */
+    <I> Optional<CacheValue<I>> restore(CacheKey<I> key);
+
+    /**
+     * Notifies {@code this} that events have been sourced and applied to the instance state, which may result in a
+     * snapshot being taken.
+     *
+     * @param key the key identifying the instance state
+     * @param value the instance state after applying the sourced events
+     * @param sourcedEvents the number of events sourced
+     * @param <I> the generic instance type
+     */
+    <I> void sourced(CacheKey<I> key, CacheValue<I> value, int sourcedEvents);
+}
@@ -0,0 +1,228 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import com.opencqrs.framework.command.SourcingMode;
+import com.opencqrs.framework.command.cache.StateCodec;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link Snapshotting} implementation persisting snapshots using a {@link SnapshotStore}. A snapshot is taken, once
+ * the configured number of events has been sourced for an instance since its last snapshot, or once the configured
+ * interval has elapsed since then and further events were sourced. Snapshots are encoded using a {@link StateCodec}
+ * and saved asynchronously, so that command execution is not delayed.
+ *
+ * <p>Snapshots are versioned by a fingerprint of the instance state class, derived from its non-static fields. Hence,
+ * snapshots are discarded after adding, removing, renaming, or retyping fields.
+ */
+public final class StoreSnapshotting implements Snapshotting {
+
+    private static final Logger log = Logger.getLogger(StoreSnapshotting.class.getName());
+    private static final int MAX_TRACKED = 10_000;
+
+    private static final ClassValue<String> VERSIONS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                        fields.add(field);
+                    }
+                }
+            }
+            fields.sort(Comparator.comparing((Field field) -> field.getDeclaringClass().getName())
+                    .thenComparing(Field::getName));
+
+            var description = new StringBuilder(type.getName());
+            fields.forEach(field -> description
+                    .append(';')
+                    .append(field.getName())
+                    .append(':')
+                    .append(field.getGenericType().getTypeName()));
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                        .digest(description.toString().getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final SnapshotStore store;
+    private final StateCodec codec;
+    private final Executor executor;
+    private final int everyEvents;
+    private final long intervalNanos;
+    private final LongSupplier ticker;
+    private final Map<CacheKey<?>, Progress> progress =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey<?>, Progress> eldest) {
+                    return size() > MAX_TRACKED;
+                }
+            });
+
+    /**
+     * Configures {@code this}.
+     *
+     * @param store the store to load and save snapshots
+     * @param codec the codec used to encode instance state
+     * @param executor the executor used to save snapshots
+     * @param everyEvents the number of events sourced after which a snapshot is taken
+     * @param interval the time elapsed after which a snapshot is taken, if further events were sourced
+     */
+    public StoreSnapshotting(
+            SnapshotStore store, StateCodec codec, Executor executor, int everyEvents, Duration interval) {
+        this(store, codec, executor, everyEvents, interval, System::nanoTime);
+    }
+
+    StoreSnapshotting(
+            SnapshotStore store,
+            StateCodec codec,
+            Executor executor,
+            int everyEvents,
+            Duration interval,
+            LongSupplier ticker) {
+        if (everyEvents < 1) {
+            throw new IllegalArgumentException("snapshot event threshold must be positive: " + everyEvents);
+        }
+        this.store = store;
+        this.codec = codec;
+        this.executor = executor;
+        this.everyEvents = everyEvents;
+        this.intervalNanos = interval.toNanos();
+        this.ticker = ticker;
+    }
+
+    static String version(Class<?> stateClass) {
+        return VERSIONS.get(stateClass);
+    }
+
+    @Override
+    public <I> Optional<CacheValue<I>> restore(CacheKey<I> key) {
+        if (key.sourcingMode() == SourcingMode.NONE) {
+            return Optional.empty();
+        }
+        Optional<Snapshot> snapshot;
+        try {
+            snapshot = store.load(key.subject(), key.instanceClass().getName(), key.sourcingMode());
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "failed to load snapshot, sourcing all events for: " + key);
+            return Optional.empty();
+        }
+        return snapshot.flatMap(it -> decode(key, it));
+    }
+
+    private <I> Optional<CacheValue<I>> decode(CacheKey<I> key, Snapshot snapshot) {
+        try {
+            Class<? extends I> stateClass = resolve(key.instanceClass(), snapshot.stateType());
+            if (!version(stateClass).equals(snapshot.version())) {
+                log.fine(() -> "discarding snapshot of outdated version for: " + key);
+                return Optional.empty();
+            }
+            I instance = codec.decode(stateClass, snapshot.state());
+            progress.put(key, new Progress(ticker.getAsLong()));
+            return Optional.of(new CacheValue<>(snapshot.eventId(), instance, snapshot.sourcedSubjectIds()));
+        } catch (ClassNotFoundException | RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "failed to decode snapshot, sourcing all events for: " + key);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public <I> void sourced(CacheKey<I> key, CacheValue<I> value, int sourcedEvents) {
+        String eventId = value.eventId();
+        I instance = value.instance();
+        if (sourcedEvents == 0 || key.sourcingMode() == SourcingMode.NONE || eventId == null || instance == null) {
+            return;
+        }
+
+        long now = ticker.getAsLong();
+        boolean due;
+        synchronized (progress) {
+            Progress current = progress.computeIfAbsent(key, ignored -> new Progress(now));
+            current.events += sourcedEvents;
+            due = current.events >= everyEvents || now - current.since >= intervalNanos;
+            if (due) {
+                current.events = 0;
+                current.since = now;
+            }
+        }
+        if (!due) {
+            return;
+        }
+
+        Snapshot snapshot;
+        try {
+            snapshot = new Snapshot(
+                    key.subject(),
+                    key.instanceClass().getName(),
+                    key.sourcingMode(),
+                    version(instance.getClass()),
+                    eventId,
+                    Map.copyOf(value.sourcedSubjectIds()),
+                    instance.getClass().getName(),
+                    codec.encode(instance));
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "failed to encode snapshot for: " + key);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    store.save(snapshot);
+                    log.fine(() -> "saved snapshot at event id " + eventId + " for: " + key);
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, e, () -> "failed to save snapshot for: " + key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.log(Level.WARNING, e, () -> "failed to schedule snapshot for: " + key);
+        }
+    }
+
+    private static <I> Class<? extends I> resolve(Class<I> instanceClass, String className)
+            throws ClassNotFoundException {
+        if (instanceClass.getName().equals(className)) {
+            return instanceClass;
+        }
+        ClassLoader classLoader = instanceClass.getClassLoader();
+        return Class.forName(
+                        className,
+                        false,
+                        classLoader != null ? classLoader : Thread.currentThread().getContextClassLoader())
+                .asSubclass(instanceClass);
+    }
+
+    /** Number of events sourced since the last snapshot of an instance. */
+    private static final class Progress {
+
+        int events;
+        long since;
+
+        Progress(long since) {
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/** Contains components for persisting and restoring snapshots of event-sourced instance state. */
+@NullMarked
+package com.opencqrs.framework.command.snapshot;
+
+import org.jspecify.annotations.NullMarked;
@@ -215,7 +215,7 @@ public class EventHandlingProcessor implements Runnable {
                             .ifPresent(options::add);
 
                     eventReader.consumeRaw(
-                            (client, eventConsumer) -> client.observe(subject, options, eventConsumer),
+                            new EventReader.ClientRequestor.Observe(subject, options),
                             (rawCallback, raw) -> {
                                 try {
                                     executorService
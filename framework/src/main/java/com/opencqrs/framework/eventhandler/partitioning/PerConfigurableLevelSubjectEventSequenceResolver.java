@@ -2,7 +2,6 @@
 package com.opencqrs.framework.eventhandler.partitioning;
 
 import com.opencqrs.esdb.client.Event;
-import java.util.Arrays;
 
 /**
  * {@link ForRawEvent} implementation which reduced the {@link Event#subject()} path and reduces it to a configurable
@@ -24,14 +23,19 @@ public class PerConfigurableLevelSubjectEventSequenceResolver implements EventSe
     }
 
     private static String shortenSubject(String subject, int level) {
-        var result = new StringBuffer();
-        Arrays.stream(subject.splitWithDelimiters("/", -1))
-                // subject is assumed to start with "/", so we skip the empty string
-                .skip(1)
-                .limit(level * 2L)
-                .forEach(result::append);
-
-        return result.toString();
+        int start = subject.indexOf('/');
+        if (start < 0) {
+            return "";
+        }
+        // any prefix preceding the first "/" is ignored
+        int end = start;
+        for (int i = 0; i < level; i++) {
+            end = subject.indexOf('/', end + 1);
+            if (end < 0) {
+                return subject.substring(start);
+            }
+        }
+        return subject.substring(start, end);
     }
 
     @Override
@@ -0,0 +1,267 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.metadata;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Compact, immutable meta-data {@link Map} implementation storing keys and values within small arrays. Keys are taken
+ * from a shared dictionary, so that recurring meta-data keys, e.g. of deserialized events, are kept in memory once. As
+ * meta-data typically consists of few entries only, lookups are performed by linear search.
+ *
+ * <p>{@link #merged(Map, Map)} supports combining compact meta-data without copying it, which is used for
+ * {@linkplain PropagationUtil#propagateMetaData(Map, Map, PropagationMode) meta-data propagation}.
+ */
+public final class CompactMetaData extends AbstractMap<String, Object> {
+
+    private static final int MAX_DICTIONARY_SIZE = 4096;
+    private static final ConcurrentMap<String, String> DICTIONARY = new ConcurrentHashMap<>();
+    private static final CompactMetaData EMPTY = new CompactMetaData(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private CompactMetaData(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Retrieves a compact, immutable representation of the given meta-data. Meta-data already represented by
+     * {@code this} is returned as is.
+     *
+     * @param metaData the meta-data
+     * @return the compact meta-data
+     */
+    public static Map<String, ?> of(Map<String, ?> metaData) {
+        if (metaData instanceof CompactMetaData || metaData instanceof Merged) {
+            return metaData;
+        }
+        if (metaData.isEmpty()) {
+            return EMPTY;
+        }
+
+        String[] keys = new String[metaData.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Map.Entry<String, ?> entry : metaData.entrySet()) {
+            keys[i] = intern(entry.getKey());
+            values[i++] = entry.getValue();
+        }
+        return new CompactMetaData(keys, values);
+    }
+
+    /**
+     * Retrieves a compact, immutable copy of the given meta-data restricted to the given keys.
+     *
+     * @param metaData the meta-data
+     * @param retainedKeys the keys to retain
+     * @return the compact meta-data
+     */
+    public static Map<String, ?> retained(Map<String, ?> metaData, Collection<String> retainedKeys) {
+        String[] keys = new String[Math.min(metaData.size(), retainedKeys.size())];
+        Object[] values = new Object[keys.length];
+        int size = 0;
+        for (Map.Entry<String, ?> entry : metaData.entrySet()) {
+            if (size < keys.length && retainedKeys.contains(entry.getKey())) {
+                keys[size] = intern(entry.getKey());
+                values[size++] = entry.getValue();
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        if (size < keys.length) {
+            keys = Arrays.copyOf(keys, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return new CompactMetaData(keys, values);
+    }
+
+    /**
+     * Retrieves an immutable view combining the given meta-data. Keys present in both are mapped to the primary value.
+     * Meta-data not yet {@linkplain #of(Map) compact} is copied defensively, so that modifying the given maps
+     * afterwards does not affect the view, whereas compact meta-data is shared.
+     *
+     * @param primary the meta-data taking precedence
+     * @param secondary the meta-data used for keys absent from {@code primary}
+     * @return the combined meta-data
+     */
+    public static Map<String, ?> merged(Map<String, ?> primary, Map<String, ?> secondary) {
+        if (secondary.isEmpty()) {
+            return of(primary);
+        }
+        if (primary.isEmpty()) {
+            return of(secondary);
+        }
+        return new Merged(of(primary), of(secondary));
+    }
+
+    private static String intern(String key) {
+        String interned = DICTIONARY.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        if (DICTIONARY.size() >= MAX_DICTIONARY_SIZE) {
+            return key;
+        }
+        interned = DICTIONARY.putIfAbsent(key, key);
+        return interned != null ? interned : key;
+    }
+
+    private int indexOf(@Nullable Object key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public @Nullable Object get(@Nullable Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        var entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    /** Immutable view on two compact meta-data maps, the primary one taking precedence. */
+    private static final class Merged extends AbstractMap<String, Object> {
+
+        private final Map<String, ?> primary;
+        private final Map<String, ?> secondary;
+        private int size = -1;
+
+        Merged(Map<String, ?> primary, Map<String, ?> secondary) {
+            this.primary = primary;
+            this.secondary = secondary;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return primary.containsKey(key) || secondary.containsKey(key);
+        }
+
+        @Override
+        public @Nullable Object get(@Nullable Object key) {
+            return primary.containsKey(key) ? primary.get(key) : secondary.get(key);
+        }
+
+        @Override
+        public int size() {
+            if (size < 0) {
+                int result = primary.size();
+                for (String key : secondary.keySet()) {
+                    if (!primary.containsKey(key)) {
+                        result++;
+                    }
+                }
+                size = result;
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<? extends Entry<String, ?>> primaryEntries = primary.entrySet().iterator();
+                    Iterator<? extends Entry<String, ?>> secondaryEntries = secondary.entrySet().iterator();
+                    return new Iterator<>() {
+                        private @Nullable Entry<String, ?> next;
+
+                        @Override
+                        public boolean hasNext() {
+                            if (next != null) {
+                                return true;
+                            }
+                            if (primaryEntries.hasNext()) {
+                                next = primaryEntries.next();
+                                return true;
+                            }
+                            while (secondaryEntries.hasNext()) {
+                                Entry<String, ?> candidate = secondaryEntries.next();
+                                if (!primary.containsKey(candidate.getKey())) {
+                                    next = candidate;
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext() || next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            var entry = new SimpleImmutableEntry<String, Object>(next.getKey(), next.getValue());
+                            next = null;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return Merged.this.size();
+                }
+            };
+        }
+    }
+}
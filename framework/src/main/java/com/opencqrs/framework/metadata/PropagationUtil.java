@@ -1,23 +1,20 @@
 /* Copyright (C) 2025 OpenCQRS and contributors */
 package com.opencqrs.framework.metadata;
 
-import java.util.HashMap;
 import java.util.Map;
 
-/** Util class for meta-data propagation. */
+/**
+ * Util class for meta-data propagation. Propagated meta-data is represented as {@linkplain CompactMetaData#merged(Map,
+ * Map) merged view}, sharing already compact meta-data instead of copying it.
+ */
 public class PropagationUtil {
 
     public static Map<String, ?> propagateMetaData(
             Map<String, ?> metaData, Map<String, ?> propagationData, PropagationMode mode) {
-        if (mode == PropagationMode.NONE) return metaData;
-
-        var result = new HashMap<String, Object>(metaData);
-        propagationData.forEach((key, value) -> result.merge(key, value, (o1, o2) -> switch (mode) {
-            case KEEP_IF_PRESENT -> o1;
-            case OVERRIDE_IF_PRESENT -> o2;
-            default -> throw new IllegalStateException("Unexpected value: " + mode);
-        }));
-
-        return result;
+        return switch (mode) {
+            case NONE -> metaData;
+            case KEEP_IF_PRESENT -> CompactMetaData.merged(metaData, propagationData);
+            case OVERRIDE_IF_PRESENT -> CompactMetaData.merged(propagationData, metaData);
+        };
     }
 }
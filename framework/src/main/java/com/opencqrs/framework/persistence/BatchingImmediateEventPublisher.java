@@ -0,0 +1,227 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.client.ConcurrencyException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link ImmediateEventPublisher} implementation coalescing concurrent publications into fewer atomic publications
+ * using a delegate {@link ImmediateEventPublisher}, also known as <i>group commit</i>.
+ *
+ * <p>Publications arriving concurrently, while another batch is being published or within the configurable linger
+ * period, are combined into a single publication, if the subjects of their events and
+ * {@linkplain Precondition preconditions} are disjoint. Publications using {@link Precondition.EventQlQueryIsTrue} are
+ * never combined, as the subjects affected by the query cannot be determined.
+ *
+ * <p>If a combined publication fails due to a {@link ConcurrencyException} or a
+ * {@link CqrsFrameworkException.NonTransientException}, all of its original publications are retried individually, so
+ * that atomicity and error semantics are preserved per publication. Any other error, for instance a
+ * {@link CqrsFrameworkException.TransientException}, is propagated to all callers of the combined publication, as its
+ * outcome is unknown.
+ */
+public class BatchingImmediateEventPublisher implements ImmediateEventPublisher {
+
+    private static final Logger log = Logger.getLogger(BatchingImmediateEventPublisher.class.getName());
+
+    private final ImmediateEventPublisher delegate;
+    private final long lingerNanos;
+    private final int maxBatchSize;
+
+    private final Queue<PendingPublication> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param delegate the publisher used for the (combined) publications
+     * @param linger the maximum time to wait for further concurrent publications, before publishing a batch
+     * @param maxBatchSize the maximum number of publications to be combined
+     */
+    public BatchingImmediateEventPublisher(ImmediateEventPublisher delegate, Duration linger, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("max batch size must be positive: " + maxBatchSize);
+        }
+        this.delegate = delegate;
+        this.lingerNanos = linger.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public List<Event> publish(Consumer<EventPublisher> handler, List<Precondition> additionalPreconditions) {
+        var capturer = new EventCapturer();
+
+        handler.accept(capturer);
+
+        return publish(capturer.getEvents(), additionalPreconditions);
+    }
+
+    @Override
+    public List<Event> publish(List<CapturedEvent> events, List<Precondition> additionalPreconditions) {
+        Set<String> subjects = affectedSubjects(events, additionalPreconditions);
+        if (subjects == null || events.isEmpty()) {
+            return delegate.publish(events, additionalPreconditions);
+        }
+
+        var publication = new PendingPublication(events, additionalPreconditions, subjects);
+        pending.add(publication);
+
+        flushLock.lock();
+        try {
+            if (!publication.done && lingerNanos > 0 && pending.size() < maxBatchSize) {
+                LockSupport.parkNanos(lingerNanos);
+            }
+            while (!publication.done) {
+                flush();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        if (publication.error != null) {
+            throw publication.error;
+        }
+        return publication.published;
+    }
+
+    private void flush() {
+        List<PendingPublication> batch = new ArrayList<>();
+        PendingPublication next;
+        while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+            batch.add(next);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        batch.forEach(publication -> groups.stream()
+                .filter(group -> Collections.disjoint(group.subjects, publication.subjects))
+                .findFirst()
+                .orElseGet(() -> {
+                    var group = new Group();
+                    groups.add(group);
+                    return group;
+                })
+                .add(publication));
+
+        groups.forEach(this::publishCombined);
+    }
+
+    private void publishCombined(Group group) {
+        if (group.publications.size() == 1) {
+            publishIndividually(group.publications.get(0));
+            return;
+        }
+
+        List<CapturedEvent> events = new ArrayList<>();
+        List<Precondition> preconditions = new ArrayList<>();
+        group.publications.forEach(publication -> {
+            events.addAll(publication.events);
+            preconditions.addAll(publication.additionalPreconditions);
+        });
+
+        List<Event> published;
+        try {
+            published = delegate.publish(events, preconditions);
+        } catch (ConcurrencyException | CqrsFrameworkException.NonTransientException e) {
+            log.log(Level.FINE, "combined publication failed, publishing individually", e);
+            group.publications.forEach(this::publishIndividually);
+            return;
+        } catch (RuntimeException e) {
+            group.publications.forEach(publication -> publication.fail(e));
+            return;
+        }
+
+        int offset = 0;
+        for (PendingPublication publication : group.publications) {
+            int size = publication.events.size();
+            publication.succeed(List.copyOf(published.subList(offset, offset + size)));
+            offset += size;
+        }
+    }
+
+    private void publishIndividually(PendingPublication publication) {
+        try {
+            publication.succeed(delegate.publish(publication.events, publication.additionalPreconditions));
+        } catch (RuntimeException e) {
+            publication.fail(e);
+        }
+    }
+
+    private static @Nullable Set<String> affectedSubjects(
+            List<CapturedEvent> events, List<Precondition> additionalPreconditions) {
+        Set<String> result = new HashSet<>();
+        for (CapturedEvent event : events) {
+            result.add(event.subject());
+            if (!addSubjects(event.preconditions(), result)) {
+                return null;
+            }
+        }
+        return addSubjects(additionalPreconditions, result) ? result : null;
+    }
+
+    private static boolean addSubjects(List<Precondition> preconditions, Set<String> subjects) {
+        for (Precondition precondition : preconditions) {
+            switch (precondition) {
+                case Precondition.SubjectIsPristine p -> subjects.add(p.subject());
+                case Precondition.SubjectIsOnEventId p -> subjects.add(p.subject());
+                case Precondition.SubjectIsPopulated p -> subjects.add(p.subject());
+                case Precondition.EventQlQueryIsTrue p -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static final class Group {
+        private final List<PendingPublication> publications = new ArrayList<>();
+        private final Set<String> subjects = new HashSet<>();
+
+        void add(PendingPublication publication) {
+            publications.add(publication);
+            subjects.addAll(publication.subjects);
+        }
+    }
+
+    /** Publication state, guarded by the flush lock. */
+    private static final class PendingPublication {
+        private final List<CapturedEvent> events;
+        private final List<Precondition> additionalPreconditions;
+        private final Set<String> subjects;
+
+        private boolean done;
+        private List<Event> published = List.of();
+        private @Nullable RuntimeException error;
+
+        PendingPublication(
+                List<CapturedEvent> events, List<Precondition> additionalPreconditions, Set<String> subjects) {
+            this.events = events;
+            this.additionalPreconditions = additionalPreconditions;
+            this.subjects = subjects;
+        }
+
+        void succeed(List<Event> published) {
+            this.published = published;
+            this.done = true;
+        }
+
+        void fail(RuntimeException error) {
+            this.error = error;
+            this.done = true;
+        }
+    }
+}
@@ -80,9 +80,7 @@ public interface EventReader {
     default List<Event> readRaw(String subject, Set<Option> options) {
         var result = new ArrayList<Event>();
 
-        consumeRaw(
-                (client, eventConsumer) -> client.read(subject, options, eventConsumer),
-                (callback, event) -> result.add(event));
+        consumeRaw(new ClientRequestor.Read(subject, options), (callback, event) -> result.add(event));
 
         return result;
     }
@@ -97,9 +95,7 @@ public interface EventReader {
     default List<Event> readUpcasted(String subject, Set<Option> options) {
         var result = new ArrayList<Event>();
 
-        consumeUpcasted(
-                (client, eventConsumer) -> client.read(subject, options, eventConsumer),
-                (callback, event) -> result.add(event));
+        consumeUpcasted(new ClientRequestor.Read(subject, options), (callback, event) -> result.add(event));
 
         return result;
     }
@@ -114,13 +110,15 @@ public interface EventReader {
     default List<Object> readAsObject(String subject, Set<Option> options) {
         var result = new ArrayList<>();
 
-        consumeAsObject((client, eventConsumer) -> client.read(subject, options, eventConsumer), (Consumer<Object>)
-                result::add);
+        consumeAsObject(new ClientRequestor.Read(subject, options), (Consumer<Object>) result::add);
 
         return result;
     }
 
-    /** Generically wraps {@link EsdbClient} calls to consume {@link Event}s. */
+    /**
+     * Generically wraps {@link EsdbClient} calls to consume {@link Event}s. {@link Read} and {@link Observe} should be
+     * preferred over custom implementations, as they allow {@link EventReader} implementations to inspect the request.
+     */
     @FunctionalInterface
     interface ClientRequestor {
 
@@ -131,6 +129,32 @@ public interface EventReader {
          * @param eventConsumer the raw {@link Event} consumer
          */
         void request(EsdbClient client, Consumer<Event> eventConsumer);
+
+        /**
+         * {@link ClientRequestor} {@linkplain EsdbClient#read(String, Set, Consumer) reading} events.
+         *
+         * @param subject the subject to read from
+         * @param options set of read options
+         */
+        record Read(String subject, Set<Option> options) implements ClientRequestor {
+            @Override
+            public void request(EsdbClient client, Consumer<Event> eventConsumer) {
+                client.read(subject, options, eventConsumer);
+            }
+        }
+
+        /**
+         * {@link ClientRequestor} {@linkplain EsdbClient#observe(String, Set, Consumer) observing} events.
+         *
+         * @param subject the subject to observe
+         * @param options set of observe options
+         */
+        record Observe(String subject, Set<Option> options) implements ClientRequestor {
+            @Override
+            public void request(EsdbClient client, Consumer<Event> eventConsumer) {
+                client.observe(subject, options, eventConsumer);
+            }
+        }
     }
 
     /**
@@ -59,12 +59,35 @@ public class EventRepository implements EventReader, ImmediateEventPublisher {
     }
 
     private RawCallback forRawEvent(Event event) {
-        return eventConsumer -> eventUpcasters
-                .upcast(event)
-                .forEach(upcasted -> eventConsumer.accept(forUpcastedEvent(upcasted), upcasted));
+        return rawCallback(event, eventTypeResolver, eventDataMarshaller, eventUpcasters);
     }
 
-    private UpcastedCallback forUpcastedEvent(Event event) {
+    /**
+     * Creates the {@link RawCallback} used for events read from the event store, which
+     * {@linkplain EventUpcasters#upcast(Event, Consumer) upcasts} and
+     * {@linkplain EventDataMarshaller#deserialize(Map, Class) converts} them on demand. Used by {@link EventReader}
+     * implementations reading events from other sources, e.g.
+     * {@link com.opencqrs.framework.persistence.local.EmbeddedEventStore}, to process them identically.
+     *
+     * @param event the raw event
+     * @param eventTypeResolver the resolver for event types
+     * @param eventDataMarshaller the marshaller for event data
+     * @param eventUpcasters the upcasters applied to the event
+     * @return the callback for the raw event
+     */
+    public static RawCallback rawCallback(
+            Event event,
+            EventTypeResolver eventTypeResolver,
+            EventDataMarshaller eventDataMarshaller,
+            EventUpcasters eventUpcasters) {
+        return eventConsumer -> eventUpcasters.upcast(
+                event,
+                upcasted -> eventConsumer.accept(
+                        forUpcastedEvent(upcasted, eventTypeResolver, eventDataMarshaller), upcasted));
+    }
+
+    private static UpcastedCallback forUpcastedEvent(
+            Event event, EventTypeResolver eventTypeResolver, EventDataMarshaller eventDataMarshaller) {
         return new UpcastedCallback() {
 
             @Override
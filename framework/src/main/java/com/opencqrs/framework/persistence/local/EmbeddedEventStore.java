@@ -0,0 +1,319 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.esdb.client.Option;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.client.ClientInterruptedException;
+import com.opencqrs.framework.client.ConcurrencyException;
+import com.opencqrs.framework.persistence.CapturedEvent;
+import com.opencqrs.framework.persistence.EventCapturer;
+import com.opencqrs.framework.persistence.EventPublisher;
+import com.opencqrs.framework.persistence.EventReader;
+import com.opencqrs.framework.persistence.EventRepository;
+import com.opencqrs.framework.persistence.EventSource;
+import com.opencqrs.framework.persistence.ImmediateEventPublisher;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.EventDataMarshaller;
+import com.opencqrs.framework.types.EventTypeResolver;
+import com.opencqrs.framework.upcaster.EventUpcasters;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Embedded {@link EventReader} and {@link ImmediateEventPublisher} implementation storing events within a local
+ * {@link EventLog} instead of an event store, e.g. for single-node applications, tests, or benchmarks. It may be used
+ * in place of {@link com.opencqrs.framework.persistence.EventRepository} for
+ * {@linkplain com.opencqrs.framework.command.CommandRouter command handling} and
+ * {@linkplain com.opencqrs.framework.eventhandler.EventHandlingProcessor event handling}.
+ *
+ * <p>Published events are assigned sequential ids and are chained using SHA-256 {@link Event#hash()}es, each covering
+ * the {@link Event#predecessorHash()}. All subject related {@link Precondition}s are supported and evaluated
+ * atomically prior to publication, violations are signalled as {@link ConcurrencyException}. Events published together
+ * are {@linkplain EventLog#append(List) appended as one unit}. {@link Precondition.EventQlQueryIsTrue} is supported for
+ * queries collapsing the preconditions of a subject hierarchy, as used by
+ * {@link com.opencqrs.framework.command.PreconditionCompaction}, only.
+ *
+ * <p>Only {@link ClientRequestor.Read} and {@link ClientRequestor.Observe} requests are supported, as there is no
+ * {@link com.opencqrs.esdb.client.EsdbClient} to pass to custom {@link ClientRequestor}s. Observing blocks the calling
+ * thread waiting for new events, until it is interrupted.
+ *
+ * <p>Events are not forced to disk upon publication, for the sake of latency. {@link EventLog#flush()} may be used to
+ * do so explicitly.
+ */
+public class EmbeddedEventStore implements EventReader, ImmediateEventPublisher {
+
+    private static final String SPEC_VERSION = "1.0";
+    private static final String DATA_CONTENT_TYPE = "application/json";
+    private static final String GENESIS_HASH = "0".repeat(64);
+    private static final Pattern NO_NEWER_EVENTS = Pattern.compile("FROM e IN events WHERE"
+            + " (?:e\\.subject STARTS WITH '/'|\\(e\\.subject == '([^']*)' OR e\\.subject STARTS WITH '\\1/'\\))"
+            + "(?: AND \\(e\\.id AS INT\\) > (\\d+))? PROJECT INTO COUNT\\(\\) == 0");
+
+    private final EventLog eventLog;
+    private final ObjectMapper objectMapper;
+    private final EventSource eventSource;
+    private final EventTypeResolver eventTypeResolver;
+    private final EventDataMarshaller eventDataMarshaller;
+    private final EventUpcasters eventUpcasters;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private String headHash;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param eventLog the log to store events in
+     * @param objectMapper the mapper used to encode {@link Event#data()} for hashing
+     * @param eventSource the source for published events
+     * @param eventTypeResolver the resolver for event types
+     * @param eventDataMarshaller the marshaller for event data
+     * @param eventUpcasters the upcasters applied to events read
+     */
+    public EmbeddedEventStore(
+            EventLog eventLog,
+            ObjectMapper objectMapper,
+            EventSource eventSource,
+            EventTypeResolver eventTypeResolver,
+            EventDataMarshaller eventDataMarshaller,
+            EventUpcasters eventUpcasters) {
+        this.eventLog = eventLog;
+        this.objectMapper = objectMapper;
+        this.eventSource = eventSource;
+        this.eventTypeResolver = eventTypeResolver;
+        this.eventDataMarshaller = eventDataMarshaller;
+        this.eventUpcasters = eventUpcasters;
+
+        long headId = eventLog.headId();
+        List<Event> head = new ArrayList<>(1);
+        eventLog.read("/", true, headId - 1, headId, head::add);
+        this.headHash = head.isEmpty() ? GENESIS_HASH : head.get(0).hash();
+    }
+
+    private RawCallback forRawEvent(Event event) {
+        return EventRepository.rawCallback(event, eventTypeResolver, eventDataMarshaller, eventUpcasters);
+    }
+
+    @Override
+    public void consumeRaw(ClientRequestor clientRequestor, BiConsumer<RawCallback, Event> eventConsumer) {
+        Consumer<Event> consumer = event -> eventConsumer.accept(forRawEvent(event), event);
+        if (clientRequestor instanceof ClientRequestor.Read read) {
+            read(read.subject(), read.options(), consumer);
+        } else if (clientRequestor instanceof ClientRequestor.Observe observe) {
+            observe(observe.subject(), observe.options(), consumer);
+        } else {
+            throw new CqrsFrameworkException.NonTransientException(
+                    "unsupported client requestor for embedded event store: " + clientRequestor);
+        }
+    }
+
+    private void read(String subject, Set<Option> options, Consumer<Event> eventConsumer) {
+        Query query = Query.of(options, eventLog);
+        if (query.lowerBoundExclusive() >= query.upperBoundInclusive()) {
+            return;
+        }
+
+        if (query.antiChronological()) {
+            List<Event> events = new ArrayList<>();
+            eventLog.read(
+                    subject,
+                    query.recursive(),
+                    query.lowerBoundExclusive(),
+                    query.upperBoundInclusive(),
+                    events::add);
+            Collections.reverse(events);
+            events.forEach(eventConsumer);
+        } else {
+            eventLog.read(
+                    subject,
+                    query.recursive(),
+                    query.lowerBoundExclusive(),
+                    query.upperBoundInclusive(),
+                    eventConsumer);
+        }
+    }
+
+    private void observe(String subject, Set<Option> options, Consumer<Event> eventConsumer) {
+        Query query = Query.of(options, eventLog);
+        long lowerBoundExclusive = query.upperBoundInclusive() < 0 ? eventLog.headId() : query.lowerBoundExclusive();
+        while (true) {
+            long headId = eventLog.headId();
+            if (headId > lowerBoundExclusive) {
+                eventLog.read(subject, query.recursive(), lowerBoundExclusive, headId, eventConsumer);
+                lowerBoundExclusive = headId;
+            }
+
+            lock.lock();
+            try {
+                while (eventLog.headId() == headId) {
+                    appended.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientInterruptedException("observation interrupted", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Event> publish(Consumer<EventPublisher> handler, List<Precondition> additionalPreconditions) {
+        var capturer = new EventCapturer();
+
+        handler.accept(capturer);
+
+        return publish(capturer.getEvents(), additionalPreconditions);
+    }
+
+    @Override
+    public List<Event> publish(List<CapturedEvent> events, List<Precondition> additionalPreconditions) {
+        List<Precondition> preconditions = new ArrayList<>(additionalPreconditions);
+        events.forEach(e -> preconditions.addAll(e.preconditions()));
+
+        List<Map<String, ?>> data = events.stream()
+                .<Map<String, ?>>map(e -> eventDataMarshaller.serialize(new EventData<>(e.metaData(), e.event())))
+                .toList();
+
+        lock.lock();
+        try {
+            preconditions.forEach(this::check);
+
+            // all events are created prior to appending them as one unit, so that failures leave the log unmodified
+            List<Event> published = new ArrayList<>(events.size());
+            long id = eventLog.headId();
+            String predecessorHash = headHash;
+            Instant time = Instant.now();
+            for (int i = 0; i < events.size(); i++) {
+                CapturedEvent captured = events.get(i);
+                String eventId = Long.toString(++id);
+                String type = eventTypeResolver.getEventType(captured.event().getClass());
+                String hash = hash(
+                        predecessorHash, eventSource.source(), captured.subject(), type, data.get(i), eventId, time);
+                published.add(new Event(
+                        eventSource.source(),
+                        captured.subject(),
+                        type,
+                        data.get(i),
+                        SPEC_VERSION,
+                        eventId,
+                        time,
+                        DATA_CONTENT_TYPE,
+                        hash,
+                        predecessorHash));
+                predecessorHash = hash;
+            }
+            eventLog.append(published);
+            headHash = predecessorHash;
+            appended.signalAll();
+            return published;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void check(Precondition precondition) {
+        if (precondition instanceof Precondition.SubjectIsPristine p) {
+            if (eventLog.latestId(p.subject()) >= 0) {
+                throw new ConcurrencyException("subject is not pristine: " + p.subject());
+            }
+        } else if (precondition instanceof Precondition.SubjectIsPopulated p) {
+            if (eventLog.latestId(p.subject()) < 0) {
+                throw new ConcurrencyException("subject is not populated: " + p.subject());
+            }
+        } else if (precondition instanceof Precondition.SubjectIsOnEventId p) {
+            if (eventLog.latestId(p.subject()) != IdUtil.fromEventId(p.eventId())) {
+                throw new ConcurrencyException("subject is not on event id " + p.eventId() + ": " + p.subject());
+            }
+        } else if (precondition instanceof Precondition.EventQlQueryIsTrue p) {
+            Matcher m = NO_NEWER_EVENTS.matcher(p.query().queryString());
+            if (!m.matches()) {
+                throw new CqrsFrameworkException.NonTransientException(
+                        "unsupported EventQL precondition for embedded event store: " + precondition);
+            }
+            String subject = m.group(1) != null ? m.group(1) : "/";
+            long latestId = m.group(2) != null ? Long.parseLong(m.group(2)) : -1;
+            if (eventLog.latestIdRecursive(subject) > latestId) {
+                throw new ConcurrencyException("subject hierarchy contains newer events: " + subject);
+            }
+        } else {
+            throw new CqrsFrameworkException.NonTransientException(
+                    "unsupported precondition for embedded event store: " + precondition);
+        }
+    }
+
+    private String hash(
+            String predecessorHash,
+            String source,
+            String subject,
+            String type,
+            Map<String, ?> data,
+            String id,
+            Instant time) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : List.of(
+                    predecessorHash, id, time.toString(), source, subject, type, SPEC_VERSION, DATA_CONTENT_TYPE)) {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update(objectMapper.writeValueAsBytes(data));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JacksonException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to hash event data: " + data, e);
+        }
+    }
+
+    private record Query(
+            boolean recursive, boolean antiChronological, long lowerBoundExclusive, long upperBoundInclusive) {
+
+        static Query of(Set<Option> options, EventLog eventLog) {
+            boolean recursive = false;
+            boolean antiChronological = false;
+            long lowerBoundExclusive = -1;
+            long upperBoundInclusive = Long.MAX_VALUE;
+            for (Option option : options) {
+                if (option instanceof Option.Recursive) {
+                    recursive = true;
+                } else if (option instanceof Option.Order o) {
+                    antiChronological = o.type() == Option.Order.Type.ANTICHRONOLOGICAL;
+                } else if (option instanceof Option.LowerBoundExclusive o) {
+                    lowerBoundExclusive = Math.max(lowerBoundExclusive, IdUtil.fromEventId(o.id()));
+                } else if (option instanceof Option.LowerBoundInclusive o) {
+                    lowerBoundExclusive = Math.max(lowerBoundExclusive, IdUtil.fromEventId(o.id()) - 1);
+                } else if (option instanceof Option.UpperBoundInclusive o) {
+                    upperBoundInclusive = Math.min(upperBoundInclusive, IdUtil.fromEventId(o.id()));
+                } else if (option instanceof Option.UpperBoundExclusive o) {
+                    upperBoundInclusive = Math.min(upperBoundInclusive, IdUtil.fromEventId(o.id()) - 1);
+                } else if (option instanceof Option.FromLatestEvent o) {
+                    Event latest = eventLog.latest(o.subject(), e -> e.type().equals(o.type()));
+                    if (latest != null) {
+                        lowerBoundExclusive = Math.max(lowerBoundExclusive, IdUtil.fromEventId(latest.id()) - 1);
+                    } else if (o.ifEventIsMissing() == Option.FromLatestEvent.IfEventIsMissing.READ_NOTHING) {
+                        upperBoundInclusive = -1;
+                    }
+                }
+            }
+            return new Query(recursive, antiChronological, lowerBoundExclusive, upperBoundInclusive);
+        }
+    }
+}
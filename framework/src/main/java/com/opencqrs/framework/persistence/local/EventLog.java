@@ -0,0 +1,413 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only {@link Event} log stored within memory-mapped segment files. Events must be appended in ascending
+ * {@link Event#id()} order and are indexed by position and {@link Event#subject()} in memory, allowing for efficient
+ * sequential reads of single subjects, subject hierarchies, or the whole log, optionally bounded by event ids. Subjects
+ * are indexed in sorted order, so that reading a subject hierarchy only visits the subjects within it.
+ *
+ * <p>Each record consists of its length, a CRC32 checksum, and the encoded event. The length is written last, so that
+ * a record, or a {@linkplain #append(List) batch of records}, becomes visible atomically. Upon construction existing
+ * segment files are scanned to rebuild the in-memory indexes, truncating the log at the first incomplete or corrupt
+ * record, e.g. caused by a crash. Records are {@linkplain #flush() flushed} to disk upon {@link #close()} or explicit
+ * request only, relying on the operating system otherwise.
+ *
+ * <p>{@code this} is safe to use with a single writer and multiple concurrent readers.
+ */
+public class EventLog implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(EventLog.class.getName());
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final EventLogCodec codec;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Positions all = new Positions();
+    private final NavigableMap<String, Positions> subjects = new TreeMap<>();
+    private volatile long headId = -1;
+
+    /**
+     * Opens or creates an event log within the given directory.
+     *
+     * @param directory the directory containing the segment files, will be created if necessary
+     * @param segmentSize the size of newly created segment files in bytes
+     * @param objectMapper the mapper used to encode {@link Event#data()}
+     * @throws CqrsFrameworkException.TransientException if the segment files cannot be opened
+     */
+    public EventLog(Path directory, int segmentSize, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.codec = new EventLogCodec(objectMapper);
+
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(file -> file.getFileName().toString().endsWith(SEGMENT_FILE_SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+            for (int i = 0; i < files.size(); i++) {
+                if (!recover(files.get(i))) {
+                    for (Path corrupt : files.subList(i + 1, files.size())) {
+                        log.warning(() -> "deleting segment following corrupt record: " + corrupt);
+                        Files.delete(corrupt);
+                    }
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException("failed to open event log: " + directory, e);
+        }
+    }
+
+    private boolean recover(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        segments.add(segment);
+
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segment.capacity()) {
+            int length = segment.buffer.getInt(offset);
+            if (length == 0) {
+                // records of a batch, whose first record has not been completed, are discarded
+                clear(segment, offset);
+                break;
+            }
+            if (length < 0
+                    || offset + HEADER_SIZE + length > segment.capacity()
+                    || checksum(segment.buffer.slice(offset + HEADER_SIZE, length))
+                            != segment.buffer.getInt(offset + Integer.BYTES)) {
+                int corruptOffset = offset;
+                log.warning(() -> "truncating event log at corrupt record: " + file + "@" + corruptOffset);
+                clear(segment, offset);
+                segment.writeOffset = offset;
+                return false;
+            }
+            index(segments.size() - 1, segment, offset);
+            offset += HEADER_SIZE + length;
+        }
+        segment.writeOffset = offset;
+        return true;
+    }
+
+    private static void clear(Segment segment, int offset) {
+        for (int i = offset; i < segment.capacity(); i++) {
+            if (segment.buffer.get(i) != 0) {
+                segment.buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the {@link Event#id()} of the latest event within {@code this}.
+     *
+     * @return the latest event id or {@code null} if empty
+     */
+    public @Nullable String head() {
+        long id = headId;
+        return id < 0 ? null : Long.toString(id);
+    }
+
+    long headId() {
+        return headId;
+    }
+
+    /**
+     * Appends the given event, unless its {@link Event#id()} is not greater than the {@link #head()}.
+     *
+     * @param event the event to append
+     * @return {@code true} if appended, {@code false} if ignored
+     * @throws CqrsFrameworkException.TransientException if the event could not be written
+     */
+    public boolean append(Event event) {
+        return append(List.of(event)) == 1;
+    }
+
+    /**
+     * Appends the given events as one unit, ignoring events whose {@link Event#id()} is not greater than the
+     * {@link #head()}. All events are encoded and the space required is allocated within a single segment, before
+     * any record is written. The length of the first record is written last, so that none of the records is recovered
+     * upon a crash, before all of them have been written. The records become visible to readers at once.
+     *
+     * @param events the events to append in ascending {@link Event#id()} order
+     * @return the number of events appended
+     * @throws CqrsFrameworkException.TransientException if the events could not be written
+     */
+    public synchronized int append(List<Event> events) {
+        List<byte[]> encoded = new ArrayList<>(events.size());
+        int required = 0;
+        for (Event event : events) {
+            if (IdUtil.fromEventId(event.id()) > headId) {
+                byte[] record = codec.encode(event);
+                encoded.add(record);
+                required += HEADER_SIZE + record.length;
+            }
+        }
+        if (encoded.isEmpty()) {
+            return 0;
+        }
+
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.writeOffset + required > segment.capacity()) {
+            segment = createSegment(Math.max(segmentSize, required));
+        }
+
+        int[] offsets = new int[encoded.size()];
+        int offset = segment.writeOffset;
+        for (int i = 0; i < encoded.size(); i++) {
+            offsets[i] = offset;
+            segment.buffer.put(offset + HEADER_SIZE, encoded.get(i));
+            segment.buffer.putInt(offset + Integer.BYTES, checksum(ByteBuffer.wrap(encoded.get(i))));
+            offset += HEADER_SIZE + encoded.get(i).length;
+        }
+        for (int i = encoded.size() - 1; i >= 0; i--) {
+            segment.buffer.putInt(offsets[i], encoded.get(i).length);
+        }
+        segment.writeOffset = offset;
+
+        for (int i = 0; i < offsets.length; i++) {
+            index(segments.size() - 1, segment, offsets[i]);
+        }
+        return encoded.size();
+    }
+
+    private Segment createSegment(int capacity) {
+        Path file = directory.resolve(String.format("%010d%s", segments.size(), SEGMENT_FILE_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(
+                    file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException("failed to create segment: " + file, e);
+        }
+    }
+
+    private synchronized void index(int segmentNumber, Segment segment, int offset) {
+        long position = ((long) segmentNumber << 32) | offset;
+        all.add(position);
+        String subject = EventLogCodec.decodeSubject(segment.buffer, offset + HEADER_SIZE);
+        subjects.computeIfAbsent(subject, s -> new Positions()).add(position);
+        headId = EventLogCodec.decodeId(segment.buffer, offset + HEADER_SIZE);
+    }
+
+    /**
+     * Reads events in ascending {@link Event#id()} order.
+     *
+     * @param subject the subject to read from
+     * @param recursive whether events of sub-subjects shall be read as well
+     * @param lowerBoundExclusive events with ids less than or equal to this are skipped
+     * @param upperBoundInclusive events with ids greater than this are skipped
+     * @param eventConsumer consumer for the events read
+     */
+    public void read(
+            String subject,
+            boolean recursive,
+            long lowerBoundExclusive,
+            long upperBoundInclusive,
+            Consumer<Event> eventConsumer) {
+        long[] positions;
+        int size;
+        synchronized (this) {
+            if (recursive && subject.equals("/")) {
+                positions = all.values;
+                size = all.size;
+            } else if (recursive) {
+                String parent = subject.endsWith("/") ? subject.substring(0, subject.length() - 1) : subject;
+                List<Positions> matching = new ArrayList<>();
+                Positions own = subjects.get(subject);
+                if (own != null) {
+                    matching.add(own);
+                }
+                // sub-subjects sort contiguously between "<parent>/" and "<parent>0", as '0' follows '/'
+                subjects.subMap(parent + "/", true, parent + "0", false).forEach((s, p) -> {
+                    if (!s.equals(subject)) {
+                        matching.add(p);
+                    }
+                });
+                size = matching.stream().mapToInt(p -> p.size).sum();
+                positions = new long[size];
+                int i = 0;
+                for (Positions p : matching) {
+                    System.arraycopy(p.values, 0, positions, i, p.size);
+                    i += p.size;
+                }
+                Arrays.sort(positions);
+            } else {
+                Positions p = subjects.get(subject);
+                if (p == null) {
+                    return;
+                }
+                positions = p.values;
+                size = p.size;
+            }
+        }
+
+        for (int i = firstAfter(positions, size, lowerBoundExclusive); i < size; i++) {
+            Segment segment = segments.get((int) (positions[i] >>> 32));
+            int offset = (int) positions[i] + HEADER_SIZE;
+            if (EventLogCodec.decodeId(segment.buffer, offset) > upperBoundInclusive) {
+                return;
+            }
+            eventConsumer.accept(codec.decode(segment.buffer, offset));
+        }
+    }
+
+    /**
+     * Retrieves the latest event of the given subject matching the given predicate, excluding sub-subjects.
+     *
+     * @param subject the subject to search
+     * @param predicate the predicate to match
+     * @return the latest matching event or {@code null} if none
+     */
+    @Nullable Event latest(String subject, Predicate<Event> predicate) {
+        long[] positions;
+        int size;
+        synchronized (this) {
+            Positions p = subjects.get(subject);
+            if (p == null) {
+                return null;
+            }
+            positions = p.values;
+            size = p.size;
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            Segment segment = segments.get((int) (positions[i] >>> 32));
+            Event event = codec.decode(segment.buffer, (int) positions[i] + HEADER_SIZE);
+            if (predicate.test(event)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the id of the latest event of the given subject, excluding sub-subjects.
+     *
+     * @param subject the subject to search
+     * @return the latest event id or {@code -1} if the subject does not exist
+     */
+    synchronized long latestId(String subject) {
+        Positions p = subjects.get(subject);
+        if (p == null) {
+            return -1;
+        }
+        long position = p.values[p.size - 1];
+        return EventLogCodec.decodeId(segments.get((int) (position >>> 32)).buffer, (int) position + HEADER_SIZE);
+    }
+
+    /**
+     * Retrieves the id of the latest event within the hierarchy of the given subject, including sub-subjects.
+     *
+     * @param subject the subject to search
+     * @return the latest event id or {@code -1} if neither the subject nor any sub-subject exists
+     */
+    synchronized long latestIdRecursive(String subject) {
+        if (subject.equals("/")) {
+            return headId;
+        }
+        String parent = subject.endsWith("/") ? subject.substring(0, subject.length() - 1) : subject;
+        long latest = latestId(subject);
+        for (String s : subjects.subMap(parent + "/", true, parent + "0", false).keySet()) {
+            latest = Math.max(latest, latestId(s));
+        }
+        return latest;
+    }
+
+    private int firstAfter(long[] positions, int size, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Segment segment = segments.get((int) (positions[mid] >>> 32));
+            if (EventLogCodec.decodeId(segment.buffer, (int) positions[mid] + HEADER_SIZE) <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Forces all records to be written to disk. */
+    public void flush() {
+        segments.forEach(segment -> segment.buffer.force());
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warning(() -> "failed to close segment: " + e.getMessage());
+            }
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer) {
+        var crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+
+    /** Growable array of record positions. Elements below {@link #size} are never modified once added. */
+    private static final class Positions {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+}
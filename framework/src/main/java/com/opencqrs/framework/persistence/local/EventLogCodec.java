@@ -0,0 +1,113 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Binary {@link Event} representation used by {@link EventLog}. The numeric {@link Event#id()} is encoded first,
+ * followed by the {@link Event#subject()}, so that both can be decoded without decoding the whole event.
+ */
+final class EventLogCodec {
+
+    private final ObjectMapper objectMapper;
+
+    EventLogCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    byte[] encode(Event event) {
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(event.data());
+        } catch (JacksonException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to encode event data: " + event.id(), e);
+        }
+        byte[][] strings = {
+            bytes(event.subject()),
+            bytes(event.source()),
+            bytes(event.type()),
+            bytes(event.specVersion()),
+            bytes(event.dataContentType()),
+            bytes(event.hash()),
+            bytes(event.predecessorHash()),
+        };
+
+        int size = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + data.length;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + string.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(IdUtil.fromEventId(event.id()));
+        for (byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+        buffer.putLong(event.time().getEpochSecond());
+        buffer.putInt(event.time().getNano());
+        buffer.putInt(data.length).put(data);
+        return buffer.array();
+    }
+
+    static long decodeId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+
+    static String decodeSubject(ByteBuffer buffer, int offset) {
+        return string(buffer, offset + Long.BYTES);
+    }
+
+    Event decode(ByteBuffer buffer, int offset) {
+        int position = offset;
+        long id = buffer.getLong(position);
+        position += Long.BYTES;
+
+        String[] strings = new String[7];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = string(buffer, position);
+            position += Integer.BYTES + buffer.getInt(position);
+        }
+
+        Instant time = Instant.ofEpochSecond(buffer.getLong(position), buffer.getInt(position + Long.BYTES));
+        position += Long.BYTES + Integer.BYTES;
+
+        byte[] data = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, data);
+
+        Map<String, ?> decodedData;
+        try {
+            decodedData = objectMapper.readValue(data, Map.class);
+        } catch (JacksonException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to decode event data: " + id, e);
+        }
+
+        return new Event(
+                strings[1],
+                strings[0],
+                strings[2],
+                decodedData,
+                strings[3],
+                Long.toString(id),
+                time,
+                strings[4],
+                strings[5],
+                strings[6]);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
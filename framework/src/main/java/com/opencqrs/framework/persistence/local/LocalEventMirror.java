@@ -0,0 +1,105 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.ClientException;
+import com.opencqrs.esdb.client.EsdbClient;
+import com.opencqrs.esdb.client.Option;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps an {@link EventLog} up to date with all events stored within the event store, by
+ * {@linkplain EsdbClient#observe(String, Set, java.util.function.Consumer) observing} the root subject recursively,
+ * starting after the {@linkplain EventLog#head() mirrored head}. Observation is retried with a fixed interval upon any
+ * error, until {@linkplain #stop() stopped}.
+ *
+ * @see MirroringEventReader
+ */
+public class LocalEventMirror {
+
+    private static final Logger log = Logger.getLogger(LocalEventMirror.class.getName());
+
+    private final EsdbClient client;
+    private final EventLog eventLog;
+    private final Duration retryInterval;
+    private final AtomicReference<@Nullable ExecutorService> running = new AtomicReference<>();
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param client the client used to observe the event store
+     * @param eventLog the log to append observed events to
+     * @param retryInterval the interval to wait, before observation is resumed after errors
+     */
+    public LocalEventMirror(EsdbClient client, EventLog eventLog, Duration retryInterval) {
+        this.client = client;
+        this.eventLog = eventLog;
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * Starts mirroring using a single dedicated thread.
+     *
+     * @return a future to determine, when mirroring ends
+     */
+    public Future<?> start() {
+        var es = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "local-event-mirror"));
+        if (!running.compareAndSet(null, es)) {
+            es.shutdown();
+            throw new IllegalStateException("local event mirror already started");
+        }
+        log.info("starting local event mirror at head: " + eventLog.head());
+        return es.submit(this::run);
+    }
+
+    /** Stops mirroring, if running. */
+    public void stop() {
+        var es = running.getAndSet(null);
+        if (es != null) {
+            log.info("stopping local event mirror");
+            es.shutdownNow();
+        }
+    }
+
+    /**
+     * Determines whether {@code this} is running.
+     *
+     * @return {@code true} if running, {@code false} otherwise
+     */
+    public boolean isRunning() {
+        return running.get() != null;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Set<Option> options = new HashSet<>();
+                options.add(new Option.Recursive());
+                String head = eventLog.head();
+                if (head != null) {
+                    options.add(new Option.LowerBoundExclusive(head));
+                }
+                client.observe("/", options, eventLog::append);
+            } catch (ClientException.InterruptedException e) {
+                log.log(Level.INFO, "local event mirror interrupted, terminating", e);
+                return;
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "local event mirror failed, retrying in: " + retryInterval, e);
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    log.info("local event mirror interrupted, terminating");
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.IdUtil;
+import com.opencqrs.esdb.client.Option;
+import com.opencqrs.framework.persistence.EventReader;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link EventReader} implementation wrapping a delegate {@link EventReader}, e.g. an
+ * {@link com.opencqrs.framework.persistence.EventRepository}, in order to serve events from a local {@link EventLog}
+ * kept up to date by a {@link LocalEventMirror}.
+ *
+ * <p>{@link ClientRequestor.Read} and {@link ClientRequestor.Observe} requests are split into a local part, covering
+ * all events up to the current {@linkplain EventLog#head() mirrored head}, and a remote part for the tail, which is
+ * requested from the event store starting after the head. Requests using {@link Option.FromLatestEvent}, anti
+ * chronological order, or custom {@link ClientRequestor}s are passed to the delegate as is.
+ *
+ * <p>Both parts are processed within the delegate's {@link #consumeRaw(ClientRequestor, BiConsumer)}, so that
+ * upcasting, conversion, and error handling apply to local events as well.
+ */
+public class MirroringEventReader implements EventReader {
+
+    private final EventReader delegate;
+    private final EventLog eventLog;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param delegate the reader used for the remote part of requests
+     * @param eventLog the mirrored events
+     */
+    public MirroringEventReader(EventReader delegate, EventLog eventLog) {
+        this.delegate = delegate;
+        this.eventLog = eventLog;
+    }
+
+    @Override
+    public void consumeRaw(ClientRequestor clientRequestor, BiConsumer<RawCallback, Event> eventConsumer) {
+        ClientRequestor mirrored = clientRequestor;
+        if (clientRequestor instanceof ClientRequestor.Read read && isSupported(read.options())) {
+            mirrored = mirrored(read.subject(), read.options(), tail -> new ClientRequestor.Read(read.subject(), tail));
+        } else if (clientRequestor instanceof ClientRequestor.Observe observe && isSupported(observe.options())) {
+            mirrored = mirrored(
+                    observe.subject(), observe.options(), tail -> new ClientRequestor.Observe(observe.subject(), tail));
+        }
+        delegate.consumeRaw(mirrored, eventConsumer);
+    }
+
+    private ClientRequestor mirrored(String subject, Set<Option> options, Function<Set<Option>, ClientRequestor> tail) {
+        return (client, eventConsumer) -> {
+            String head = eventLog.head();
+            if (head == null) {
+                tail.apply(options).request(client, eventConsumer);
+                return;
+            }
+
+            long headId = IdUtil.fromEventId(head);
+            long lowerBoundExclusive = -1;
+            long upperBoundInclusive = Long.MAX_VALUE;
+            boolean recursive = false;
+            Set<Option> tailOptions = new HashSet<>();
+            for (Option option : options) {
+                switch (option) {
+                    case Option.LowerBoundExclusive o -> lowerBoundExclusive = IdUtil.fromEventId(o.id());
+                    case Option.LowerBoundInclusive o -> lowerBoundExclusive = IdUtil.fromEventId(o.id()) - 1;
+                    case Option.UpperBoundInclusive o -> {
+                        upperBoundInclusive = IdUtil.fromEventId(o.id());
+                        tailOptions.add(o);
+                    }
+                    case Option.UpperBoundExclusive o -> {
+                        upperBoundInclusive = IdUtil.fromEventId(o.id()) - 1;
+                        tailOptions.add(o);
+                    }
+                    case Option.Recursive o -> {
+                        recursive = true;
+                        tailOptions.add(o);
+                    }
+                    default -> tailOptions.add(option);
+                }
+            }
+
+            if (lowerBoundExclusive < headId) {
+                eventLog.read(
+                        subject, recursive, lowerBoundExclusive, Math.min(upperBoundInclusive, headId), eventConsumer);
+            }
+            if (upperBoundInclusive > headId) {
+                tailOptions.add(new Option.LowerBoundExclusive(Long.toString(Math.max(lowerBoundExclusive, headId))));
+                tail.apply(tailOptions).request(client, eventConsumer);
+            }
+        };
+    }
+
+    private static boolean isSupported(Set<Option> options) {
+        return options.stream()
+                .noneMatch(option -> switch (option) {
+                    case Option.FromLatestEvent ignored -> true;
+                    case Option.Order order -> order.type() == Option.Order.Type.ANTICHRONOLOGICAL;
+                    default -> false;
+                });
+    }
+}
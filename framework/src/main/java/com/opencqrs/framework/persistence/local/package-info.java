@@ -0,0 +1,5 @@
+/** Local, file-based event storage used for mirroring or embedding an event store. */
+@NullMarked
+package com.opencqrs.framework.persistence.local;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,135 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link EventDataMarshaller} implementation wrapping a delegate {@link EventDataMarshaller} in order to transparently
+ * compress large {@link EventData#payload()}s. Payloads of configurable event classes, whose JSON representation
+ * exceeds the configurable threshold, are stored as GZIP compressed, Base64 encoded string in place of the
+ * {@code payload}. Such events are marked using {@link #COMPRESSION_META_DATA_KEY} within the {@code metadata}, e.g.
+ * as follows:
+ *
+ * <pre>
+ *     {
+ *         "metadata": {
+ *             "opencqrs.compression": "gzip",
+ *             "userId": "345897345"
+ *         },
+ *         "payload": "H4sIAAAAAAAA/6tWyk..."
+ *     }
+ * </pre>
+ *
+ * <p>Marked events are inflated upon {@linkplain #deserialize(Map, Class) deserialization}, prior to delegation, while
+ * all other events are passed to the delegate as is. Hence, compression may be enabled for existing applications,
+ * while disabling it requires {@code this} to remain in place for reading previously compressed events.
+ */
+public class CompressingEventDataMarshaller implements EventDataMarshaller {
+
+    /** The {@code metadata} key marking compressed payloads. */
+    public static final String COMPRESSION_META_DATA_KEY = "opencqrs.compression";
+
+    private static final String GZIP = "gzip";
+
+    private final EventDataMarshaller delegate;
+    private final ObjectMapper objectMapper;
+    private final int threshold;
+    private final Set<Class<?>> eventClasses;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param delegate the marshaller used to (de-)serialize the uncompressed {@link EventData}
+     * @param objectMapper the mapper used to encode the serialized payload prior to compression
+     * @param threshold the minimum payload size in bytes, from which on payloads are compressed
+     * @param eventClasses the event classes (including sub-classes) eligible for compression, or an empty set if all
+     *     event classes are eligible
+     */
+    public CompressingEventDataMarshaller(
+            EventDataMarshaller delegate, ObjectMapper objectMapper, int threshold, Set<Class<?>> eventClasses) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.threshold = threshold;
+        this.eventClasses = eventClasses;
+    }
+
+    @Override
+    public <E> Map<String, ?> serialize(EventData<E> data) {
+        Map<String, ?> serialized = delegate.serialize(data);
+        if (!isEligible(data.payload())) {
+            return serialized;
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(serialized.get("payload"));
+            if (json.length < threshold) {
+                return serialized;
+            }
+
+            Map<String, Object> metaData = new HashMap<>();
+            if (serialized.get("metadata") instanceof Map<?, ?> m) {
+                metaData.putAll((Map<String, ?>) m);
+            }
+            metaData.put(COMPRESSION_META_DATA_KEY, GZIP);
+
+            Map<String, Object> result = new HashMap<>(serialized);
+            result.put("metadata", metaData);
+            result.put("payload", Base64.getEncoder().encodeToString(compress(json)));
+            return result;
+        } catch (JacksonException | IOException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to compress: " + data, e);
+        }
+    }
+
+    @Override
+    public <E> EventData<E> deserialize(Map<String, ?> json, Class<E> clazz) {
+        if (!(json.get("metadata") instanceof Map<?, ?> metaData)
+                || !GZIP.equals(metaData.get(COMPRESSION_META_DATA_KEY))
+                || !(json.get("payload") instanceof String payload)) {
+            return delegate.deserialize(json, clazz);
+        }
+
+        try {
+            Map<String, Object> inflatedMetaData = new HashMap<>((Map<String, ?>) metaData);
+            inflatedMetaData.remove(COMPRESSION_META_DATA_KEY);
+
+            Map<String, Object> inflated = new HashMap<>(json);
+            inflated.put("metadata", inflatedMetaData);
+            inflated.put("payload", objectMapper.readValue(decompress(Base64.getDecoder().decode(payload)), Map.class));
+            return delegate.deserialize(inflated, clazz);
+        } catch (JacksonException | IOException | IllegalArgumentException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to decompress: " + json, e);
+        }
+    }
+
+    private boolean isEligible(Object payload) {
+        return eventClasses.isEmpty() || eventClasses.stream().anyMatch(c -> c.isInstance(payload));
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        var bytes = new ByteArrayOutputStream(data.length / 4);
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
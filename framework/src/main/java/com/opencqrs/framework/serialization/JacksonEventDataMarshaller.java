@@ -2,6 +2,7 @@
 package com.opencqrs.framework.serialization;
 
 import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.metadata.CompactMetaData;
 import java.util.Map;
 import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
@@ -31,7 +32,7 @@ public class JacksonEventDataMarshaller implements EventDataMarshaller {
         try {
             JacksonData<E> deserialized = objectMapper.convertValue(
                     json, objectMapper.getTypeFactory().constructParametricType(JacksonData.class, clazz));
-            return new EventData<>(deserialized.metadata(), deserialized.payload());
+            return new EventData<>(CompactMetaData.of(deserialized.metadata()), deserialized.payload());
         } catch (JacksonException e) {
             throw new CqrsFrameworkException.NonTransientException("failed to deserialize: " + json, e);
         }
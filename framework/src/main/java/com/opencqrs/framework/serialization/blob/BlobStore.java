@@ -0,0 +1,32 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+
+/**
+ * Interface specifying operations for storing and retrieving immutable binary content, referred to as <i>blobs</i>,
+ * outside the event store.
+ *
+ * @see ClaimCheckEventDataMarshaller
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the given content, unless already present.
+     *
+     * @param content the content to be stored
+     * @return the reference to be used for {@linkplain #get(String) retrieval}
+     * @throws CqrsFrameworkException.TransientException in case of (potentially recoverable) storage errors
+     */
+    String put(byte[] content) throws CqrsFrameworkException.TransientException;
+
+    /**
+     * Retrieves the content stored for the given reference.
+     *
+     * @param reference the reference as returned from {@link #put(byte[])}
+     * @return the stored content
+     * @throws CqrsFrameworkException.TransientException in case of (potentially recoverable) storage errors
+     * @throws CqrsFrameworkException.NonTransientException if no content is stored for the given reference
+     */
+    byte[] get(String reference) throws CqrsFrameworkException;
+}
@@ -0,0 +1,183 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.EventDataMarshaller;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link EventDataMarshaller} implementation wrapping a delegate {@link EventDataMarshaller} in order to offload large
+ * {@link EventData#payload()}s to a {@link BlobStore}, also known as <i>claim check</i>. Payloads, whose JSON
+ * representation exceeds the configurable threshold, are {@linkplain BlobStore#put(byte[]) stored} as blob, while only
+ * the blob reference is kept within the {@code metadata} using {@link #CLAIM_CHECK_META_DATA_KEY}, e.g. as follows:
+ *
+ * <pre>
+ *     {
+ *         "metadata": {
+ *             "opencqrs.claim-check": "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+ *             "userId": "345897345"
+ *         },
+ *         "payload": {}
+ *     }
+ * </pre>
+ *
+ * <p>Hence, the offloaded payloads are neither transferred from the event store, nor resolved from the
+ * {@link BlobStore}, unless the event is actually {@linkplain #deserialize(Map, Class) deserialized}. Resolved payloads
+ * are kept within an LRU cache, bounded by the total number of payload bytes cached. Cached payloads serialized again
+ * unchanged, e.g. by {@link com.opencqrs.framework.upcaster.AbstractEventDataMarshallingEventUpcaster}s, refer to the
+ * existing blob instead of storing it again.
+ *
+ * <p><strong>Blobs are stored prior to publishing the referring events and are never deleted by {@code this}. Failed
+ * event publications, hence, may leave orphaned blobs within the {@link BlobStore}.</strong>
+ */
+public class ClaimCheckEventDataMarshaller implements EventDataMarshaller {
+
+    /** The {@code metadata} key referring to offloaded payloads. */
+    public static final String CLAIM_CHECK_META_DATA_KEY = "opencqrs.claim-check";
+
+    private final EventDataMarshaller delegate;
+    private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    private final int threshold;
+    private final PayloadCache cache;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param delegate the marshaller used to (de-)serialize the resolved {@link EventData}
+     * @param objectMapper the mapper used to encode the serialized payload prior to offloading
+     * @param blobStore the store for offloaded payloads
+     * @param threshold the minimum payload size in bytes, from which on payloads are offloaded
+     * @param cacheCapacity the maximum total size in bytes of resolved payloads to cache
+     */
+    public ClaimCheckEventDataMarshaller(
+            EventDataMarshaller delegate,
+            ObjectMapper objectMapper,
+            BlobStore blobStore,
+            int threshold,
+            long cacheCapacity) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.blobStore = blobStore;
+        this.threshold = threshold;
+        this.cache = new PayloadCache(cacheCapacity);
+    }
+
+    @Override
+    public <E> Map<String, ?> serialize(EventData<E> data) {
+        Map<String, ?> serialized = delegate.serialize(data);
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(serialized.get("payload"));
+        } catch (JacksonException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to serialize payload: " + data, e);
+        }
+        if (json.length < threshold) {
+            return serialized;
+        }
+
+        // payloads resolved before and serialized unchanged, e.g. when upcasting, refer to the existing blob
+        String contentHash = ContentHash.of(json);
+        String reference = cache.reference(contentHash);
+        if (reference == null) {
+            reference = blobStore.put(json);
+            cache.put(reference, contentHash, json);
+        }
+
+        Map<String, Object> metaData = new HashMap<>();
+        if (serialized.get("metadata") instanceof Map<?, ?> m) {
+            metaData.putAll((Map<String, ?>) m);
+        }
+        metaData.put(CLAIM_CHECK_META_DATA_KEY, reference);
+
+        Map<String, Object> result = new HashMap<>(serialized);
+        result.put("metadata", metaData);
+        result.put("payload", Map.of());
+        return result;
+    }
+
+    @Override
+    public <E> EventData<E> deserialize(Map<String, ?> json, Class<E> clazz) {
+        if (!(json.get("metadata") instanceof Map<?, ?> metaData)
+                || !(metaData.get(CLAIM_CHECK_META_DATA_KEY) instanceof String reference)) {
+            return delegate.deserialize(json, clazz);
+        }
+
+        byte[] payload = cache.get(reference);
+        if (payload == null) {
+            payload = blobStore.get(reference);
+            cache.put(reference, ContentHash.of(payload), payload);
+        }
+
+        Map<String, Object> resolvedMetaData = new HashMap<>((Map<String, ?>) metaData);
+        resolvedMetaData.remove(CLAIM_CHECK_META_DATA_KEY);
+
+        Map<String, Object> resolved = new HashMap<>(json);
+        resolved.put("metadata", resolvedMetaData);
+        try {
+            resolved.put("payload", objectMapper.readValue(payload, Object.class));
+        } catch (JacksonException e) {
+            throw new CqrsFrameworkException.NonTransientException("failed to resolve payload: " + reference, e);
+        }
+        return delegate.deserialize(resolved, clazz);
+    }
+
+    /**
+     * LRU cache of resolved payloads, evicting the least recently used ones exceeding the total size in bytes. Cached
+     * payloads are additionally indexed by their content hash, to look up the references of unchanged payloads.
+     */
+    private static final class PayloadCache {
+
+        private final long capacity;
+        private final LinkedHashMap<String, Entry> payloads = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, String> references = new HashMap<>();
+        private long size;
+
+        PayloadCache(long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized byte @Nullable [] get(String reference) {
+            Entry entry = payloads.get(reference);
+            return entry != null ? entry.payload() : null;
+        }
+
+        synchronized @Nullable String reference(String contentHash) {
+            String reference = references.get(contentHash);
+            if (reference != null) {
+                // marks the payload as recently used
+                payloads.get(reference);
+            }
+            return reference;
+        }
+
+        synchronized void put(String reference, String contentHash, byte[] payload) {
+            if (payload.length > capacity) {
+                return;
+            }
+            Entry previous = payloads.put(reference, new Entry(contentHash, payload));
+            if (previous != null) {
+                size -= previous.payload().length;
+                references.remove(previous.contentHash(), reference);
+            }
+            references.put(contentHash, reference);
+            size += payload.length;
+            var eldest = payloads.entrySet().iterator();
+            while (size > capacity) {
+                var evicted = eldest.next();
+                size -= evicted.getValue().payload().length;
+                references.remove(evicted.getValue().contentHash(), evicted.getKey());
+                eldest.remove();
+            }
+        }
+
+        private record Entry(String contentHash, byte[] payload) {}
+    }
+}
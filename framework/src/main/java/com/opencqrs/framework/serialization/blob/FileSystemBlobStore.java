@@ -0,0 +1,74 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link BlobStore} implementation storing blobs as files within a configurable directory. Blobs are addressed by
+ * their SHA-256 content hash and distributed across sub-directories using the first two characters of the hash. Files
+ * are written to a temporary file first and atomically moved to their final location, so that concurrent readers
+ * never observe partially written blobs.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private final Path directory;
+
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param directory the base directory for storing blobs, which will be created if necessary
+     */
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String put(byte[] content) {
+        String reference = ContentHash.of(content);
+        Path target = resolve(reference);
+        if (Files.exists(target)) {
+            return reference;
+        }
+
+        Path shard = directory.resolve(reference.substring(0, 2));
+        try {
+            Files.createDirectories(shard);
+            Path temp = Files.createTempFile(shard, reference, ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // stored concurrently with identical content
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException("failed to store blob: " + reference, e);
+        }
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) {
+        try {
+            return Files.readAllBytes(resolve(reference));
+        } catch (NoSuchFileException e) {
+            throw new CqrsFrameworkException.NonTransientException("blob not found: " + reference, e);
+        } catch (IOException e) {
+            throw new CqrsFrameworkException.TransientException("failed to read blob: " + reference, e);
+        }
+    }
+
+    private Path resolve(String reference) {
+        if (reference.length() < 3 || !reference.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new CqrsFrameworkException.NonTransientException("invalid blob reference: " + reference);
+        }
+        return directory.resolve(reference.substring(0, 2)).resolve(reference);
+    }
+}
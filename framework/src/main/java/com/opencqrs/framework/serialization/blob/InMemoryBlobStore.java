@@ -0,0 +1,32 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link BlobStore} implementation, primarily intended as local stand-in for object storage during testing
+ * and development. <strong>Stored blobs will be lost upon restart, rendering events referring to them
+ * unreadable.</strong>
+ */
+public final class InMemoryBlobStore implements BlobStore {
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public String put(byte[] content) {
+        String reference = ContentHash.of(content);
+        blobs.putIfAbsent(reference, content.clone());
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) {
+        byte[] content = blobs.get(reference);
+        if (content == null) {
+            throw new CqrsFrameworkException.NonTransientException("blob not found: " + reference);
+        }
+        return content.clone();
+    }
+}
@@ -0,0 +1,5 @@
+/** Contains components for offloading large event payloads to external blob storage. */
+@NullMarked
+package com.opencqrs.framework.serialization.blob;
+
+import org.jspecify.annotations.NullMarked;
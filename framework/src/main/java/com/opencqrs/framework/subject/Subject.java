@@ -0,0 +1,46 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.subject;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Static helper methods for navigating the hierarchy of {@link com.opencqrs.esdb.client.Event#subject()} paths, such
+ * as {@literal /books/4711/pages/42}, without allocating intermediate representations.
+ */
+public final class Subject {
+
+    private Subject() {}
+
+    /**
+     * Checks whether the given subject path equals or is located underneath the given ancestor path within the
+     * hierarchy, e.g. {@literal /books/1/pages/2} is located underneath {@literal /books/1}, whereas
+     * {@literal /books/10} is not.
+     *
+     * @param subject the subject path
+     * @param ancestor the potential ancestor path
+     * @return {@code true} if {@code subject} is the ancestor or one of its descendants
+     */
+    public static boolean isSameOrDescendantOf(String subject, String ancestor) {
+        if (!subject.startsWith(ancestor)) {
+            return false;
+        }
+        return subject.length() == ancestor.length()
+                || ancestor.endsWith("/")
+                || subject.charAt(ancestor.length()) == '/';
+    }
+
+    /**
+     * Retrieves the parent path of the given subject path, i.e. {@literal /books/4711} for
+     * {@literal /books/4711/pages}.
+     *
+     * @param subject the subject path
+     * @return the parent path or {@code null} if the subject is the root {@literal /} or not absolute
+     */
+    public static @Nullable String parent(String subject) {
+        int separator = subject.lastIndexOf('/');
+        if (separator < 0 || subject.length() == 1) {
+            return null;
+        }
+        return separator == 0 ? "/" : subject.substring(0, separator);
+    }
+}
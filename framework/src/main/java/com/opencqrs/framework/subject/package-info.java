@@ -0,0 +1,5 @@
+/** Contains subject related classes. */
+@NullMarked
+package com.opencqrs.framework.subject;
+
+import org.jspecify.annotations.NullMarked;
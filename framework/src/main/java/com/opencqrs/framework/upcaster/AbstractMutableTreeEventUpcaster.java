@@ -0,0 +1,66 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.upcaster;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.EventDataMarshaller;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Template implementation of {@link EventUpcaster} that allows subclasses to upcast {@link EventData#metaData()} and
+ * {@link EventData#payload()} by modifying mutable JSON-like {@link Map}s <i>in-place</i>.
+ *
+ * <p>In contrast to {@link AbstractEventDataMarshallingEventUpcaster} the mutable representation is shared across a
+ * chain of {@code this} upcasters using the same {@link EventDataMarshaller}. Hence, {@link Event#data()} is
+ * {@linkplain EventDataMarshaller#deserialize(Map, Class) deserialized} only once by the first upcaster within the
+ * chain and {@linkplain EventDataMarshaller#serialize(EventData) serialized} only once, when the upcasted
+ * {@link Event#data()} is accessed by non-tree upcasters or the application.
+ *
+ * <p>Subclasses are restricted to one-to-one upcasting, as the mutable representation cannot be shared between
+ * multiple resulting events. {@link AbstractEventDataMarshallingEventUpcaster} should be used to drop or split events.
+ *
+ * @see #doUpcast(Event, Map, Map)
+ */
+public abstract class AbstractMutableTreeEventUpcaster implements EventUpcaster {
+
+    private final EventDataMarshaller eventDataMarshaller;
+
+    /**
+     * Constructor for implementations of {@code this}.
+     *
+     * @param eventDataMarshaller the marshaller used to extract {@link EventData} from {@link Event#data()}
+     */
+    protected AbstractMutableTreeEventUpcaster(EventDataMarshaller eventDataMarshaller) {
+        this.eventDataMarshaller = eventDataMarshaller;
+    }
+
+    @Override
+    public final Stream<Result> upcast(Event event) {
+        MutableTreeEventData tree;
+        if (event.data() instanceof MutableTreeEventData previous
+                && previous.eventDataMarshaller() == eventDataMarshaller) {
+            tree = previous;
+        } else {
+            EventData<Map> deserialized = eventDataMarshaller.deserialize(event.data(), Map.class);
+            tree = MutableTreeEventData.copyOf(
+                    eventDataMarshaller, deserialized.metaData(), (Map<String, ?>) deserialized.payload());
+        }
+
+        String type = doUpcast(event, tree.metaData(), tree.payload());
+        return Stream.of(new Result(type, tree.detach()));
+    }
+
+    /**
+     * Template method to be implemented by subclasses to upcast the given meta-data and payload in-place. Both maps,
+     * including any nested maps and lists, are mutable and must neither be retained nor shared with other objects, as
+     * they will be passed to subsequent upcasters within the chain.
+     *
+     * @param event the event to be upcasted, whose {@link Event#data()} must not be accessed for performance reasons
+     * @param metaData the mutable meta-data
+     * @param payload the mutable payload as JSON-like map
+     * @return the upcasted {@link Event#type()}
+     * @see EventUpcaster#upcast(Event)
+     */
+    protected abstract String doUpcast(Event event, Map<String, Object> metaData, Map<String, Object> payload);
+}
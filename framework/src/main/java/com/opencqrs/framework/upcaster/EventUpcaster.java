@@ -5,6 +5,7 @@ import com.opencqrs.esdb.client.Event;
 import com.opencqrs.framework.serialization.EventData;
 import com.opencqrs.framework.serialization.EventDataMarshaller;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -16,10 +17,12 @@ import java.util.stream.Stream;
  * <p><strong>This interface (and direct implementations) operate on the low-level {@link Event} and hence may have to
  * use an additional {@link EventDataMarshaller} if {@link Event#data()} needs to be upcasted.
  * {@link AbstractEventDataMarshallingEventUpcaster} may be inherited to gain access to {@link EventData} based
- * upcasting.</strong>
+ * upcasting, {@link AbstractMutableTreeEventUpcaster} for in-place upcasting shared across a chain of
+ * upcasters.</strong>
  *
  * @see EventUpcasters
  * @see AbstractEventDataMarshallingEventUpcaster
+ * @see AbstractMutableTreeEventUpcaster
  */
 public interface EventUpcaster {
 
@@ -32,6 +35,33 @@ public interface EventUpcaster {
      */
     boolean canUpcast(Event event);
 
+    /**
+     * Declares the {@link Event#type()}s {@code this} upcaster is {@linkplain #canUpcast(Event) capable} of upcasting,
+     * if known in advance. This allows {@link EventUpcasters} to index upcasters by type, so that
+     * {@link #canUpcast(Event)} will only be consulted for events of a declared type. Declared source types must be
+     * unique across all upcasters registered with the same {@link EventUpcasters}.
+     *
+     * <p>By default, an empty set is returned, stating that {@code this} upcaster may be relevant for any
+     * {@link Event#type()}, hence {@link #canUpcast(Event)} will be consulted for every event.
+     *
+     * @return the set of event types {@code this} may upcast, or an empty set if unknown
+     */
+    default Set<String> sourceTypes() {
+        return Set.of();
+    }
+
+    /**
+     * Declares the {@link Event#type()}s {@code this} upcaster may produce as {@link Result#type()}, if known in
+     * advance. This allows {@link EventUpcasters} to detect cyclically dependent upcasters upon construction. Upcasters
+     * producing their own source type (e.g. only migrating {@link Event#data()}) are not considered cyclic, but need
+     * to distinguish already upcasted events within {@link #canUpcast(Event)}.
+     *
+     * @return the set of event types {@code this} may produce, or an empty set if unknown or none
+     */
+    default Set<String> targetTypes() {
+        return Set.of();
+    }
+
     /**
      * Upcasts the given event to a stream of {@link Result}s. This allows implementations to:
      *
@@ -1,89 +1,161 @@
 /* Copyright (C) 2025 OpenCQRS and contributors */
 package com.opencqrs.framework.upcaster;
 
-import static java.util.stream.Collectors.toCollection;
-
 import com.opencqrs.esdb.client.Event;
 import com.opencqrs.framework.CqrsFrameworkException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Implementation class delegating to a list of configurable {@link EventUpcaster}s combining the
  * {@link EventUpcaster.Result}s appropriately.
  *
+ * <p>Upcasters {@linkplain EventUpcaster#sourceTypes() declaring their source types} are indexed by type upon
+ * construction, so that events of any other type do not need to be checked against them. Ambiguous source types and
+ * cyclic dependencies between {@linkplain EventUpcaster#targetTypes() declared target types} are detected upon
+ * construction, as well.
+ *
  * @see #upcast(Event)
  */
 public class EventUpcasters {
 
-    private final List<EventUpcaster> upcasters;
+    private final Map<String, EventUpcaster> upcastersByType;
+    private final List<EventUpcaster> untypedUpcasters;
 
+    /**
+     * Creates a pre-configured instance of {@code this}.
+     *
+     * @param upcasters the upcasters to delegate to
+     * @throws IllegalStateException if multiple upcasters declare the same {@linkplain EventUpcaster#sourceTypes()
+     *     source type} or the {@linkplain EventUpcaster#targetTypes() declared target types} are cyclically dependent
+     */
     public EventUpcasters(List<EventUpcaster> upcasters) {
-        this.upcasters = upcasters;
+        this.upcastersByType = new HashMap<>();
+        this.untypedUpcasters = new ArrayList<>();
+
+        Set<String> ambiguousTypes = new HashSet<>();
+        upcasters.forEach(upcaster -> {
+            Set<String> sourceTypes = upcaster.sourceTypes();
+            if (sourceTypes.isEmpty()) {
+                untypedUpcasters.add(upcaster);
+            } else {
+                sourceTypes.forEach(type -> {
+                    if (upcastersByType.putIfAbsent(type, upcaster) != null) {
+                        ambiguousTypes.add(type);
+                    }
+                });
+            }
+        });
+        if (!ambiguousTypes.isEmpty()) {
+            throw new IllegalStateException("ambiguous upcasters found for event types: " + ambiguousTypes);
+        }
+
+        Set<String> visited = new HashSet<>();
+        upcastersByType.keySet().forEach(type -> detectCycle(type, new ArrayList<>(), visited));
     }
 
     public EventUpcasters(EventUpcaster... upcasters) {
         this(Arrays.stream(upcasters).toList());
     }
 
-    private boolean upcastSingleEvent(Event event, List<Event> result) {
-        long canUpcastCount =
-                upcasters.stream().filter(upcaster -> upcaster.canUpcast(event)).count();
-        if (canUpcastCount > 1) {
-            throw new CqrsFrameworkException.NonTransientException("ambiguous upcasters found for: " + event);
-        } else if (canUpcastCount == 0) {
-            result.add(event);
-            return false;
+    private void detectCycle(String type, List<String> path, Set<String> visited) {
+        if (path.contains(type)) {
+            path.add(type);
+            throw new IllegalStateException("cyclic upcasters found for event types: " + String.join(" -> ", path));
+        }
+        if (!visited.add(type)) {
+            return;
+        }
+
+        EventUpcaster upcaster = upcastersByType.get(type);
+        if (upcaster != null) {
+            path.add(type);
+            upcaster.targetTypes().stream()
+                    .filter(target -> !target.equals(type))
+                    .forEach(target -> detectCycle(target, path, visited));
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private @Nullable EventUpcaster upcasterFor(Event event) {
+        EventUpcaster result = null;
+
+        EventUpcaster typed = upcastersByType.get(event.type());
+        if (typed != null && typed.canUpcast(event)) {
+            result = typed;
         }
+        for (EventUpcaster upcaster : untypedUpcasters) {
+            if (upcaster.canUpcast(event)) {
+                if (result != null) {
+                    throw new CqrsFrameworkException.NonTransientException("ambiguous upcasters found for: " + event);
+                }
+                result = upcaster;
+            }
+        }
+        return result;
+    }
 
-        upcasters.stream()
-                .filter(upcaster -> upcaster.canUpcast(event))
-                .flatMap(upcaster -> upcaster.upcast(event))
-                .map(upcastingResult -> new Event(
-                        event.source(),
-                        event.subject(),
-                        upcastingResult.type(),
-                        upcastingResult.data(),
-                        event.specVersion(),
-                        event.id(),
-                        event.time(),
-                        event.dataContentType(),
-                        event.hash(),
-                        event.predecessorHash()))
-                .collect(toCollection(() -> result));
-        return true;
+    /**
+     * If necessary upcasts the given {@link Event} using all configured {@link EventUpcaster}s repeatedly, as long as
+     * one of them is {@linkplain EventUpcaster#canUpcast(Event) capable} of upcasting the event, passing the resulting
+     * events to the given consumer. The given event, hence, will be upcasted using a chain of upcasters, as long as
+     * necessary. Events not relevant for any upcaster are passed to the consumer unaltered, without any further
+     * allocation. <b>Be aware, that this method will cause {@link StackOverflowError} if <i>cyclically dependent</i>
+     * {@link EventUpcaster}s have been configured without {@linkplain EventUpcaster#targetTypes() declaring their
+     * target types}.</b>
+     *
+     * @param event the event to be upcasted, if relevant
+     * @param eventConsumer consumer for the {@link Event}s with {@link Event#type()} and {@link Event#data()} upcasted
+     *     as needed, all other attributes remain the same
+     */
+    public void upcast(Event event, Consumer<Event> eventConsumer) {
+        EventUpcaster upcaster = upcasterFor(event);
+        if (upcaster == null) {
+            eventConsumer.accept(event);
+            return;
+        }
+
+        upcaster.upcast(event)
+                .forEach(upcastingResult -> upcast(
+                        new Event(
+                                event.source(),
+                                event.subject(),
+                                upcastingResult.type(),
+                                upcastingResult.data(),
+                                event.specVersion(),
+                                event.id(),
+                                event.time(),
+                                event.dataContentType(),
+                                event.hash(),
+                                event.predecessorHash()),
+                        eventConsumer));
     }
 
     /**
      * If necessary upcasts the given {@link Event} using all configured {@link EventUpcaster}s repeatedly, as long as
      * one of them is {@linkplain EventUpcaster#canUpcast(Event) capable} of upcasting the event. The given event,
-     * hence, will be upcasted using a chain of upcasters, as long as necessary. <b>Due to non-deferred stream
-     * population be aware, that this method will block infinitely or cause {@link OutOfMemoryError} if <i>cyclically
-     * dependent</i> {@link EventUpcaster}s have been configured, for instance two {@link TypeChangingEventUpcaster}s
-     * switching types conversely.</b>
+     * hence, will be upcasted using a chain of upcasters, as long as necessary.
      *
      * @param event the event to be upcasted, if relevant
      * @return a stream of {@link Event}s with {@link Event#type()} and {@link Event#data()} upcasted as needed, all
      *     other attributes remain the same
+     * @see #upcast(Event, Consumer)
      */
     public Stream<Event> upcast(Event event) {
-        var result = new AtomicReference<>(new ArrayList<>(List.of(event)));
-        AtomicBoolean proceed = new AtomicBoolean(true);
-
-        while (proceed.get()) {
-            result.updateAndGet(r -> {
-                var newResult = new ArrayList<Event>();
-                proceed.set(r.stream()
-                        .map(e -> upcastSingleEvent(e, newResult))
-                        .reduce((a, b) -> a || b)
-                        .orElse(false));
-                return newResult;
-            });
+        if (upcasterFor(event) == null) {
+            return Stream.of(event);
         }
-        return result.get().stream();
+
+        var result = new ArrayList<Event>();
+        upcast(event, result::add);
+        return result.stream();
     }
 }
@@ -0,0 +1,102 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.upcaster;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.EventDataMarshaller;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link Event#data()} representation used by {@link AbstractMutableTreeEventUpcaster} to share mutable meta-data and
+ * payload across a chain of upcasters. The serialized representation is lazily created upon first access using the
+ * {@link EventDataMarshaller}.
+ */
+final class MutableTreeEventData extends AbstractMap<String, Object> {
+
+    private final EventDataMarshaller eventDataMarshaller;
+    private final Map<String, Object> metaData;
+    private final Map<String, Object> payload;
+    private @Nullable Map<String, Object> serialized;
+
+    private MutableTreeEventData(
+            EventDataMarshaller eventDataMarshaller, Map<String, Object> metaData, Map<String, Object> payload) {
+        this.eventDataMarshaller = eventDataMarshaller;
+        this.metaData = metaData;
+        this.payload = payload;
+    }
+
+    static MutableTreeEventData copyOf(
+            EventDataMarshaller eventDataMarshaller, Map<String, ?> metaData, Map<String, ?> payload) {
+        return new MutableTreeEventData(eventDataMarshaller, deepCopy(metaData), deepCopy(payload));
+    }
+
+    EventDataMarshaller eventDataMarshaller() {
+        return eventDataMarshaller;
+    }
+
+    Map<String, Object> metaData() {
+        return metaData;
+    }
+
+    Map<String, Object> payload() {
+        return payload;
+    }
+
+    /**
+     * Creates a new instance sharing the mutable meta-data and payload with {@code this}, but without any serialized
+     * representation that may have been created prior to modification.
+     */
+    MutableTreeEventData detach() {
+        return new MutableTreeEventData(eventDataMarshaller, metaData, payload);
+    }
+
+    private Map<String, Object> serialized() {
+        if (serialized == null) {
+            serialized = (Map<String, Object>) eventDataMarshaller.serialize(new EventData<>(metaData, payload));
+        }
+        return serialized;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return serialized().entrySet();
+    }
+
+    @Override
+    public @Nullable Object get(Object key) {
+        return serialized().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return serialized().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return serialized().size();
+    }
+
+    private static Map<String, Object> deepCopy(Map<String, ?> map) {
+        Map<String, Object> result = new LinkedHashMap<>(map.size());
+        map.forEach((key, value) -> result.put(key, deepCopyValue(value)));
+        return result;
+    }
+
+    private static Object deepCopyValue(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return deepCopy((Map<String, ?>) map);
+        } else if (value instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            list.forEach(element -> result.add(deepCopyValue(element)));
+            return result;
+        }
+        return value;
+    }
+}
@@ -2,6 +2,7 @@
 package com.opencqrs.framework.upcaster;
 
 import com.opencqrs.esdb.client.Event;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -21,6 +22,11 @@ public class NoEventUpcaster implements EventUpcaster {
         return event.type().equals(type);
     }
 
+    @Override
+    public Set<String> sourceTypes() {
+        return Set.of(type);
+    }
+
     @Override
     public Stream<Result> upcast(Event event) {
         return Stream.empty();
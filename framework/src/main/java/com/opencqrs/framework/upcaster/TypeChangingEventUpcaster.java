@@ -2,6 +2,7 @@
 package com.opencqrs.framework.upcaster;
 
 import com.opencqrs.esdb.client.Event;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -23,6 +24,16 @@ public class TypeChangingEventUpcaster implements EventUpcaster {
         return event.type().equals(sourceType);
     }
 
+    @Override
+    public Set<String> sourceTypes() {
+        return Set.of(sourceType);
+    }
+
+    @Override
+    public Set<String> targetTypes() {
+        return Set.of(targetType);
+    }
+
     @Override
     public Stream<Result> upcast(Event event) {
         return Stream.of(new Result(targetType, event.data()));
@@ -8,8 +8,18 @@ import com.opencqrs.esdb.client.EsdbClient;
 import com.opencqrs.esdb.client.Event;
 import com.opencqrs.esdb.client.Option;
 import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.esdb.client.eventql.EventQuery;
 import com.opencqrs.framework.*;
+import com.opencqrs.framework.client.ConcurrencyException;
+import com.opencqrs.framework.command.cache.LruInMemoryStateRebuildingCache;
 import com.opencqrs.framework.command.cache.NoStateRebuildingCache;
+import com.opencqrs.framework.command.cache.StateRebuildingCache;
+import com.opencqrs.framework.command.locking.NoSubjectLocking;
+import com.opencqrs.framework.command.locking.StripedSubjectLocking;
+import com.opencqrs.framework.command.locking.SubjectLocking;
+import com.opencqrs.framework.command.metrics.CommandMetrics;
+import com.opencqrs.framework.command.metrics.NoCommandMetrics;
+import com.opencqrs.framework.command.snapshot.Snapshotting;
 import com.opencqrs.framework.metadata.PropagationMode;
 import com.opencqrs.framework.persistence.CapturedEvent;
 import com.opencqrs.framework.persistence.EventReader;
@@ -19,13 +29,23 @@ import com.opencqrs.framework.serialization.EventDataMarshaller;
 import com.opencqrs.framework.serialization.JacksonEventDataMarshaller;
 import com.opencqrs.framework.types.ClassNameEventTypeResolver;
 import com.opencqrs.framework.types.EventTypeResolver;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -458,6 +478,7 @@ public class CommandRouterTest {
                 verify(handler).on(null, sourcedEvent, metaData, command.getSubject());
             case StateRebuildingHandler.FromObjectAndMetaDataAndSubjectAndRawEvent handler ->
                 verify(handler).on(null, sourcedEvent, metaData, command.getSubject(), rawEvent);
+            case StateRebuildingHandler.InPlace handler -> fail("in-place handlers require existing instance");
         }
     }
 
@@ -559,6 +580,7 @@ public class CommandRouterTest {
                 verify(handler).on(null, publishedEvent, metaData, command.getSubject());
             case StateRebuildingHandler.FromObjectAndMetaDataAndSubjectAndRawEvent handler ->
                 verify(handler).on(null, publishedEvent, metaData, command.getSubject(), null);
+            case StateRebuildingHandler.InPlace handler -> fail("in-place handlers require existing instance");
         }
     }
 
@@ -642,4 +664,1013 @@ public class CommandRouterTest {
                 .isInstanceOf(CqrsFrameworkException.NonTransientException.class)
                 .hasMessageContainingAll("no command handler definition", BorrowBookCommand.class.getName());
     }
+
+    @Test
+    public void commandExecutedAsynchronously() {
+        var caller = Thread.currentThread();
+        CommandHandlerDefinition<Book, BorrowBookCommand, Thread> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Thread>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return Thread.currentThread();
+                        });
+
+        CommandRouter subject = new CommandRouter(eventReader, immediateEventPublisher, List.of(chd), List.of());
+
+        assertThat(subject.<Thread>sendAsync(new BorrowBookCommand("4711")))
+                .succeedsWithin(Duration.ofSeconds(5))
+                .satisfies(thread -> assertThat(thread).isNotSameAs(caller));
+        verify(immediateEventPublisher).publish(anyList(), anyList());
+    }
+
+    @Test
+    public void asyncCommandExecutionCompletedWithUnwrappedException() throws InterruptedException {
+        var exception = new CommandSubjectDoesNotExistException("test", new BorrowBookCommand("4711"));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            throw exception;
+                        });
+
+        CommandRouter subject = new CommandRouter(eventReader, immediateEventPublisher, List.of(chd), List.of());
+
+        var observed = new AtomicReference<Throwable>();
+        var completed = new CountDownLatch(1);
+        subject.sendAsync(new BorrowBookCommand("4711")).whenComplete((result, t) -> {
+            observed.set(t);
+            completed.countDown();
+        });
+
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(observed.get()).isSameAs(exception);
+        verifyNoInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void asyncCommandExecutionUsesConfiguredExecutor() {
+        CommandHandlerDefinition<Book, BorrowBookCommand, String> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, String>)
+                        (cmd, eventPublisher) -> Thread.currentThread().getName());
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .asyncExecutor(Runnable::run)
+                .build();
+
+        assertThat(subject.<String>sendAsync(new BorrowBookCommand("4711")))
+                .isCompletedWithValue(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void commandsForSameSubjectSerializedUsingSubjectLocking() throws InterruptedException {
+        var active = new AtomicInteger();
+        var maxActive = new AtomicInteger();
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            active.decrementAndGet();
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .subjectLocking(new StripedSubjectLocking(16))
+                .build();
+
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int j = 0; j < 100; j++) {
+                    subject.send(new BorrowBookCommand("4711"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(maxActive).hasValue(1);
+    }
+
+    private Event bookSnapshotted(String subject, String id, Book book, Map<String, String> sourcedSubjectIds) {
+        return new Event(
+                "test",
+                subject,
+                eventTypeResolver.getEventType(BookSnapshottedEvent.class),
+                eventDataMarshaller.serialize(new EventData<>(
+                        Map.of(SnapshotEventDefinition.SOURCED_SUBJECT_IDS_META_DATA_KEY, sourcedSubjectIds),
+                        new BookSnapshottedEvent(book))),
+                "1.0",
+                id,
+                Instant.now(),
+                "application/json",
+                UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+    }
+
+    private Event bookAdded(String subject, String id, String isbn) {
+        return new Event(
+                "test",
+                subject,
+                eventTypeResolver.getEventType(BookAddedEvent.class),
+                eventDataMarshaller.serialize(new EventData<>(Map.of(), new BookAddedEvent(isbn))),
+                "1.0",
+                id,
+                Instant.now(),
+                "application/json",
+                UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+    }
+
+    @Test
+    public void conflictingCommandRetriedWithNewerEventsSourcedOnly() {
+        var command = new BorrowBookCommand("4711");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "2", "4712"));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("1"))),
+                        any());
+        doThrow(new ConcurrencyException("conflict"))
+                .doReturn(List.of())
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        var sourcedIsbns = new ArrayList<String>();
+        List stateRebuildingHandlerDefinitions = List.of(new StateRebuildingHandlerDefinition<>(
+                Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                        (book, event) -> {
+                            sourcedIsbns.add(event.isbn());
+                            return new Book(event.isbn(), false);
+                        }));
+        var handledBooks = new ArrayList<Book>();
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Void>)
+                        (book, cmd, eventPublisher) -> {
+                            handledBooks.add(book);
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(
+                        eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions)
+                .conflictRetryPolicy(new ConflictRetryPolicy(1, Duration.ZERO, Duration.ZERO, 0))
+                .build();
+
+        subject.send(command);
+
+        assertThat(sourcedIsbns).containsExactly("4711", "4712");
+        assertThat(handledBooks).containsExactly(new Book("4711", false), new Book("4712", false));
+        verify(immediateEventPublisher)
+                .publish(anyList(), argThat(preconditions -> preconditions.contains(
+                        new Precondition.SubjectIsOnEventId(command.getSubject(), "2"))));
+    }
+
+    @Test
+    public void conflictPropagatedIfRetriesExhausted() {
+        var conflict = new ConcurrencyException("conflict");
+        doThrow(conflict).when(immediateEventPublisher).publish(anyList(), anyList());
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .conflictRetryPolicy(new ConflictRetryPolicy(2, Duration.ofMillis(1), Duration.ofMillis(5), 0))
+                .build();
+
+        assertThatThrownBy(() -> subject.send(new BorrowBookCommand("4711"))).isSameAs(conflict);
+        verify(immediateEventPublisher, times(3)).publish(anyList(), anyList());
+    }
+
+    @Test
+    public void subjectLockReleasedBeforeBackingOff() {
+        var conflict = new ConcurrencyException("conflict");
+        doThrow(conflict).doReturn(List.of()).when(immediateEventPublisher).publish(anyList(), anyList());
+        var subjectLocking = spy(new StripedSubjectLocking(1));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .subjectLocking(subjectLocking)
+                .conflictRetryPolicy(new ConflictRetryPolicy(1, Duration.ofMillis(1), Duration.ofMillis(5), 0))
+                .build();
+
+        subject.send(new BorrowBookCommand("4711"));
+
+        verify(immediateEventPublisher, times(2)).publish(anyList(), anyList());
+        verify(subjectLocking, times(2)).withLock(eq("/books/4711"), any());
+    }
+
+    @Test
+    public void stateRestoredFromSnapshotBeforeSourcingNewerEvents() {
+        var command = new BorrowBookCommand("4711");
+        var snapshotting = mock(Snapshotting.class);
+        doReturn(Optional.of(new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", false), Map.of(command.getSubject(), "1"))))
+                .when(snapshotting)
+                .restore(any());
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "2", "4712"));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("1"))),
+                        any());
+
+        List stateRebuildingHandlerDefinitions = List.of(new StateRebuildingHandlerDefinition<>(
+                Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                        (book, event) -> new Book(book.isbn() + "/" + event.isbn(), false)));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Book> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Book>)
+                        (book, cmd, eventPublisher) -> book);
+
+        CommandRouter subject = CommandRouter.builder(
+                        eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions)
+                .snapshotting(snapshotting)
+                .build();
+
+        assertThat(subject.<Book>send(command)).isEqualTo(new Book("4711/4712", false));
+        verify(snapshotting)
+                .sourced(
+                        new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE),
+                        new StateRebuildingCache.CacheValue<>(
+                                "2", new Book("4711/4712", false), Map.of(command.getSubject(), "2")),
+                        1);
+    }
+
+    public record BookSnapshottedEvent(Book book) {}
+
+    private CommandRouter snapshotEventRouter(int everyEvents) {
+        return snapshotEventRouter(everyEvents, new NoSubjectLocking());
+    }
+
+    private CommandRouter snapshotEventRouter(int everyEvents, SubjectLocking subjectLocking) {
+        List stateRebuildingHandlerDefinitions = List.of(
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                                (book, event) -> new Book(event.isbn(), false)),
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookBorrowedEvent.class, (StateRebuildingHandler.FromObject<
+                                        Book, BookBorrowedEvent>)
+                                (book, event) -> new Book(book.isbn(), true)));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Book> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Book>)
+                        (book, cmd, eventPublisher) -> eventPublisher.publish(new BookBorrowedEvent()));
+
+        return CommandRouter.builder(
+                        eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions)
+                .subjectLocking(subjectLocking)
+                .snapshotEventDefinitions(List.of(new SnapshotEventDefinition<>(
+                        Book.class,
+                        BookSnapshottedEvent.class,
+                        eventTypeResolver.getEventType(BookSnapshottedEvent.class),
+                        everyEvents,
+                        BookSnapshottedEvent::new,
+                        BookSnapshottedEvent::book)))
+                .build();
+    }
+
+    @Test
+    public void stateSeededFromLatestSnapshotEvent() {
+        var command = new BorrowBookCommand("4711");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookSnapshotted(
+                            command.getSubject(),
+                            "6",
+                            new Book("4711", false),
+                            Map.of(command.getSubject(), "3", command.getSubject() + "/pages/1", "5")));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(
+                                new Option.Recursive(),
+                                new Option.FromLatestEvent(
+                                        command.getSubject(),
+                                        eventTypeResolver.getEventType(BookSnapshottedEvent.class),
+                                        Option.FromLatestEvent.IfEventIsMissing.READ_EVERYTHING))),
+                        any());
+
+        assertThat(snapshotEventRouter(10).<Book>send(command)).isEqualTo(new Book("4711", true));
+        verify(immediateEventPublisher)
+                .publish(
+                        eq(List.of(new CapturedEvent(
+                                command.getSubject(), new BookBorrowedEvent(), Map.of(), List.of()))),
+                        argThat(preconditions -> preconditions.size() == 2
+                                && preconditions.containsAll(List.of(
+                                        new Precondition.SubjectIsOnEventId(command.getSubject(), "6"),
+                                        new Precondition.SubjectIsOnEventId(command.getSubject() + "/pages/1", "5")))));
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void snapshotEventPublishedOnceDue() {
+        var command = new BorrowBookCommand("4711");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), any(), any());
+        doReturn(List.of(bookAdded(command.getSubject(), "2", "4711")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        assertThat(snapshotEventRouter(2).<Book>send(command)).isEqualTo(new Book("4711", true));
+        verify(immediateEventPublisher)
+                .publish(
+                        List.of(new CapturedEvent(
+                                command.getSubject(),
+                                new BookSnapshottedEvent(new Book("4711", true)),
+                                Map.of(
+                                        SnapshotEventDefinition.SOURCED_SUBJECT_IDS_META_DATA_KEY,
+                                        Map.of(command.getSubject(), "2")),
+                                List.of())),
+                        List.of(new Precondition.SubjectIsOnEventId(command.getSubject(), "2")));
+    }
+
+    @Test
+    public void snapshotEventPublishedAfterReleasingSubjectLock() {
+        var command = new BorrowBookCommand("4711");
+        var locked = new AtomicBoolean();
+        var subjectLocking = new SubjectLocking() {
+            @Override
+            public <T> T withLock(String subject, Supplier<T> action) {
+                locked.set(true);
+                try {
+                    return action.get();
+                } finally {
+                    locked.set(false);
+                }
+            }
+        };
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), any(), any());
+        List<Boolean> publishedWhileLocked = new ArrayList<>();
+        doAnswer(invocation -> {
+                    publishedWhileLocked.add(locked.get());
+                    return List.of(bookAdded(command.getSubject(), "" + (publishedWhileLocked.size() + 1), "4711"));
+                })
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        snapshotEventRouter(2, subjectLocking).send(command);
+
+        assertThat(publishedWhileLocked).containsExactly(true, false);
+    }
+
+    @Test
+    public void snapshotEventNotPublishedBeforeDue() {
+        var command = new BorrowBookCommand("4711");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), any(), any());
+        doReturn(List.of(bookAdded(command.getSubject(), "2", "4711")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        snapshotEventRouter(3).send(command);
+
+        verify(immediateEventPublisher, times(1)).publish(anyList(), anyList());
+    }
+
+    @Test
+    public void duplicateSnapshotEventDefinitionsRejected() {
+        var definition = new SnapshotEventDefinition<>(
+                Book.class,
+                BookSnapshottedEvent.class,
+                "snapshot",
+                1,
+                BookSnapshottedEvent::new,
+                BookSnapshottedEvent::book);
+
+        assertThatThrownBy(() -> CommandRouter.builder(eventReader, immediateEventPublisher, List.of(), List.of())
+                        .snapshotEventDefinitions(List.of(definition, definition))
+                        .build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void snapshotEventDefinitionsRejectedForInstanceTypesSourcedInMultipleModes() {
+        var definition = new SnapshotEventDefinition<>(
+                Book.class,
+                BookSnapshottedEvent.class,
+                "snapshot",
+                1,
+                BookSnapshottedEvent::new,
+                BookSnapshottedEvent::book);
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> local = new CommandHandlerDefinition<>(
+                Book.class,
+                BorrowBookCommand.class,
+                (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>) (cmd, eventPublisher) -> null,
+                SourcingMode.LOCAL);
+        CommandHandlerDefinition<Book, ReturnBookCommand, Void> recursive = new CommandHandlerDefinition<>(
+                Book.class,
+                ReturnBookCommand.class,
+                (CommandHandler.ForCommand<Book, ReturnBookCommand, Void>) (cmd, eventPublisher) -> null,
+                SourcingMode.RECURSIVE);
+
+        assertThatThrownBy(() -> CommandRouter.builder(
+                                eventReader, immediateEventPublisher, List.of(local, recursive), List.of())
+                        .snapshotEventDefinitions(List.of(definition))
+                        .build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(Book.class.getName());
+    }
+
+    private CommandRouter writeThroughRouter(StateRebuildingCache cache, boolean trustCachedState) {
+        return writeThroughRouter(cache, trustCachedState, new NoCommandMetrics());
+    }
+
+    private CommandRouter writeThroughRouter(
+            StateRebuildingCache cache, boolean trustCachedState, CommandMetrics commandMetrics) {
+        List stateRebuildingHandlerDefinitions = List.of(
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                                (book, event) -> new Book(event.isbn(), false)),
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookBorrowedEvent.class, (StateRebuildingHandler.FromObject<
+                                        Book, BookBorrowedEvent>)
+                                (book, event) -> new Book(book.isbn(), true)));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Book> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Book>)
+                        (book, cmd, eventPublisher) -> eventPublisher.publish(new BookBorrowedEvent()));
+
+        return CommandRouter.builder(
+                        eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions)
+                .stateRebuildingCache(cache)
+                .trustCachedState(trustCachedState)
+                .commandMetrics(commandMetrics)
+                .build();
+    }
+
+    @Test
+    public void publishedEventsWrittenThroughToCache() {
+        var command = new BorrowBookCommand("4711");
+        var cacheKey = new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE);
+        var cache = new LruInMemoryStateRebuildingCache(10);
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+        doReturn(List.of(bookAdded(command.getSubject(), "2", "4711")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        writeThroughRouter(cache, false).send(command);
+
+        assertThat(cache.fetchAndMerge(cacheKey, Function.identity()))
+                .isEqualTo(new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", true), Map.of(command.getSubject(), "2")));
+    }
+
+    @Test
+    public void eventsPublishedConcurrentlyForUnsourcedSubjectsSourcedAfterWritingThrough() {
+        var command = new BorrowBookCommand("4711");
+        var cacheKey = new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE);
+        var cache = new LruInMemoryStateRebuildingCache(10);
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject() + "/pages/1", "2", "4712"));
+                    consumer.accept(bookAdded(command.getSubject(), "3", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("1"))),
+                        any());
+        doReturn(List.of(bookAdded(command.getSubject(), "3", "4711")))
+                .doReturn(List.of(bookAdded(command.getSubject(), "4", "4711")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+        var subject = writeThroughRouter(cache, false);
+
+        assertThat(subject.<Book>send(command)).isEqualTo(new Book("4711", true));
+        assertThat(cache.fetchAndMerge(cacheKey, Function.identity()))
+                .isEqualTo(new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", true), Map.of(command.getSubject(), "3")));
+
+        assertThat(subject.<Book>send(command)).isEqualTo(new Book("4712", true));
+        verify(immediateEventPublisher)
+                .publish(
+                        anyList(),
+                        argThat(preconditions -> Set.copyOf(preconditions)
+                                .equals(Set.of(
+                                        new Precondition.SubjectIsOnEventId(command.getSubject() + "/pages/1", "2"),
+                                        new Precondition.SubjectIsOnEventId(command.getSubject(), "3")))));
+    }
+
+    @Test
+    public void trustedCachedStateUsedWithoutSourcing() {
+        var command = new BorrowBookCommand("4711");
+        var cacheKey = new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE);
+        var cache = new LruInMemoryStateRebuildingCache(10);
+        cache.fetchAndMerge(
+                cacheKey,
+                cached -> new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", false), Map.of(command.getSubject(), "1")));
+        doReturn(List.of(bookAdded(command.getSubject(), "2", "4711")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        assertThat(writeThroughRouter(cache, true).<Book>send(command)).isEqualTo(new Book("4711", true));
+        verifyNoInteractions(client);
+        verify(immediateEventPublisher)
+                .publish(anyList(), eq(List.of(new Precondition.SubjectIsOnEventId(command.getSubject(), "1"))));
+    }
+
+    @Test
+    public void staleTrustedCachedStateSourcedAndRetriedOnConflict() {
+        var command = new BorrowBookCommand("4711");
+        var cacheKey = new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE);
+        var cache = new LruInMemoryStateRebuildingCache(10);
+        cache.fetchAndMerge(
+                cacheKey,
+                cached -> new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", false), Map.of(command.getSubject(), "1")));
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "2", "4712"));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("1"))),
+                        any());
+        doThrow(new ConcurrencyException("conflict"))
+                .doReturn(List.of(bookAdded(command.getSubject(), "3", "4712")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        assertThat(writeThroughRouter(cache, true).<Book>send(command)).isEqualTo(new Book("4712", true));
+        verify(immediateEventPublisher)
+                .publish(anyList(), eq(List.of(new Precondition.SubjectIsOnEventId(command.getSubject(), "2"))));
+        assertThat(cache.fetchAndMerge(cacheKey, Function.identity()))
+                .isEqualTo(new StateRebuildingCache.CacheValue<>(
+                        "2", new Book("4712", true), Map.of(command.getSubject(), "3")));
+    }
+
+    @Test
+    public void commandExecutionPhasesRecorded() {
+        var command = new BorrowBookCommand("4711");
+        var cacheKey = new StateRebuildingCache.CacheKey<>(command.getSubject(), Book.class, SourcingMode.RECURSIVE);
+        var cache = new LruInMemoryStateRebuildingCache(10);
+        cache.fetchAndMerge(
+                cacheKey,
+                cached -> new StateRebuildingCache.CacheValue<>(
+                        "1", new Book("4711", false), Map.of(command.getSubject(), "1")));
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "2", "4712"));
+                    return null;
+                })
+                .when(client)
+                .read(
+                        eq(command.getSubject()),
+                        eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("1"))),
+                        any());
+        doThrow(new ConcurrencyException("conflict"))
+                .doReturn(List.of(bookAdded(command.getSubject(), "3", "4712")))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+        CommandMetrics commandMetrics = mock(CommandMetrics.class);
+        CommandMetrics.Execution execution = mock(CommandMetrics.Execution.class);
+        doReturn(execution).when(commandMetrics).started(BorrowBookCommand.class);
+
+        writeThroughRouter(cache, true, commandMetrics).send(command);
+
+        var inOrder = inOrder(execution);
+        inOrder.verify(execution).sourced(CommandMetrics.CacheResult.HIT, 0, 0, 0);
+        inOrder.verify(execution).handled(anyLong());
+        inOrder.verify(execution).conflicted();
+        inOrder.verify(execution).sourced(eq(CommandMetrics.CacheResult.MERGE), eq(1), anyLong(), anyLong());
+        inOrder.verify(execution).handled(anyLong());
+        inOrder.verify(execution).published(eq(1), anyLong());
+        inOrder.verify(execution).completed(null);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void failedCommandExecutionRecorded() {
+        var command = new BorrowBookCommand("4711");
+        var conflict = new ConcurrencyException("conflict");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+        doThrow(conflict).when(immediateEventPublisher).publish(anyList(), anyList());
+        CommandMetrics commandMetrics = mock(CommandMetrics.class);
+        CommandMetrics.Execution execution = mock(CommandMetrics.Execution.class);
+        doReturn(execution).when(commandMetrics).started(BorrowBookCommand.class);
+
+        assertThatThrownBy(() -> writeThroughRouter(new NoStateRebuildingCache(), false, commandMetrics)
+                        .send(command))
+                .isSameAs(conflict);
+
+        verify(execution).sourced(eq(CommandMetrics.CacheResult.MISS), eq(1), anyLong(), anyLong());
+        verify(execution).conflicted();
+        verify(execution).completed(conflict);
+        verify(execution, never()).published(anyInt(), anyLong());
+    }
+
+    @Test
+    public void recursivelySourcedPreconditionsCompacted() {
+        var command = new BorrowBookCommand("4711");
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    consumer.accept(bookAdded(command.getSubject() + "/pages/1", "2", "4711"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            var preconditions = List.<Precondition>of(new Precondition.SubjectIsPopulated("/foo"));
+                            eventPublisher.publish(new BookBorrowedEvent(), Map.of(), preconditions);
+                            eventPublisher.publishRelative(
+                                    "pages/2", new BookPageDamagedEvent(2), Map.of(), preconditions);
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .preconditionCompaction(new PreconditionCompaction(1))
+                .build();
+
+        subject.send(command);
+
+        verify(immediateEventPublisher)
+                .publish(
+                        anyList(),
+                        eq(List.of(
+                                new Precondition.EventQlQueryIsTrue(new EventQuery(
+                                        "FROM e IN events WHERE (e.subject == '/books/4711' OR e.subject STARTS WITH"
+                                                + " '/books/4711/') AND (e.id AS INT) > 2 PROJECT INTO COUNT() == 0")),
+                                new Precondition.SubjectIsPopulated("/foo"))));
+    }
+
+    @Test
+    public void eventsAppliedWhileBeingSourced() {
+        var command = new BorrowBookCommand("4711");
+        var appliedIsbns = new ArrayList<String>();
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    assertThat(appliedIsbns).containsExactly("4711");
+                    consumer.accept(bookAdded(command.getSubject(), "2", "4712"));
+                    assertThat(appliedIsbns).containsExactly("4711", "4712");
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+
+        List stateRebuildingHandlerDefinitions = List.of(new StateRebuildingHandlerDefinition<>(
+                Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                        (book, event) -> {
+                            appliedIsbns.add(event.isbn());
+                            return new Book(event.isbn(), false);
+                        }));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Book> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Book>)
+                        (book, cmd, eventPublisher) -> book);
+
+        CommandRouter subject = new CommandRouter(
+                eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions);
+
+        assertThat(subject.<Book>send(command)).isEqualTo(new Book("4712", false));
+    }
+
+    @Test
+    public void eventsNotAppliedOnceSubjectConditionPristineViolated() {
+        Command command = new Command() {
+            @Override
+            public String getSubject() {
+                return "/books/4711";
+            }
+
+            @Override
+            public SubjectCondition getSubjectCondition() {
+                return SubjectCondition.PRISTINE;
+            }
+        };
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    consumer.accept(bookAdded(command.getSubject(), "1", "4711"));
+                    consumer.accept(bookAdded(command.getSubject() + "/pages/1", "2", "4712"));
+                    return null;
+                })
+                .when(client)
+                .read(eq(command.getSubject()), eq(Set.of(new Option.Recursive())), any());
+
+        var appliedIsbns = new ArrayList<String>();
+        List stateRebuildingHandlerDefinitions = List.of(new StateRebuildingHandlerDefinition<>(
+                Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                        (book, event) -> {
+                            appliedIsbns.add(event.isbn());
+                            return new Book(event.isbn(), false);
+                        }));
+        CommandHandlerDefinition<Book, ? extends Command, Void> chd =
+                new CommandHandlerDefinition<>(Book.class, command.getClass(), (CommandHandler.ForInstanceAndCommand)
+                        (book, cmd, eventPublisher) -> null);
+
+        CommandRouter subject = new CommandRouter(
+                eventReader, immediateEventPublisher, List.of(chd), stateRebuildingHandlerDefinitions);
+
+        assertThatThrownBy(() -> subject.send(command)).isInstanceOf(CommandSubjectAlreadyExistsException.class);
+        assertThat(appliedIsbns).containsExactly("4711");
+        verifyNoInteractions(immediateEventPublisher);
+    }
+
+    private CommandRouter batchRouter() {
+        List stateRebuildingHandlerDefinitions = List.of(
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                                (book, event) -> new Book(event.isbn(), false)),
+                new StateRebuildingHandlerDefinition<>(
+                        Book.class, BookBorrowedEvent.class, (StateRebuildingHandler.FromObject<
+                                        Book, BookBorrowedEvent>)
+                                (book, event) -> new Book(book.isbn(), true)));
+        CommandHandlerDefinition<Book, AddBookCommand, Void> addBook = new CommandHandlerDefinition<>(
+                Book.class, AddBookCommand.class, (CommandHandler.ForCommand<Book, AddBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookAddedEvent(cmd.isbn()));
+                            return null;
+                        });
+        CommandHandlerDefinition<Book, BorrowBookCommand, Book> borrowBook = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForInstanceAndCommand<
+                                Book, BorrowBookCommand, Book>)
+                        (book, cmd, eventPublisher) -> {
+                            if (book.lent()) {
+                                throw new IllegalStateException("book already lent");
+                            }
+                            return eventPublisher.publish(new BookBorrowedEvent());
+                        });
+
+        return new CommandRouter(
+                eventReader,
+                immediateEventPublisher,
+                List.of(addBook, borrowBook),
+                stateRebuildingHandlerDefinitions);
+    }
+
+    private List<Event> published(List<CapturedEvent> events) {
+        var result = new ArrayList<Event>();
+        for (int i = 0; i < events.size(); i++) {
+            result.add(bookAdded(events.get(i).subject(), String.valueOf(i + 1), "unused"));
+        }
+        return result;
+    }
+
+    @Test
+    public void commandsBatchedPerSubject() {
+        doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        var results = batchRouter()
+                .sendAll(List.of(
+                        new AddBookCommand("4711"),
+                        new BorrowBookCommand("4711"),
+                        new AddBookCommand("4712"),
+                        new BorrowBookCommand("4711"),
+                        new AddBookCommand("4711")));
+
+        assertThat(results)
+                .satisfiesExactly(
+                        result -> assertThat(result)
+                                .isEqualTo(new CommandResult.Success(new AddBookCommand("4711"), null)),
+                        result -> assertThat(result)
+                                .isEqualTo(new CommandResult.Success(
+                                        new BorrowBookCommand("4711"), new Book("4711", true))),
+                        result -> assertThat(result)
+                                .isEqualTo(new CommandResult.Success(new AddBookCommand("4712"), null)),
+                        result -> assertThat(result)
+                                .isInstanceOfSatisfying(CommandResult.Failure.class, failure -> assertThat(
+                                                failure.exception())
+                                        .isInstanceOf(IllegalStateException.class)),
+                        result -> assertThat(result)
+                                .isInstanceOfSatisfying(CommandResult.Failure.class, failure -> assertThat(
+                                                failure.exception())
+                                        .isInstanceOf(CommandSubjectAlreadyExistsException.class)));
+        verify(client).read(eq("/books/4711"), eq(Set.of(new Option.Recursive())), any());
+        verify(client).read(eq("/books/4712"), eq(Set.of(new Option.Recursive())), any());
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 2),
+                        eq(List.of(new Precondition.SubjectIsPristine("/books/4711"))));
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 1),
+                        eq(List.of(new Precondition.SubjectIsPristine("/books/4712"))));
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void batchedCommandsFailedIfWriteConflicts() {
+        var conflict = new ConcurrencyException("conflict");
+        doThrow(conflict).when(immediateEventPublisher).publish(anyList(), anyList());
+
+        var results = batchRouter().sendAll(List.of(new AddBookCommand("4711"), new BorrowBookCommand("4711")));
+
+        assertThat(results)
+                .containsExactly(
+                        new CommandResult.Failure(new AddBookCommand("4711"), conflict),
+                        new CommandResult.Failure(new BorrowBookCommand("4711"), conflict));
+        verify(immediateEventPublisher).publish(anyList(), anyList());
+    }
+
+    @Test
+    public void failingBatchedCommandsDoNotAffectRemainingCommands() {
+        doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        var results = batchRouter()
+                .sendAll(List.of(
+                        new AddBookCommand("4711"), new AddBookCommand("4711"), new BorrowBookCommand("4711")));
+
+        assertThat(results)
+                .satisfiesExactly(
+                        result -> assertThat(result)
+                                .isEqualTo(new CommandResult.Success(new AddBookCommand("4711"), null)),
+                        result -> assertThat(result)
+                                .isInstanceOfSatisfying(CommandResult.Failure.class, failure -> assertThat(
+                                                failure.exception())
+                                        .isInstanceOf(CommandSubjectAlreadyExistsException.class)),
+                        result -> assertThat(result)
+                                .isEqualTo(new CommandResult.Success(
+                                        new BorrowBookCommand("4711"), new Book("4711", true))));
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 2),
+                        eq(List.of(new Precondition.SubjectIsPristine("/books/4711"))));
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void batchedCommandsForMixedSubjectsExecutedOnTheirOwnInstanceState() {
+        doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        var results = batchRouter()
+                .sendAll(List.of(
+                        new AddBookCommand("4711"),
+                        new AddBookCommand("4712"),
+                        new BorrowBookCommand("4712"),
+                        new BorrowBookCommand("4711")));
+
+        assertThat(results)
+                .containsExactly(
+                        new CommandResult.Success(new AddBookCommand("4711"), null),
+                        new CommandResult.Success(new AddBookCommand("4712"), null),
+                        new CommandResult.Success(new BorrowBookCommand("4712"), new Book("4712", true)),
+                        new CommandResult.Success(new BorrowBookCommand("4711"), new Book("4711", true)));
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 2
+                                && events.stream().allMatch(event -> event.subject().equals("/books/4711"))),
+                        anyList());
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 2
+                                && events.stream().allMatch(event -> event.subject().equals("/books/4712"))),
+                        anyList());
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void failingGroupDoesNotAffectRemainingGroups() {
+        var failure = new IllegalStateException("sourcing failed");
+        doThrow(failure).when(client).read(eq("/books/4711"), any(), any());
+        doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+
+        var results = batchRouter()
+                .sendAll(List.of(
+                        new AddBookCommand("4711"), new AddBookCommand("4712"), new BorrowBookCommand("4711")));
+
+        assertThat(results)
+                .containsExactly(
+                        new CommandResult.Failure(new AddBookCommand("4711"), failure),
+                        new CommandResult.Success(new AddBookCommand("4712"), null),
+                        new CommandResult.Failure(new BorrowBookCommand("4711"), failure));
+        verify(immediateEventPublisher)
+                .publish(
+                        argThat(events -> events.size() == 1),
+                        eq(List.of(new Precondition.SubjectIsPristine("/books/4712"))));
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void batchedEventsWrittenPerMaxBatchEvents() {
+        doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return null;
+                        });
+        var commands = new ArrayList<BorrowBookCommand>();
+        for (int i = 0; i <= CommandRouter.MAX_BATCH_EVENTS; i++) {
+            commands.add(new BorrowBookCommand("4711"));
+        }
+
+        var results = new CommandRouter(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .sendAll(commands);
+
+        assertThat(results).hasSize(CommandRouter.MAX_BATCH_EVENTS + 1).allSatisfy(result -> assertThat(result)
+                .isInstanceOf(CommandResult.Success.class));
+        verify(immediateEventPublisher)
+                .publish(argThat(events -> events.size() == CommandRouter.MAX_BATCH_EVENTS), anyList());
+        verify(immediateEventPublisher).publish(argThat(events -> events.size() == 1), anyList());
+        verifyNoMoreInteractions(immediateEventPublisher);
+    }
+
+    @Test
+    public void subjectLockReleasedBeforeBackingOffBatchedWrite() {
+        var conflict = new ConcurrencyException("conflict");
+        doThrow(conflict)
+                .doAnswer(invocation -> published(invocation.getArgument(0)))
+                .when(immediateEventPublisher)
+                .publish(anyList(), anyList());
+        var subjectLocking = spy(new StripedSubjectLocking(1));
+        CommandHandlerDefinition<Book, BorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class, BorrowBookCommand.class, (CommandHandler.ForCommand<Book, BorrowBookCommand, Void>)
+                        (cmd, eventPublisher) -> {
+                            eventPublisher.publish(new BookBorrowedEvent());
+                            return null;
+                        });
+
+        CommandRouter subject = CommandRouter.builder(eventReader, immediateEventPublisher, List.of(chd), List.of())
+                .subjectLocking(subjectLocking)
+                .conflictRetryPolicy(new ConflictRetryPolicy(1, Duration.ofMillis(1), Duration.ofMillis(5), 0))
+                .build();
+
+        var results = subject.sendAll(List.of(new BorrowBookCommand("4711"), new BorrowBookCommand("4711")));
+
+        assertThat(results)
+                .containsExactly(
+                        new CommandResult.Success(new BorrowBookCommand("4711"), null),
+                        new CommandResult.Success(new BorrowBookCommand("4711"), null));
+        verify(immediateEventPublisher, times(2)).publish(argThat(events -> events.size() == 2), anyList());
+        verify(subjectLocking, times(2)).withLock(eq("/books/4711"), any());
+    }
 }
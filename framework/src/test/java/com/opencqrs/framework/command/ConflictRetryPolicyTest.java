@@ -0,0 +1,64 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class ConflictRetryPolicyTest {
+
+    @Test
+    public void noRetriesPermittedIfDisabled() {
+        var subject = ConflictRetryPolicy.none();
+
+        assertThat(subject.tryRetry(1)).isFalse();
+    }
+
+    @Test
+    public void retriesLimitedPerExecution() {
+        var subject = new ConflictRetryPolicy(2, Duration.ZERO, Duration.ZERO, 0);
+
+        assertThat(subject.tryRetry(1)).isTrue();
+        assertThat(subject.tryRetry(2)).isTrue();
+        assertThat(subject.tryRetry(3)).isFalse();
+    }
+
+    @Test
+    public void retriesLimitedByBudgetReplenishedByExecutions() {
+        var subject = new ConflictRetryPolicy(1, Duration.ZERO, Duration.ZERO, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(subject.tryRetry(1)).isTrue();
+        }
+        assertThat(subject.tryRetry(1)).isFalse();
+
+        subject.executed();
+        assertThat(subject.tryRetry(1)).isFalse();
+        subject.executed();
+        assertThat(subject.tryRetry(1)).isTrue();
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyUpToMaximum() {
+        var subject = new ConflictRetryPolicy(100, Duration.ofMillis(10), Duration.ofMillis(50), 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(subject.backoffMillis(1)).isBetween(0L, 10L);
+            assertThat(subject.backoffMillis(2)).isBetween(0L, 20L);
+            assertThat(subject.backoffMillis(3)).isBetween(0L, 40L);
+            assertThat(subject.backoffMillis(4)).isBetween(0L, 50L);
+            assertThat(subject.backoffMillis(100)).isBetween(0L, 50L);
+        }
+    }
+
+    @Test
+    public void invalidConfigurationRejected() {
+        assertThatThrownBy(() -> new ConflictRetryPolicy(-1, Duration.ZERO, Duration.ZERO, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConflictRetryPolicy(1, Duration.ofMillis(-1), Duration.ZERO, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConflictRetryPolicy(1, Duration.ZERO, Duration.ZERO, -0.1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
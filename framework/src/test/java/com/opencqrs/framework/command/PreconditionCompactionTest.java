@@ -0,0 +1,94 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.esdb.client.eventql.EventQuery;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PreconditionCompactionTest {
+
+    private final List<Precondition> preconditions = List.of(
+            new Precondition.SubjectIsOnEventId("/books/4711", "3"),
+            new Precondition.SubjectIsOnEventId("/books/4711/pages/1", "7"),
+            new Precondition.SubjectIsPristine("/books/4711/pages/2"),
+            new Precondition.SubjectIsOnEventId("/books/4711", "3"),
+            new Precondition.SubjectIsOnEventId("/books/4712", "5"));
+
+    @Test
+    public void duplicatesRemovedIfDisabled() {
+        var subject = PreconditionCompaction.none();
+
+        assertThat(subject.compact("/books/4711", SourcingMode.RECURSIVE, preconditions))
+                .containsExactly(
+                        new Precondition.SubjectIsOnEventId("/books/4711", "3"),
+                        new Precondition.SubjectIsOnEventId("/books/4711/pages/1", "7"),
+                        new Precondition.SubjectIsPristine("/books/4711/pages/2"),
+                        new Precondition.SubjectIsOnEventId("/books/4712", "5"));
+    }
+
+    @Test
+    public void subjectHierarchyCollapsedAboveThreshold() {
+        var subject = new PreconditionCompaction(2);
+
+        assertThat(subject.compact("/books/4711", SourcingMode.RECURSIVE, preconditions))
+                .containsExactly(
+                        new Precondition.EventQlQueryIsTrue(new EventQuery(
+                                "FROM e IN events WHERE (e.subject == '/books/4711' OR e.subject STARTS WITH"
+                                        + " '/books/4711/') AND (e.id AS INT) > 7 PROJECT INTO COUNT() == 0")),
+                        new Precondition.SubjectIsOnEventId("/books/4712", "5"));
+    }
+
+    @Test
+    public void pristineSubjectHierarchyCollapsedWithoutEventId() {
+        var subject = new PreconditionCompaction(1);
+
+        assertThat(subject.compact(
+                        "/books/4711",
+                        SourcingMode.RECURSIVE,
+                        List.of(
+                                new Precondition.SubjectIsPristine("/books/4711/pages/1"),
+                                new Precondition.SubjectIsPristine("/books/4711/pages/2"))))
+                .containsExactly(new Precondition.EventQlQueryIsTrue(new EventQuery(
+                        "FROM e IN events WHERE (e.subject == '/books/4711' OR e.subject STARTS WITH"
+                                + " '/books/4711/') PROJECT INTO COUNT() == 0")));
+    }
+
+    @Test
+    public void subjectHierarchyNotCollapsedAtThreshold() {
+        var subject = new PreconditionCompaction(3);
+
+        assertThat(subject.compact("/books/4711", SourcingMode.RECURSIVE, preconditions))
+                .hasSize(4)
+                .doesNotHaveAnyElementsOfTypes(Precondition.EventQlQueryIsTrue.class);
+    }
+
+    @Test
+    public void localSourcingNotCollapsed() {
+        var subject = new PreconditionCompaction(1);
+
+        assertThat(subject.compact("/books/4711", SourcingMode.LOCAL, preconditions))
+                .hasSize(4)
+                .doesNotHaveAnyElementsOfTypes(Precondition.EventQlQueryIsTrue.class);
+    }
+
+    @Test
+    public void subjectHierarchyGuardedByCollapsedPreconditionsOnly() {
+        var subject = new PreconditionCompaction(2);
+
+        assertThat(PreconditionCompaction.guardsHierarchy(
+                        "/books/4711", subject.compact("/books/4711", SourcingMode.RECURSIVE, preconditions)))
+                .isTrue();
+        assertThat(PreconditionCompaction.guardsHierarchy(
+                        "/books/47", subject.compact("/books/4711", SourcingMode.RECURSIVE, preconditions)))
+                .isFalse();
+        assertThat(PreconditionCompaction.guardsHierarchy("/books/4711", preconditions)).isFalse();
+    }
+
+    @Test
+    public void invalidConfigurationRejected() {
+        assertThatThrownBy(() -> new PreconditionCompaction(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,169 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import com.opencqrs.framework.Book;
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.BookBorrowedEvent;
+import com.opencqrs.framework.command.cache.LruInMemoryStateRebuildingCache;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import com.opencqrs.framework.command.snapshot.Snapshotting;
+import com.opencqrs.framework.persistence.EventSource;
+import com.opencqrs.framework.persistence.local.EmbeddedEventStore;
+import com.opencqrs.framework.persistence.local.EventLog;
+import com.opencqrs.framework.serialization.JacksonEventDataMarshaller;
+import com.opencqrs.framework.types.ClassNameEventTypeResolver;
+import com.opencqrs.framework.upcaster.EventUpcasters;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+public class RefreshingStateRebuildingCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EventLog eventLog;
+
+    private EmbeddedEventStore eventStore;
+
+    private final List<CacheValue<?>> snapshotted = new CopyOnWriteArrayList<>();
+
+    private RefreshingStateRebuildingCache subject;
+
+    @BeforeEach
+    public void setup() {
+        eventLog = new EventLog(directory, 4096, objectMapper);
+        eventStore = new EmbeddedEventStore(
+                eventLog,
+                objectMapper,
+                new EventSource("tag://test"),
+                new ClassNameEventTypeResolver(getClass().getClassLoader()),
+                new JacksonEventDataMarshaller(objectMapper),
+                new EventUpcasters());
+        subject = new RefreshingStateRebuildingCache(
+                new LruInMemoryStateRebuildingCache(10),
+                eventStore,
+                List.of(
+                        new StateRebuildingHandlerDefinition<>(
+                                Book.class,
+                                BookAddedEvent.class,
+                                (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                                        (book, event) -> new Book(event.isbn(), false)),
+                        new StateRebuildingHandlerDefinition<>(
+                                Book.class,
+                                BookBorrowedEvent.class,
+                                (StateRebuildingHandler.FromObject<Book, BookBorrowedEvent>)
+                                        (book, event) -> new Book(book.isbn(), true))),
+                100,
+                Duration.ofMillis(100),
+                new Snapshotting() {
+                    @Override
+                    public <I> Optional<CacheValue<I>> restore(CacheKey<I> key) {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public <I> void sourced(CacheKey<I> key, CacheValue<I> value, int sourcedEvents) {
+                        snapshotted.add(value);
+                    }
+                });
+        subject.start();
+    }
+
+    @AfterEach
+    public void close() {
+        subject.stop();
+        eventLog.close();
+    }
+
+    private CacheValue<Book> cached(CacheKey<Book> key) {
+        return subject.fetchAndMerge(key, Function.identity());
+    }
+
+    @Test
+    public void observedEventsAppliedToCachedInstances() {
+        var key = new CacheKey<>("/books/4711", Book.class, SourcingMode.RECURSIVE);
+        eventStore.publish("/books/4711", new BookAddedEvent("4711"));
+        subject.fetchAndMerge(
+                key, cached -> new CacheValue<>("0", new Book("4711", false), Map.of("/books/4711", "0")));
+
+        eventStore.publish("/books/4711/pages/1", new BookBorrowedEvent());
+
+        await().untilAsserted(() -> assertThat(cached(key))
+                .isEqualTo(new CacheValue<>(
+                        "1", new Book("4711", true), Map.of("/books/4711", "0", "/books/4711/pages/1", "1"))));
+    }
+
+    @Test
+    public void appliedEventsReportedAsSourcedForSnapshotting() {
+        var key = new CacheKey<>("/books/4711", Book.class, SourcingMode.LOCAL);
+        eventStore.publish("/books/4711", new BookAddedEvent("4711"));
+        subject.fetchAndMerge(
+                key, cached -> new CacheValue<>("0", new Book("4711", false), Map.of("/books/4711", "0")));
+
+        eventStore.publish("/books/4712", new BookAddedEvent("4712"));
+        eventStore.publish("/books/4711", new BookBorrowedEvent());
+
+        await().untilAsserted(() -> assertThat(snapshotted)
+                .containsExactly(new CacheValue<>("2", new Book("4711", true), Map.of("/books/4711", "2"))));
+    }
+
+    @Test
+    public void eventsOfUnrelatedSubjectsIgnored() {
+        var key = new CacheKey<>("/books/4711", Book.class, SourcingMode.LOCAL);
+        eventStore.publish("/books/4711", new BookAddedEvent("4711"));
+        subject.fetchAndMerge(
+                key, cached -> new CacheValue<>("0", new Book("4711", false), Map.of("/books/4711", "0")));
+
+        eventStore.publish("/books/4711/pages/1", new BookBorrowedEvent());
+        eventStore.publish("/books/4712", new BookBorrowedEvent());
+        eventStore.publish("/books/4711", new BookAddedEvent("4711-2"));
+
+        await().untilAsserted(() -> assertThat(cached(key))
+                .isEqualTo(new CacheValue<>("3", new Book("4711-2", false), Map.of("/books/4711", "3"))));
+    }
+
+    @Test
+    public void laggingInstancesNotRefreshed() {
+        var key = new CacheKey<>("/books/4711", Book.class, SourcingMode.RECURSIVE);
+        var lagging = new CacheKey<>("/books/4712", Book.class, SourcingMode.RECURSIVE);
+        eventStore.publish("/books/4711", new BookAddedEvent("4711"));
+        subject.fetchAndMerge(
+                key, cached -> new CacheValue<>("0", new Book("4711", false), Map.of("/books/4711", "0")));
+        eventStore.publish("/books/4712", new BookAddedEvent("4712"));
+        eventStore.publish("/books/4711", new BookBorrowedEvent());
+        await().untilAsserted(() -> assertThat(cached(key).eventId()).isEqualTo("2"));
+
+        subject.fetchAndMerge(lagging, cached -> new CacheValue<>("0", null, Map.of()));
+        eventStore.publish("/books/4712", new BookBorrowedEvent());
+        eventStore.publish("/books/4711", new BookAddedEvent("4711-2"));
+        await().untilAsserted(() -> assertThat(cached(key).eventId()).isEqualTo("4"));
+
+        assertThat(cached(lagging)).isEqualTo(new CacheValue<>("0", null, Map.of()));
+    }
+
+    @Test
+    public void stoppedUponRequest() {
+        assertThat(subject.isRunning()).isTrue();
+        assertThatThrownBy(() -> subject.start()).isInstanceOf(IllegalStateException.class);
+
+        subject.stop();
+
+        assertThat(subject.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.esdb.client.Event;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class StateRebuildingHandlersTest {
+
+    private final Event rawEvent = new Event(
+            "source",
+            "/books/4711",
+            "type",
+            Map.of(),
+            "1.0",
+            "42",
+            Instant.now(),
+            "application/json",
+            "hash",
+            "predecessor");
+
+    @Test
+    public void appliesAllAssignableHandlersInDefinitionOrder() {
+        var subject = new StateRebuildingHandlers<>(List.of(
+                definition(Object.class, (StateRebuildingHandler.FromObject<String, Object>)
+                        (instance, event) -> instance + "|object"),
+                definition(Number.class, (StateRebuildingHandler.FromObjectAndMetaData<String, Number>)
+                        (instance, event, metaData) -> instance + "|number:" + metaData.get("key")),
+                definition(String.class, (StateRebuildingHandler.FromObject<String, String>)
+                        (instance, event) -> instance + "|string"),
+                definition(Integer.class, (StateRebuildingHandler.FromObjectAndMetaDataAndSubjectAndRawEvent<
+                                String, Integer>)
+                        (instance, event, metaData, eventSubject, raw) ->
+                                instance + "|integer:" + eventSubject + ":" + raw.id())));
+
+        assertThat(subject.rebuild("initial")
+                        .apply("/books/4711", 42, Map.of("key", "value"), rawEvent)
+                        .instance())
+                .isEqualTo("initial|object|number:value|integer:/books/4711:42");
+        assertThat(subject.rebuild("initial")
+                        .apply("/books/4711", 42L, Map.of("key", "value"), rawEvent)
+                        .instance())
+                .isEqualTo("initial|object|number:value");
+        assertThat(subject.rebuild("initial")
+                        .apply("/books/4711", "event", Map.of(), null)
+                        .instance())
+                .isEqualTo("initial|object|string");
+    }
+
+    @Test
+    public void keepsInstanceIfNoHandlerApplies() {
+        var subject = new StateRebuildingHandlers<>(List.of(definition(
+                Integer.class,
+                (StateRebuildingHandler.FromObjectAndRawEvent<String, Integer>) (instance, event, raw) -> "modified")));
+
+        assertThat(subject.rebuild("initial")
+                        .apply("/books/4711", 42L, Map.of(), rawEvent)
+                        .instance())
+                .isEqualTo("initial");
+    }
+
+    @Test
+    public void inPlaceHandlersMutateCopyOfSharedInstanceOncePerRebuild() {
+        var subject = new StateRebuildingHandlers<>(List.of(new StateRebuildingHandlerDefinition<>(
+                Counter.class,
+                Object.class,
+                (StateRebuildingHandler.InPlace<Counter, Object>) (instance, event) -> instance.value++)));
+        var shared = new Counter(0);
+
+        var rebuild = subject.rebuild(shared);
+        var first = rebuild.apply("/books/4711", "event", Map.of(), rawEvent).instance();
+        var second = rebuild.apply("/books/4711", "event", Map.of(), rawEvent).instance();
+
+        assertThat(shared.value).isZero();
+        assertThat(shared.copies).isEqualTo(1);
+        assertThat(first).isNotSameAs(shared).isSameAs(second);
+        assertThat(second.value).isEqualTo(2);
+    }
+
+    @Test
+    public void inPlaceHandlersCopyInstanceReturnedFromOtherHandlers() {
+        var returned = new Counter(10);
+        var subject = new StateRebuildingHandlers<>(List.of(
+                new StateRebuildingHandlerDefinition<>(
+                        Counter.class,
+                        Object.class,
+                        (StateRebuildingHandler.FromObject<Counter, Object>) (instance, event) -> returned),
+                new StateRebuildingHandlerDefinition<>(
+                        Counter.class,
+                        Object.class,
+                        (StateRebuildingHandler.InPlace<Counter, Object>) (instance, event) -> instance.value++)));
+
+        var rebuilt = subject.rebuild(null)
+                .apply("/books/4711", "event", Map.of(), rawEvent)
+                .instance();
+
+        assertThat(returned.value).isEqualTo(10);
+        assertThat(rebuilt).isNotSameAs(returned);
+        assertThat(rebuilt.value).isEqualTo(11);
+    }
+
+    @Test
+    public void inPlaceHandlersRequireExistingInstance() {
+        var subject = new StateRebuildingHandlers<>(List.of(new StateRebuildingHandlerDefinition<>(
+                Counter.class,
+                Object.class,
+                (StateRebuildingHandler.InPlace<Counter, Object>) (instance, event) -> instance.value++)));
+
+        assertThatThrownBy(() -> subject.rebuild(null).apply("/books/4711", "event", Map.of(), rawEvent))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void inPlaceHandlersRequireMutableStateInstanceType() {
+        assertThatThrownBy(() -> new StateRebuildingHandlerDefinition<>(
+                        String.class,
+                        Object.class,
+                        (StateRebuildingHandler.InPlace<String, Object>) (instance, event) -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> StateRebuildingHandlerDefinition<String, Object> definition(
+            Class<E> eventClass, StateRebuildingHandler<String, E> handler) {
+        return new StateRebuildingHandlerDefinition(String.class, eventClass, handler);
+    }
+
+    private static class Counter implements MutableState<Counter> {
+
+        int value;
+        int copies;
+
+        Counter(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public Counter copy() {
+            copies++;
+            return new Counter(value);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+public class ObjectSizeEstimatorTest {
+
+    @Test
+    public void recordStateEstimatedDeeply() {
+        var small = new Shelf(List.of("x"));
+        var large = new Shelf(List.of("x".repeat(10_000)));
+
+        assertThat(ObjectSizeEstimator.estimate(large) - ObjectSizeEstimator.estimate(small))
+                .isGreaterThanOrEqualTo(9_999);
+    }
+
+    @Test
+    public void mutableStateEstimatedDeeply() {
+        var small = new Library();
+        var large = new Library();
+        for (int i = 0; i < 1_000; i++) {
+            large.titles.add("title-" + "x".repeat(100) + i);
+            large.lent.put("isbn-" + i, i);
+        }
+
+        assertThat(ObjectSizeEstimator.estimate(large) - ObjectSizeEstimator.estimate(small))
+                .isGreaterThanOrEqualTo(100_000);
+    }
+
+    @Test
+    public void cyclicMutableStateEstimated() {
+        var library = new Library();
+        library.self = library;
+
+        assertThat(ObjectSizeEstimator.estimate(library)).isPositive();
+    }
+
+    record Shelf(List<String> titles) {}
+
+    static class Library {
+        final List<String> titles = new ArrayList<>();
+        final Map<String, Integer> lent = new HashMap<>();
+        @Nullable Library self;
+    }
+}
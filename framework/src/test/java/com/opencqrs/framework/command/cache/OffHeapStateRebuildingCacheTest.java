@@ -0,0 +1,120 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.Book;
+import com.opencqrs.framework.command.SourcingMode;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+public class OffHeapStateRebuildingCacheTest {
+
+    private final StateCodec codec = new JacksonStateCodec(new ObjectMapper());
+
+    private static CacheKey<Book> key(int i) {
+        return new CacheKey<>("/books/" + i, Book.class, SourcingMode.RECURSIVE);
+    }
+
+    private static CacheValue<Book> value(int i) {
+        return new CacheValue<>("" + i, new Book("isbn-" + i, i % 2 == 0), Map.of("/books/" + i, "" + i));
+    }
+
+    private static void put(StateRebuildingCache subject, int i) {
+        subject.fetchAndMerge(key(i), cached -> value(i));
+    }
+
+    @Test
+    public void valuesEvictedFromHeapFetchedFromOffHeap() {
+        var subject = new OffHeapStateRebuildingCache(2, 1024 * 1024, codec);
+        IntStream.range(0, 10).forEach(i -> put(subject, i));
+
+        IntStream.range(0, 10).forEach(i -> assertThat(subject.fetchAndMerge(key(i), cached -> cached))
+                .isEqualTo(value(i)));
+    }
+
+    @Test
+    public void oldestValuesDiscardedIfOffHeapCapacityExhausted() {
+        var subject = new OffHeapStateRebuildingCache(1, 256, codec);
+        IntStream.range(0, 10).forEach(i -> put(subject, i));
+
+        assertThat(subject.fetchAndMerge(key(0), cached -> cached).eventId()).isNull();
+        assertThat(subject.fetchAndMerge(key(8), cached -> cached)).isEqualTo(value(8));
+    }
+
+    @Test
+    public void undecodableValuesDiscarded() {
+        var failingCodec = new StateCodec() {
+            @Override
+            public byte[] encode(Object instance) {
+                return codec.encode(instance);
+            }
+
+            @Override
+            public <I> I decode(Class<I> instanceClass, byte[] bytes) {
+                throw new IllegalStateException("incompatible");
+            }
+        };
+        var subject = new OffHeapStateRebuildingCache(1, 1024, failingCodec);
+        put(subject, 1);
+        put(subject, 2);
+
+        assertThat(subject.fetchAndMerge(key(1), cached -> cached).eventId()).isNull();
+    }
+
+    @Test
+    public void mergeFunctionAppliedToValueFetchedFromOffHeap() {
+        var subject = new OffHeapStateRebuildingCache(1, 1024, codec);
+        put(subject, 1);
+        put(subject, 2);
+
+        var merged = subject.fetchAndMerge(
+                key(1),
+                cached -> new CacheValue<>(
+                        "3", new Book(cached.instance().isbn(), true), Map.of("/books/1", "3")));
+
+        assertThat(merged).isEqualTo(new CacheValue<>("3", new Book("isbn-1", true), Map.of("/books/1", "3")));
+    }
+
+    @Test
+    public void promotedValuesRemovedFromOffHeap() {
+        var subject = new OffHeapStateRebuildingCache(1, 1024, codec);
+        put(subject, 1);
+        put(subject, 2);
+        assertThat(subject.offHeap.get(key(1))).isNotNull();
+
+        assertThat(subject.fetchAndMerge(key(1), cached -> cached)).isEqualTo(value(1));
+
+        assertThat(subject.offHeap.get(key(1))).isNull();
+        assertThat(subject.offHeap.get(key(2))).isNotNull();
+        assertThat(subject.offHeap.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictedValuesEncodedOutsideHeapLock() {
+        var heapLockHeld = new AtomicBoolean();
+        var subject = new AtomicReference<OffHeapStateRebuildingCache>();
+        subject.set(new OffHeapStateRebuildingCache(1, 1024, new StateCodec() {
+            @Override
+            public byte[] encode(Object instance) {
+                heapLockHeld.compareAndSet(false, Thread.holdsLock(subject.get().heap.cache));
+                return codec.encode(instance);
+            }
+
+            @Override
+            public <I> I decode(Class<I> instanceClass, byte[] bytes) {
+                return codec.decode(instanceClass, bytes);
+            }
+        }));
+        IntStream.range(0, 3).forEach(i -> put(subject.get(), i));
+
+        assertThat(subject.get().offHeap.size()).isEqualTo(2);
+        assertThat(heapLockHeld).isFalse();
+    }
+}
@@ -0,0 +1,94 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class OffHeapStateStoreTest {
+
+    private final OffHeapStateStore subject = new OffHeapStateStore(10);
+
+    @Test
+    public void storedBytesRetrieved() {
+        subject.put("a", new byte[] {1, 2, 3});
+
+        assertThat(subject.get("a")).containsExactly(1, 2, 3);
+        assertThat(subject.get("b")).isNull();
+    }
+
+    @Test
+    public void oldestEntriesEvictedIfCapacityExhausted() {
+        subject.put("a", new byte[4]);
+        subject.put("b", new byte[4]);
+        subject.put("c", new byte[4]);
+
+        assertThat(subject.get("a")).isNull();
+        assertThat(subject.get("b")).hasSize(4);
+        assertThat(subject.get("c")).hasSize(4);
+    }
+
+    @Test
+    public void entriesWrappedAroundBufferEnd() {
+        subject.put("a", new byte[] {1, 1, 1, 1, 1, 1});
+        subject.put("b", new byte[] {2, 2, 2, 2, 2, 2});
+
+        assertThat(subject.get("a")).isNull();
+        assertThat(subject.get("b")).containsExactly(2, 2, 2, 2, 2, 2);
+    }
+
+    @Test
+    public void replacedEntriesReclaimed() {
+        subject.put("a", new byte[] {1, 1, 1});
+        subject.put("a", new byte[] {2, 2, 2});
+        subject.put("b", new byte[] {3, 3, 3});
+        subject.put("c", new byte[] {4, 4, 4});
+
+        assertThat(subject.get("a")).containsExactly(2, 2, 2);
+        assertThat(subject.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void entriesExceedingCapacityNotStored() {
+        subject.put("a", new byte[] {1});
+        subject.put("a", new byte[11]);
+
+        assertThat(subject.get("a")).isNull();
+    }
+
+    @Test
+    public void takenEntriesRemoved() {
+        subject.put("a", new byte[] {1, 1, 1, 1});
+        subject.put("b", new byte[] {2, 2, 2, 2});
+
+        assertThat(subject.take("a")).containsExactly(1, 1, 1, 1);
+        assertThat(subject.take("a")).isNull();
+
+        subject.put("c", new byte[] {3, 3, 3, 3});
+
+        assertThat(subject.get("b")).containsExactly(2, 2, 2, 2);
+        assertThat(subject.get("c")).containsExactly(3, 3, 3, 3);
+    }
+
+    @Test
+    public void entriesStoredAcrossSegments() {
+        var segmented = new OffHeapStateStore(10, 4);
+        segmented.put("a", new byte[] {1, 1, 1});
+        segmented.put("b", new byte[] {2, 2, 2});
+        segmented.put("c", new byte[] {3, 3});
+        segmented.put("d", new byte[] {4, 4, 4});
+
+        assertThat(segmented.get("a")).isNull();
+        assertThat(segmented.get("b")).containsExactly(2, 2, 2);
+        assertThat(segmented.get("c")).containsExactly(3, 3);
+        assertThat(segmented.get("d")).containsExactly(4, 4, 4);
+    }
+
+    @Test
+    public void entriesExceedingSegmentSizeNotStored() {
+        var segmented = new OffHeapStateStore(10, 4);
+        segmented.put("a", new byte[5]);
+
+        assertThat(segmented.get("a")).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import com.opencqrs.framework.Book;
+import com.opencqrs.framework.command.SourcingMode;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightStateRebuildingCacheTest {
+
+    private final CacheKey<Book> cacheKey = new CacheKey<>("/books/4711", Book.class, SourcingMode.RECURSIVE);
+
+    private final SingleFlightStateRebuildingCache subject =
+            new SingleFlightStateRebuildingCache(new NoStateRebuildingCache());
+
+    @Test
+    public void concurrentMergesShareResultOfFirstMerge() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var mergedFrom = new CopyOnWriteArrayList<String>();
+
+        var leader = Thread.ofVirtual().start(() -> subject.fetchAndMerge(cacheKey, cached -> {
+            mergedFrom.add(String.valueOf(cached.eventId()));
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return new CacheValue<>("42", new Book("4711", false), Map.of("/books/4711", "42"));
+        }));
+        await().until(() -> mergedFrom.size() == 1);
+
+        List<Thread> followers = new ArrayList<>();
+        var results = new CopyOnWriteArrayList<CacheValue<Book>>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(Thread.ofVirtual().start(() -> {
+                results.add(subject.fetchAndMerge(cacheKey, cached -> {
+                    mergedFrom.add(String.valueOf(cached.eventId()));
+                    return cached;
+                }));
+            }));
+        }
+        await().until(() -> followers.stream().allMatch(follower -> follower.getState() == Thread.State.WAITING));
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        assertThat(mergedFrom).containsExactly("null", "42", "42", "42");
+        assertThat(results).hasSize(3).allSatisfy(result -> assertThat(result.eventId())
+                .isEqualTo("42"));
+    }
+
+    @Test
+    public void concurrentMergesMergedIndependentlyIfFirstMergeFails() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var leader = Thread.ofVirtual().start(() -> assertThatThrownBy(() -> subject.fetchAndMerge(cacheKey, cached -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    throw new IllegalStateException("failed");
+                }))
+                .isInstanceOf(IllegalStateException.class));
+        started.await();
+
+        var result = new CopyOnWriteArrayList<CacheValue<Book>>();
+        var follower = Thread.ofVirtual()
+                .start(() -> result.add(subject.fetchAndMerge(
+                        cacheKey, cached -> new CacheValue<>(cached.eventId() == null ? "1" : "2", null, Map.of()))));
+        await().until(() -> follower.getState() == Thread.State.WAITING);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertThat(result).singleElement().extracting(CacheValue::eventId).isEqualTo("1");
+    }
+
+    @Test
+    public void reentrantMergeForSameKeyNotBlocked() {
+        var merged = subject.fetchAndMerge(
+                cacheKey,
+                cached -> subject.fetchAndMerge(
+                        cacheKey, nested -> new CacheValue<>("1", new Book("4711", false), Map.of())));
+
+        assertThat(merged.eventId()).isEqualTo("1");
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.Book;
+import com.opencqrs.framework.command.SourcingMode;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class TinyLfuStateRebuildingCacheTest {
+
+    private static CacheKey<Book> key(String isbn) {
+        return new CacheKey<>("/books/" + isbn, Book.class, SourcingMode.RECURSIVE);
+    }
+
+    private static CacheValue<Book> fetch(TinyLfuStateRebuildingCache subject, String isbn) {
+        return subject.fetchAndMerge(key(isbn), cached -> cached.eventId() != null
+                ? cached
+                : new CacheValue<>("1", new Book(isbn, false), Map.of("/books/" + isbn, "1")));
+    }
+
+    @Test
+    public void cachedValueFetched() {
+        var subject = new TinyLfuStateRebuildingCache(10);
+        var cached = fetch(subject, "4711");
+
+        assertThat(subject.fetchAndMerge(key("4711"), value -> value)).isEqualTo(cached);
+        assertThat(subject.statistics())
+                .extracting(
+                        TinyLfuStateRebuildingCache.Statistics::hitCount,
+                        TinyLfuStateRebuildingCache.Statistics::missCount,
+                        TinyLfuStateRebuildingCache.Statistics::entryCount)
+                .containsExactly(1L, 1L, 1L);
+    }
+
+    @Test
+    public void newestCacheValueBasedOnEventIdWinsIfConcurrentUpdate() {
+        var subject = new TinyLfuStateRebuildingCache(5);
+        var cacheKey = key("4711");
+        var expectedNewestCacheValue =
+                new CacheValue<>("4", new Book("4711", true), Map.of("/books/4711", "2", "/books/4711/pages/42", "3"));
+
+        var merged = subject.fetchAndMerge(cacheKey, ignored1 -> {
+            subject.fetchAndMerge(cacheKey, ignored2 -> expectedNewestCacheValue);
+
+            return new CacheValue<>("3", new Book("4711", true), Map.of("/books/4711", "2"));
+        });
+
+        assertThat(merged).isEqualTo(expectedNewestCacheValue);
+        assertThat(subject.fetchAndMerge(cacheKey, value -> value)).isEqualTo(expectedNewestCacheValue);
+    }
+
+    @Test
+    public void valuesWithoutEventIdNotCached() {
+        var subject = new TinyLfuStateRebuildingCache(5);
+
+        subject.fetchAndMerge(key("4711"), value -> value);
+
+        assertThat(subject.contains(key("4711"))).isFalse();
+    }
+
+    @Test
+    public void frequentlyUsedEntriesRetainedDuringScan() {
+        var subject = new TinyLfuStateRebuildingCache(100);
+        for (int round = 0; round < 10; round++) {
+            IntStream.range(0, 50).forEach(i -> fetch(subject, "hot-" + i));
+        }
+
+        IntStream.range(0, 10_000).forEach(i -> fetch(subject, "scan-" + i));
+
+        assertThat(IntStream.range(0, 50).filter(i -> subject.contains(key("hot-" + i))))
+                .hasSizeGreaterThanOrEqualTo(45);
+        assertThat(subject.statistics().entryCount()).isEqualTo(100);
+        assertThat(subject.statistics().evictionCount()).isEqualTo(9_950);
+    }
+
+    @Test
+    public void cacheBoundedByWeight() {
+        var subject = new TinyLfuStateRebuildingCache(
+                100, Map.of(), (key, value) -> value.instance() != null ? 10 : 1, null);
+
+        IntStream.range(0, 50).forEach(i -> fetch(subject, "" + i));
+
+        assertThat(subject.statistics().entryCount()).isEqualTo(10);
+        assertThat(subject.statistics().weightedSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void entriesExpiredAfterWrite() {
+        var ticker = new AtomicLong();
+        var subject = new TinyLfuStateRebuildingCache(
+                10, Map.of(), StateWeigher.entries(), Duration.ofSeconds(10), ticker::get);
+        fetch(subject, "4711");
+
+        ticker.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(subject.fetchAndMerge(key("4711"), value -> value).eventId())
+                .isEqualTo("1");
+
+        ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(subject.fetchAndMerge(key("4711"), value -> value).eventId())
+                .isNull();
+        assertThat(subject.contains(key("4711"))).isFalse();
+    }
+
+    @Test
+    public void instanceClassesWithDedicatedCapacityCachedSeparately() {
+        var subject = new TinyLfuStateRebuildingCache(2, Map.of(Book.class, 10L), StateWeigher.entries(), null);
+        var others = new ArrayList<CacheKey<String>>();
+        IntStream.range(0, 10).forEach(i -> {
+            var other = new CacheKey<>("/others/" + i, String.class, SourcingMode.LOCAL);
+            others.add(other);
+            subject.fetchAndMerge(other, value -> new CacheValue<>("1", "other", Map.of()));
+        });
+
+        List.of("1", "2", "3", "4", "5").forEach(isbn -> fetch(subject, isbn));
+
+        assertThat(List.of("1", "2", "3", "4", "5")).allSatisfy(isbn -> assertThat(subject.contains(key(isbn)))
+                .isTrue());
+        assertThat(others.stream().filter(subject::contains)).hasSize(2);
+    }
+
+    @Test
+    public void estimatedBytesWeigherAccountsForInstanceSize() {
+        var weigher = StateWeigher.estimatedBytes();
+        var small = new CacheValue<>("1", new Book("4711", false), Map.of());
+        var large = new CacheValue<>("1", new Book("4711".repeat(1000), false), Map.of());
+
+        assertThat(weigher.weigh(key("4711"), large)).isGreaterThan(weigher.weigh(key("4711"), small) + 3000);
+    }
+
+    @Test
+    public void invalidConfigurationRejected() {
+        assertThatThrownBy(() -> new TinyLfuStateRebuildingCache(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TinyLfuStateRebuildingCache(
+                        10, Map.of(), StateWeigher.entries(), Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,120 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.locking;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class StripedSubjectLockingTest {
+
+    private final StripedSubjectLocking subject = new StripedSubjectLocking(1024);
+
+    @Test
+    public void invalidStripesRejected() {
+        assertThatThrownBy(() -> new StripedSubjectLocking(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void actionResultReturned() {
+        assertThat(subject.withLock("/books/4711", () -> 42)).isEqualTo(42);
+    }
+
+    @Test
+    public void lockReentrant() {
+        assertThat(subject.withLock("/books/4711", () -> subject.withLock("/books/4711", () -> "nested")))
+                .isEqualTo("nested");
+    }
+
+    @Test
+    public void nestedLocksForOtherSubjectsDoNotDeadlock() throws InterruptedException {
+        var outerLocked = new CountDownLatch(2);
+        var results = new ConcurrentLinkedQueue<String>();
+        Thread first = Thread.ofVirtual().start(() -> results.add(subject.withLock("/books/4711", () -> {
+            awaitOther(outerLocked);
+            return subject.withLock("/books/4712", () -> "first");
+        })));
+        Thread second = Thread.ofVirtual().start(() -> results.add(subject.withLock("/books/4712", () -> {
+            awaitOther(outerLocked);
+            return subject.withLock("/books/4711", () -> "second");
+        })));
+
+        assertThat(first.join(Duration.ofSeconds(5))).isTrue();
+        assertThat(second.join(Duration.ofSeconds(5))).isTrue();
+        assertThat(results).containsExactlyInAnyOrder("first", "second");
+        assertThat(subject.stripeFor("/books/4711").isLocked()).isFalse();
+        assertThat(subject.stripeFor("/books/4712").isLocked()).isFalse();
+    }
+
+    private static void awaitOther(CountDownLatch outerLocked) {
+        outerLocked.countDown();
+        try {
+            outerLocked.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void lockReleasedOnException() {
+        var exception = new RuntimeException("test");
+
+        assertThatThrownBy(() -> subject.withLock("/books/4711", () -> {
+                    throw exception;
+                }))
+                .isSameAs(exception);
+        assertThat(subject.stripeFor("/books/4711").isLocked()).isFalse();
+    }
+
+    @Test
+    public void sameSubjectBlocked() throws InterruptedException {
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> subject.withLock("/books/4711", () -> {
+            locked.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> subject.withLock("/books/4711", () -> {
+            acquired.countDown();
+            return null;
+        }));
+        assertThat(acquired.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        release.countDown();
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        holder.join();
+        waiter.join();
+    }
+
+    @Test
+    public void differentStripesNotBlocked() throws InterruptedException {
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> subject.withLock("/books/4711", () -> {
+            locked.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        String other = "/books/4712";
+        assertThat(subject.stripeFor(other)).isNotSameAs(subject.stripeFor("/books/4711"));
+        assertThat(subject.withLock(other, () -> "done")).isEqualTo("done");
+
+        release.countDown();
+        holder.join();
+    }
+}
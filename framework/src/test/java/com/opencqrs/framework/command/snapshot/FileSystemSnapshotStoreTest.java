@@ -0,0 +1,101 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.command.SourcingMode;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileSystemSnapshotStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private Snapshot snapshot(String subject, String eventId, String state) {
+        return new Snapshot(
+                subject,
+                "com.example.Book",
+                SourcingMode.RECURSIVE,
+                "0011223344556677",
+                eventId,
+                Map.of(subject, eventId),
+                "com.example.Book",
+                state.getBytes());
+    }
+
+    @Test
+    public void missingSnapshotNotLoaded() {
+        var subject = new FileSystemSnapshotStore(directory);
+
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.RECURSIVE)).isEmpty();
+    }
+
+    @Test
+    public void savedSnapshotLoaded() {
+        var subject = new FileSystemSnapshotStore(directory);
+        subject.save(snapshot("/books/4711", "42", "state"));
+
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.subject()).isEqualTo("/books/4711");
+                    assertThat(loaded.eventId()).isEqualTo("42");
+                    assertThat(loaded.version()).isEqualTo("0011223344556677");
+                    assertThat(loaded.sourcedSubjectIds()).isEqualTo(Map.of("/books/4711", "42"));
+                    assertThat(loaded.state()).isEqualTo("state".getBytes());
+                });
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.LOCAL)).isEmpty();
+        assertThat(subject.load("/books/4712", "com.example.Book", SourcingMode.RECURSIVE)).isEmpty();
+    }
+
+    @Test
+    public void savedSnapshotReplacedAndKeptUponReopen() {
+        new FileSystemSnapshotStore(directory).save(snapshot("/books/4711", "42", "old"));
+        new FileSystemSnapshotStore(directory).save(snapshot("/books/4711", "43", "new"));
+
+        var subject = new FileSystemSnapshotStore(directory);
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.eventId()).isEqualTo("43");
+                    assertThat(loaded.state()).isEqualTo("new".getBytes());
+                });
+        assertThat(directory.toFile().list()).hasSize(1);
+    }
+
+    @Test
+    public void olderSnapshotsNotSaved() {
+        var subject = new FileSystemSnapshotStore(directory);
+        subject.save(snapshot("/books/4711", "10", "newer"));
+
+        subject.save(snapshot("/books/4711", "9", "older"));
+        subject.save(snapshot("/books/4711", "10", "same"));
+
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> assertThat(loaded.state()).isEqualTo("newer".getBytes()));
+    }
+
+    @Test
+    public void snapshotsOrderedByEventsWrittenThrough() {
+        var subject = new FileSystemSnapshotStore(directory);
+        subject.save(snapshot("/books/4711", "42", "old"));
+
+        subject.save(new Snapshot(
+                "/books/4711",
+                "com.example.Book",
+                SourcingMode.RECURSIVE,
+                "0011223344556677",
+                "42",
+                Map.of("/books/4711", "40", "/books/4711/pages/1", "43"),
+                "com.example.Book",
+                "new".getBytes()));
+
+        assertThat(subject.load("/books/4711", "com.example.Book", SourcingMode.RECURSIVE))
+                .hasValueSatisfying(loaded -> {
+                    assertThat(loaded.eventId()).isEqualTo("42");
+                    assertThat(loaded.position()).isEqualTo(43);
+                    assertThat(loaded.state()).isEqualTo("new".getBytes());
+                });
+    }
+}
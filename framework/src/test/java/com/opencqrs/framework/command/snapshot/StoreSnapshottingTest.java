@@ -0,0 +1,129 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.command.snapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.Book;
+import com.opencqrs.framework.command.SourcingMode;
+import com.opencqrs.framework.command.cache.JacksonStateCodec;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheKey;
+import com.opencqrs.framework.command.cache.StateRebuildingCache.CacheValue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+public class StoreSnapshottingTest {
+
+    private final InMemorySnapshotStore store = new InMemorySnapshotStore();
+    private final AtomicLong ticker = new AtomicLong();
+    private final StoreSnapshotting subject = new StoreSnapshotting(
+            store,
+            new JacksonStateCodec(new ObjectMapper()),
+            Runnable::run,
+            10,
+            Duration.ofMinutes(1),
+            ticker::get);
+
+    private final CacheKey<Book> key = new CacheKey<>("/books/4711", Book.class, SourcingMode.RECURSIVE);
+
+    private CacheValue<Book> value(String eventId, boolean lent) {
+        return new CacheValue<>(eventId, new Book("4711", lent), Map.of("/books/4711", eventId));
+    }
+
+    @Test
+    public void snapshotTakenOnceEventThresholdReached() {
+        subject.sourced(key, value("8", false), 9);
+        assertThat(store.saved).isEmpty();
+
+        subject.sourced(key, value("9", true), 1);
+        assertThat(store.saved).hasSize(1);
+
+        assertThat(subject.restore(key)).hasValue(value("9", true));
+    }
+
+    @Test
+    public void snapshotTakenOnceIntervalElapsed() {
+        subject.sourced(key, value("0", false), 1);
+        ticker.addAndGet(Duration.ofSeconds(59).toNanos());
+        subject.sourced(key, value("1", false), 1);
+        assertThat(store.saved).isEmpty();
+
+        ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+        subject.sourced(key, value("2", true), 1);
+        assertThat(store.saved).hasSize(1);
+        assertThat(subject.restore(key)).hasValue(value("2", true));
+    }
+
+    @Test
+    public void noSnapshotTakenWithoutSourcedEvents() {
+        ticker.addAndGet(Duration.ofHours(1).toNanos());
+        subject.sourced(key, value("0", false), 0);
+        subject.sourced(new CacheKey<>("/books/4711", Book.class, SourcingMode.NONE), value("0", false), 10);
+
+        assertThat(store.saved).isEmpty();
+    }
+
+    @Test
+    public void snapshotOfOutdatedVersionDiscarded() {
+        subject.sourced(key, value("9", true), 10);
+        Snapshot saved = store.saved.getFirst();
+        store.save(new Snapshot(
+                saved.subject(),
+                saved.instanceType(),
+                saved.sourcingMode(),
+                "0000000000000000",
+                saved.eventId(),
+                saved.sourcedSubjectIds(),
+                saved.stateType(),
+                saved.state()));
+
+        assertThat(subject.restore(key)).isEmpty();
+    }
+
+    @Test
+    public void undecodableSnapshotDiscarded() {
+        store.save(new Snapshot(
+                key.subject(),
+                Book.class.getName(),
+                SourcingMode.RECURSIVE,
+                StoreSnapshotting.version(Book.class),
+                "9",
+                Map.of(),
+                Book.class.getName(),
+                "{broken".getBytes()));
+
+        assertThat(subject.restore(key)).isEmpty();
+    }
+
+    @Test
+    public void versionDerivedFromStateFields() {
+        assertThat(StoreSnapshotting.version(Book.class))
+                .isEqualTo(StoreSnapshotting.version(Book.class))
+                .isNotEqualTo(StoreSnapshotting.version(BookV2.class));
+    }
+
+    record BookV2(String isbn, Boolean lent, String title) {}
+
+    static class InMemorySnapshotStore implements SnapshotStore {
+
+        final List<Snapshot> saved = new ArrayList<>();
+        final Map<String, Snapshot> snapshots = new HashMap<>();
+
+        @Override
+        public Optional<Snapshot> load(String subject, String instanceType, SourcingMode sourcingMode) {
+            return Optional.ofNullable(snapshots.get(subject + instanceType + sourcingMode));
+        }
+
+        @Override
+        public void save(Snapshot snapshot) {
+            saved.add(snapshot);
+            snapshots.put(snapshot.subject() + snapshot.instanceType() + snapshot.sourcingMode(), snapshot);
+        }
+    }
+}
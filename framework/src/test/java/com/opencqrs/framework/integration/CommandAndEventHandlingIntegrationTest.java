@@ -14,7 +14,10 @@ import com.opencqrs.framework.client.ConcurrencyException;
 import com.opencqrs.framework.command.*;
 import com.opencqrs.framework.eventhandler.EventHandling;
 import com.opencqrs.framework.eventhandler.EventHandlingProcessorLifecycleController;
+import com.opencqrs.framework.persistence.CapturedEvent;
+import com.opencqrs.framework.persistence.EventPublisher;
 import com.opencqrs.framework.persistence.EventRepository;
+import com.opencqrs.framework.persistence.ImmediateEventPublisher;
 import com.opencqrs.framework.serialization.EventData;
 import com.opencqrs.framework.serialization.EventDataMarshaller;
 import com.opencqrs.framework.types.EventTypeResolver;
@@ -23,9 +26,11 @@ import com.opencqrs.framework.upcaster.EventUpcaster;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -384,6 +389,78 @@ public class CommandAndEventHandlingIntegrationTest {
         assertThatThrownBy(() -> commandRouter.send(command)).isInstanceOf(ConcurrencyException.class);
     }
 
+    record CompactedBorrowBookCommand(String subject, Runnable beforePublishing) implements Command {
+        @Override
+        public String getSubject() {
+            return subject();
+        }
+    }
+
+    private static CommandRouter compactingCommandRouter(
+            EventRepository eventRepository, List<Precondition> publishedPreconditions) {
+        CommandHandlerDefinition<Book, CompactedBorrowBookCommand, Void> chd = new CommandHandlerDefinition<>(
+                Book.class,
+                CompactedBorrowBookCommand.class,
+                (CommandHandler.ForCommand<Book, CompactedBorrowBookCommand, Void>) (command, eventPublisher) -> {
+                    command.beforePublishing().run();
+                    eventPublisher.publish(new BookBorrowedEvent());
+                    return null;
+                },
+                SourcingMode.RECURSIVE);
+        StateRebuildingHandlerDefinition<Book, BookAddedEvent> srhd = new StateRebuildingHandlerDefinition<>(
+                Book.class, BookAddedEvent.class, (StateRebuildingHandler.FromObject<Book, BookAddedEvent>)
+                        (book, event) -> new Book(event.isbn(), false));
+        var publisher = new ImmediateEventPublisher() {
+            @Override
+            public List<Event> publish(Consumer<EventPublisher> handler, List<Precondition> additionalPreconditions) {
+                return eventRepository.publish(handler, additionalPreconditions);
+            }
+
+            @Override
+            public List<Event> publish(List<CapturedEvent> events, List<Precondition> additionalPreconditions) {
+                publishedPreconditions.addAll(additionalPreconditions);
+                return eventRepository.publish(events, additionalPreconditions);
+            }
+        };
+
+        return CommandRouter.builder(eventRepository, publisher, List.of(chd), List.of(srhd))
+                .preconditionCompaction(new PreconditionCompaction(1))
+                .build();
+    }
+
+    @Test
+    public void compactedPreconditionsSatisfiedForUnmodifiedSubjectHierarchy(
+            @Autowired EventRepository eventRepository) {
+        var subject = "/books/" + UUID.randomUUID();
+        eventRepository.publish(subject, new BookAddedEvent("irrelevant"));
+        eventRepository.publish(subject + "/pages/1", new BookAddedEvent("irrelevant"));
+        eventRepository.publish(subject + "/pages/2", new BookAddedEvent("irrelevant"));
+        List<Precondition> preconditions = new ArrayList<>();
+
+        compactingCommandRouter(eventRepository, preconditions).send(new CompactedBorrowBookCommand(subject, () -> {}));
+
+        assertThat(preconditions).singleElement().isInstanceOf(Precondition.EventQlQueryIsTrue.class);
+        assertThat(client.read(subject, Set.of())).hasSize(2);
+    }
+
+    @Test
+    public void compactedPreconditionsViolatedForConcurrentlyModifiedSubjectHierarchy(
+            @Autowired EventRepository eventRepository) {
+        var subject = "/books/" + UUID.randomUUID();
+        eventRepository.publish(subject, new BookAddedEvent("irrelevant"));
+        eventRepository.publish(subject + "/pages/1", new BookAddedEvent("irrelevant"));
+        eventRepository.publish(subject + "/pages/2", new BookAddedEvent("irrelevant"));
+        List<Precondition> preconditions = new ArrayList<>();
+
+        assertThatThrownBy(() -> compactingCommandRouter(eventRepository, preconditions)
+                        .send(new CompactedBorrowBookCommand(
+                                subject,
+                                () -> eventRepository.publish(subject + "/pages/2", new BookAddedEvent("irrelevant")))))
+                .isInstanceOf(ConcurrencyException.class);
+        assertThat(preconditions).singleElement().isInstanceOf(Precondition.EventQlQueryIsTrue.class);
+        assertThat(client.read(subject, Set.of())).hasSize(1);
+    }
+
     @Test
     public void failingEventHandlerRetried(@Autowired EventHandlingRetries configuration) {
         commandRouter.send(new AddBookCommand("succeed-1"));
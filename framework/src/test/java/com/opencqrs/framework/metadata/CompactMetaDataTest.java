@@ -0,0 +1,97 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.metadata;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class CompactMetaDataTest {
+
+    @Test
+    public void compactMetaDataEqualsSource() {
+        Map<String, ?> source = Map.of("tenant", "acme", "answer", 42L);
+
+        assertThat(CompactMetaData.of(source))
+                .isEqualTo(source)
+                .hasSameHashCodeAs(source)
+                .containsEntry("tenant", "acme")
+                .doesNotContainKey("other");
+    }
+
+    @Test
+    public void compactMetaDataReturnedAsIs() {
+        Map<String, ?> compact = CompactMetaData.of(Map.of("tenant", "acme"));
+
+        assertThat(CompactMetaData.of(compact)).isSameAs(compact);
+    }
+
+    @Test
+    public void compactMetaDataImmutable() {
+        Map<String, Object> compact = (Map<String, Object>) CompactMetaData.of(Map.of("tenant", "acme"));
+
+        assertThatThrownBy(() -> compact.put("tenant", "other")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void keysSharedAcrossInstances() {
+        var first = new HashMap<String, Object>();
+        first.put(new String("correlation-id"), "1");
+        var second = new HashMap<String, Object>();
+        second.put(new String("correlation-id"), "2");
+
+        assertThat(CompactMetaData.of(first).keySet().iterator().next())
+                .isSameAs(CompactMetaData.of(second).keySet().iterator().next());
+    }
+
+    @Test
+    public void nullValuesSupported() {
+        var source = new HashMap<String, Object>();
+        source.put("tenant", null);
+
+        assertThat(CompactMetaData.of(source)).isEqualTo(source).containsKey("tenant");
+    }
+
+    @Test
+    public void retainedKeysCopied() {
+        assertThat(CompactMetaData.retained(Map.of("tenant", "acme", "user", "4711"), Set.of("tenant", "other")))
+                .isEqualTo(Map.of("tenant", "acme"));
+        assertThat(CompactMetaData.retained(Map.of("user", "4711"), Set.of("tenant"))).isEmpty();
+    }
+
+    @Test
+    public void mergedViewPrefersPrimary() {
+        Map<String, ?> merged = CompactMetaData.merged(
+                Map.of("tenant", "acme", "user", "4711"), Map.of("tenant", "other", "correlation-id", "42"));
+
+        assertThat(merged)
+                .isEqualTo(Map.of("tenant", "acme", "user", "4711", "correlation-id", "42"))
+                .hasSize(3)
+                .hasSameHashCodeAs(Map.of("tenant", "acme", "user", "4711", "correlation-id", "42"));
+    }
+
+    @Test
+    public void mergedWithEmptyReturnsOther() {
+        Map<String, ?> metaData = CompactMetaData.of(Map.of("tenant", "acme"));
+
+        assertThat(CompactMetaData.merged(metaData, Map.of())).isSameAs(metaData);
+        assertThat(CompactMetaData.merged(Map.of(), metaData)).isSameAs(metaData);
+    }
+
+    @Test
+    public void mergedViewUnaffectedByLaterModifications() {
+        var primary = new HashMap<String, Object>(Map.of("user", "4711"));
+        var secondary = new HashMap<String, Object>(Map.of("tenant", "acme"));
+
+        Map<String, ?> merged = CompactMetaData.merged(primary, secondary);
+        Map<String, ?> primaryOnly = CompactMetaData.merged(primary, Map.of());
+        primary.put("user", "0815");
+        primary.put("correlation-id", "42");
+        secondary.clear();
+
+        assertThat(merged).isEqualTo(Map.of("user", "4711", "tenant", "acme"));
+        assertThat(primaryOnly).isEqualTo(Map.of("user", "4711"));
+    }
+}
@@ -0,0 +1,185 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.EventQueryBuilder;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.client.ConcurrencyException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchingImmediateEventPublisherTest {
+
+    @Mock
+    private ImmediateEventPublisher delegate;
+
+    private final CountDownLatch firstPublicationBlocked = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstPublication = new CountDownLatch(1);
+
+    private BatchingImmediateEventPublisher subject;
+
+    @AfterEach
+    public void release() {
+        releaseFirstPublication.countDown();
+    }
+
+    private static CapturedEvent captured(String subject) {
+        return new CapturedEvent(subject, new BookAddedEvent(subject), Map.of(), List.of());
+    }
+
+    private static Event published(CapturedEvent capturedEvent) {
+        return new Event(
+                "source",
+                capturedEvent.subject(),
+                "type",
+                Map.of(),
+                "1.0",
+                "id-" + capturedEvent.subject(),
+                Instant.now(),
+                "application/json",
+                "hash",
+                "predecessor");
+    }
+
+    private void blockFirstPublication(List<CapturedEvent> first) {
+        doAnswer(invocation -> {
+                    firstPublicationBlocked.countDown();
+                    releaseFirstPublication.await();
+                    return first.stream().map(BatchingImmediateEventPublisherTest::published).toList();
+                })
+                .when(delegate)
+                .publish(first, List.of());
+    }
+
+    private CompletableFuture<List<Event>> publishConcurrently(
+            List<CapturedEvent> events, List<Precondition> preconditions) {
+        var result = new CompletableFuture<List<Event>>();
+        Thread thread = Thread.ofPlatform().start(() -> {
+            try {
+                result.complete(subject.publish(events, preconditions));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        await().until(() -> result.isDone() || thread.getState() == Thread.State.WAITING);
+        return result;
+    }
+
+    @Test
+    public void singlePublicationDelegated() {
+        subject = new BatchingImmediateEventPublisher(delegate, Duration.ZERO, 10);
+        var events = List.of(captured("/books/1"));
+        var preconditions = List.<Precondition>of(new Precondition.SubjectIsPristine("/books/1"));
+        var result = List.of(published(events.getFirst()));
+        doReturn(result).when(delegate).publish(events, preconditions);
+
+        assertThat(subject.publish(events, preconditions)).isEqualTo(result);
+    }
+
+    @Test
+    public void eventQlPreconditionsPublishedSeparately() {
+        subject = new BatchingImmediateEventPublisher(delegate, Duration.ofSeconds(10), 10);
+        var events = List.of(captured("/books/1"));
+        var query = EventQueryBuilder.fromEventQlString(
+                "FROM e IN events WHERE e.subject == '/books/1' PROJECT INTO COUNT() > 0");
+        var preconditions = List.<Precondition>of(new Precondition.EventQlQueryIsTrue(query));
+        var result = List.of(published(events.getFirst()));
+        doReturn(result).when(delegate).publish(events, preconditions);
+
+        assertThat(subject.publish(events, preconditions)).isEqualTo(result);
+    }
+
+    @Test
+    public void concurrentDisjointPublicationsCombined() throws Exception {
+        subject = new BatchingImmediateEventPublisher(delegate, Duration.ZERO, 10);
+        var first = List.of(captured("/books/1"));
+        var second = List.of(captured("/books/2"), captured("/books/2/pages/1"));
+        var third = List.of(captured("/books/3"));
+        var secondPreconditions = List.<Precondition>of(new Precondition.SubjectIsPristine("/books/2"));
+        blockFirstPublication(first);
+        doAnswer(invocation -> invocation.<List<CapturedEvent>>getArgument(0).stream()
+                        .map(BatchingImmediateEventPublisherTest::published)
+                        .toList())
+                .when(delegate)
+                .publish(List.of(second.get(0), second.get(1), third.get(0)), secondPreconditions);
+
+        var firstResult = publishConcurrently(first, List.of());
+        assertThat(firstPublicationBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        var secondResult = publishConcurrently(second, secondPreconditions);
+        var thirdResult = publishConcurrently(third, List.of());
+        releaseFirstPublication.countDown();
+
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/1");
+        assertThat(secondResult.get(5, TimeUnit.SECONDS))
+                .map(Event::subject)
+                .containsExactly("/books/2", "/books/2/pages/1");
+        assertThat(thirdResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/3");
+        verify(delegate, times(2)).publish(anyList(), anyList());
+    }
+
+    @Test
+    public void concurrentPublicationsOnSameSubjectNotCombined() throws Exception {
+        subject = new BatchingImmediateEventPublisher(delegate, Duration.ZERO, 10);
+        var first = List.of(captured("/books/1"));
+        var second = List.of(captured("/books/2"));
+        var third = List.of(captured("/books/3"));
+        var thirdPreconditions = List.<Precondition>of(new Precondition.SubjectIsOnEventId("/books/2", "42"));
+        blockFirstPublication(first);
+        doReturn(List.of(published(second.getFirst()))).when(delegate).publish(second, List.of());
+        doReturn(List.of(published(third.getFirst()))).when(delegate).publish(third, thirdPreconditions);
+
+        var firstResult = publishConcurrently(first, List.of());
+        assertThat(firstPublicationBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        var secondResult = publishConcurrently(second, List.of());
+        var thirdResult = publishConcurrently(third, thirdPreconditions);
+        releaseFirstPublication.countDown();
+
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/1");
+        assertThat(secondResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/2");
+        assertThat(thirdResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/3");
+    }
+
+    @Test
+    public void combinedPublicationConflictPublishedIndividually() throws Exception {
+        subject = new BatchingImmediateEventPublisher(delegate, Duration.ZERO, 10);
+        var first = List.of(captured("/books/1"));
+        var second = List.of(captured("/books/2"));
+        var third = List.of(captured("/books/3"));
+        var conflict = new ConcurrencyException("conflict", new RuntimeException());
+        blockFirstPublication(first);
+        doThrow(conflict).when(delegate).publish(List.of(second.getFirst(), third.getFirst()), List.of());
+        doThrow(conflict).when(delegate).publish(second, List.of());
+        doReturn(List.of(published(third.getFirst()))).when(delegate).publish(third, List.of());
+
+        var firstResult = publishConcurrently(first, List.of());
+        assertThat(firstPublicationBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        var secondResult = publishConcurrently(second, List.of());
+        var thirdResult = publishConcurrently(third, List.of());
+        releaseFirstPublication.countDown();
+
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/1");
+        assertThat(secondResult)
+                .failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isSameAs(conflict);
+        assertThat(thirdResult.get(5, TimeUnit.SECONDS)).map(Event::subject).containsExactly("/books/3");
+    }
+}
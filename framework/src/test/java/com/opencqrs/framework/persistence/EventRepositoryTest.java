@@ -111,6 +111,12 @@ public class EventRepositoryTest {
                     .read(eq("/test"), eq(Set.of(new Option.LowerBoundInclusive("0815"))), any());
 
             doReturn(Stream.of(upcastedEvent)).when(eventUpcasters).upcast(rawEvent);
+            doAnswer(invocation -> {
+                        invocation.getArgument(1, Consumer.class).accept(upcastedEvent);
+                        return null;
+                    })
+                    .when(eventUpcasters)
+                    .upcast(eq(rawEvent), any());
             doReturn(convertedEvent.getClass()).when(eventTypeResolver).getJavaClass(upcastedEvent.type());
             doReturn(new EventData<>(convertedMetaData, convertedEvent))
                     .when(eventDataMarshaller)
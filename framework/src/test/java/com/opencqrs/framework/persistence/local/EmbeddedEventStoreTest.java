@@ -0,0 +1,287 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.EventQueryBuilder;
+import com.opencqrs.esdb.client.Option;
+import com.opencqrs.esdb.client.Precondition;
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.BookBorrowedEvent;
+import com.opencqrs.framework.CqrsFrameworkException;
+import com.opencqrs.framework.client.ClientInterruptedException;
+import com.opencqrs.framework.client.ConcurrencyException;
+import com.opencqrs.framework.persistence.EventReader;
+import com.opencqrs.framework.persistence.EventSource;
+import com.opencqrs.framework.serialization.JacksonEventDataMarshaller;
+import com.opencqrs.framework.types.ClassNameEventTypeResolver;
+import com.opencqrs.framework.types.EventTypeResolutionException;
+import com.opencqrs.framework.types.EventTypeResolver;
+import com.opencqrs.framework.upcaster.EventUpcasters;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+public class EmbeddedEventStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EventLog eventLog;
+
+    private EmbeddedEventStore subject;
+
+    private EmbeddedEventStore open() {
+        eventLog = new EventLog(directory, 4096, objectMapper);
+        return new EmbeddedEventStore(
+                eventLog,
+                objectMapper,
+                new EventSource("tag://test"),
+                new ClassNameEventTypeResolver(getClass().getClassLoader()),
+                new JacksonEventDataMarshaller(objectMapper),
+                new EventUpcasters());
+    }
+
+    @BeforeEach
+    public void setup() {
+        subject = open();
+    }
+
+    @AfterEach
+    public void close() {
+        eventLog.close();
+    }
+
+    @Test
+    public void publishedEventsReadAsObjects() {
+        subject.publish("/books/1", new BookAddedEvent("4711"));
+        subject.publish("/books/2", new BookAddedEvent("4712"));
+
+        assertThat(subject.readAsObject("/books/1", Set.of())).containsExactly(new BookAddedEvent("4711"));
+        assertThat(subject.readAsObject("/books", Set.of(new Option.Recursive())))
+                .containsExactly(new BookAddedEvent("4711"), new BookAddedEvent("4712"));
+    }
+
+    @Test
+    public void publishedEventsIdentifiedSequentiallyAndHashChained() {
+        List<Event> published = subject.publish(publisher -> {
+            publisher.publish("/books/1", new BookAddedEvent("4711"));
+            publisher.publish("/books/2", new BookAddedEvent("4712"));
+        });
+
+        assertThat(published).map(Event::id).containsExactly("0", "1");
+        assertThat(published.get(0).predecessorHash()).isEqualTo("0".repeat(64));
+        assertThat(published.get(1).predecessorHash()).isEqualTo(published.get(0).hash());
+        assertThat(published.get(0).hash()).isNotEqualTo(published.get(1).hash());
+        assertThat(subject.readRaw("/", Set.of(new Option.Recursive()))).isEqualTo(published);
+    }
+
+    @Test
+    public void hashChainContinuedUponReopen() {
+        Event first = subject.publish("/books/1", new BookAddedEvent("4711"));
+        eventLog.close();
+
+        subject = open();
+        Event second = subject.publish("/books/1", new BookAddedEvent("4712"));
+
+        assertThat(second.id()).isEqualTo("1");
+        assertThat(second.predecessorHash()).isEqualTo(first.hash());
+    }
+
+    @Test
+    public void subjectPreconditionsFulfilled() {
+        Event first = subject.publish(
+                "/books/1",
+                new BookAddedEvent("4711"),
+                Map.of(),
+                List.of(new Precondition.SubjectIsPristine("/books/1")));
+
+        assertThatCode(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4711"),
+                        Map.of(),
+                        List.of(
+                                new Precondition.SubjectIsPopulated("/books/1"),
+                                new Precondition.SubjectIsOnEventId("/books/1", first.id()))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    public void violatedPreconditionsPreventPublication() {
+        Event first = subject.publish("/books/1", new BookAddedEvent("4711"));
+        subject.publish("/books/1/pages/1", new BookAddedEvent("4711"));
+
+        assertThatThrownBy(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4712"),
+                        Map.of(),
+                        List.of(new Precondition.SubjectIsPristine("/books/1"))))
+                .isInstanceOf(ConcurrencyException.class);
+        assertThatThrownBy(() -> subject.publish(
+                        "/books/2",
+                        new BookAddedEvent("4712"),
+                        Map.of(),
+                        List.of(new Precondition.SubjectIsPopulated("/books/2"))))
+                .isInstanceOf(ConcurrencyException.class);
+        assertThatThrownBy(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4712"),
+                        Map.of(),
+                        List.of(new Precondition.SubjectIsOnEventId("/books/1", "1"))))
+                .isInstanceOf(ConcurrencyException.class);
+
+        assertThat(subject.readRaw("/", Set.of(new Option.Recursive()))).hasSize(2);
+        assertThat(subject.readRaw("/books/1", Set.of())).containsExactly(first);
+    }
+
+    @Test
+    public void subjectHierarchyPreconditionsEvaluated() {
+        subject.publish("/books/1", new BookAddedEvent("4711"));
+        subject.publish("/books/1/pages/1", new BookAddedEvent("4711"));
+        subject.publish("/books/10", new BookAddedEvent("4712"));
+        var unmodified = EventQueryBuilder.fromEventQlString(
+                "FROM e IN events WHERE (e.subject == '/books/1' OR e.subject STARTS WITH '/books/1/')"
+                        + " AND (e.id AS INT) > 1 PROJECT INTO COUNT() == 0");
+        var modified = EventQueryBuilder.fromEventQlString(
+                "FROM e IN events WHERE (e.subject == '/books/1' OR e.subject STARTS WITH '/books/1/')"
+                        + " AND (e.id AS INT) > 0 PROJECT INTO COUNT() == 0");
+
+        assertThatCode(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4711"),
+                        Map.of(),
+                        List.of(new Precondition.EventQlQueryIsTrue(unmodified))))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4711"),
+                        Map.of(),
+                        List.of(new Precondition.EventQlQueryIsTrue(modified))))
+                .isInstanceOf(ConcurrencyException.class);
+    }
+
+    @Test
+    public void failedPublicationLeavesLogUnmodified() {
+        var resolver = new ClassNameEventTypeResolver(getClass().getClassLoader());
+        var failing = new EmbeddedEventStore(
+                eventLog,
+                objectMapper,
+                new EventSource("tag://test"),
+                new EventTypeResolver() {
+                    @Override
+                    public String getEventType(Class<?> clazz) {
+                        if (clazz == BookBorrowedEvent.class) {
+                            throw new EventTypeResolutionException("unresolvable: " + clazz);
+                        }
+                        return resolver.getEventType(clazz);
+                    }
+
+                    @Override
+                    public Class<?> getJavaClass(String eventType) {
+                        return resolver.getJavaClass(eventType);
+                    }
+                },
+                new JacksonEventDataMarshaller(objectMapper),
+                new EventUpcasters());
+
+        assertThatThrownBy(() -> failing.publish(publisher -> {
+                    publisher.publish("/books/1", new BookAddedEvent("4711"));
+                    publisher.publish("/books/1", new BookBorrowedEvent());
+                }))
+                .isInstanceOf(EventTypeResolutionException.class);
+        assertThat(subject.readRaw("/", Set.of(new Option.Recursive()))).isEmpty();
+        assertThat(failing.publish("/books/1", new BookAddedEvent("4712")).predecessorHash())
+                .isEqualTo("0".repeat(64));
+    }
+
+    @Test
+    public void eventQlPreconditionsNotSupported() {
+        var query = EventQueryBuilder.fromEventQlString(
+                "FROM e IN events WHERE e.subject == '/books/1' PROJECT INTO COUNT() > 0");
+
+        assertThatThrownBy(() -> subject.publish(
+                        "/books/1",
+                        new BookAddedEvent("4711"),
+                        Map.of(),
+                        List.of(new Precondition.EventQlQueryIsTrue(query))))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class);
+    }
+
+    @Test
+    public void readOptionsApplied() {
+        for (int i = 0; i < 5; i++) {
+            subject.publish("/books/1", new BookAddedEvent("isbn-" + i));
+        }
+
+        assertThat(subject.readRaw(
+                        "/books/1",
+                        Set.of(
+                                new Option.LowerBoundInclusive("1"),
+                                new Option.UpperBoundExclusive("4"),
+                                new Option.Order(Option.Order.Type.ANTICHRONOLOGICAL))))
+                .map(Event::id)
+                .containsExactly("3", "2", "1");
+    }
+
+    @Test
+    public void readFromLatestEvent() {
+        subject.publish("/books/1", new BookAddedEvent("4711"));
+        subject.publish("/books/1", new BookAddedEvent("4712"));
+        subject.publish("/books/1", new BookAddedEvent("4713"));
+        String type = BookAddedEvent.class.getName();
+
+        assertThat(subject.readRaw(
+                        "/books/2",
+                        Set.of(new Option.FromLatestEvent(
+                                "/books/2", type, Option.FromLatestEvent.IfEventIsMissing.READ_NOTHING))))
+                .isEmpty();
+        assertThat(subject.readRaw(
+                        "/books/1",
+                        Set.of(new Option.FromLatestEvent(
+                                "/books/1", type, Option.FromLatestEvent.IfEventIsMissing.READ_EVERYTHING))))
+                .map(Event::id)
+                .containsExactly("2");
+    }
+
+    @Test
+    public void customClientRequestorNotSupported() {
+        assertThatThrownBy(() -> subject.consumeRaw((client, consumer) -> {}, (callback, event) -> {}))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class);
+    }
+
+    @Test
+    public void observationNotifiedAboutNewEventsUntilInterrupted() {
+        subject.publish("/books/1", new BookAddedEvent("4711"));
+        var observed = new CopyOnWriteArrayList<Event>();
+        var error = new AtomicReference<Throwable>();
+        var observer = Thread.ofVirtual().start(() -> {
+            try {
+                subject.consumeRaw(
+                        new EventReader.ClientRequestor.Observe("/books", Set.of(new Option.Recursive())),
+                        (callback, event) -> observed.add(event));
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+
+        await().untilAsserted(() -> assertThat(observed).hasSize(1));
+        subject.publish("/books/2", new BookAddedEvent("4712"));
+        subject.publish("/authors/1", new BookAddedEvent("4713"));
+        await().untilAsserted(() -> assertThat(observed).map(Event::id).containsExactly("0", "1"));
+
+        observer.interrupt();
+        await().untilAsserted(() -> assertThat(error.get()).isInstanceOf(ClientInterruptedException.class));
+    }
+}
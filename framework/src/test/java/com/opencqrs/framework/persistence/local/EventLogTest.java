@@ -0,0 +1,202 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.opencqrs.esdb.client.Event;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+public class EventLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static Event event(long id, String subject) {
+        return new Event(
+                "tag://test",
+                subject,
+                "com.opencqrs.books.added.v1",
+                Map.of("payload", Map.of("isbn", "isbn-" + id), "metadata", Map.of()),
+                "1.0",
+                Long.toString(id),
+                Instant.ofEpochSecond(1_700_000_000L, id),
+                "application/json",
+                "hash-" + id,
+                "hash-" + (id - 1));
+    }
+
+    private static List<Event> read(EventLog log, String subject, boolean recursive, long lower, long upper) {
+        var result = new ArrayList<Event>();
+        log.read(subject, recursive, lower, upper, result::add);
+        return result;
+    }
+
+    private EventLog populated(int segmentSize) {
+        var log = new EventLog(directory, segmentSize, objectMapper);
+        log.append(event(0, "/books/1"));
+        log.append(event(1, "/books/2"));
+        log.append(event(2, "/books/1/pages/1"));
+        log.append(event(3, "/books/10"));
+        log.append(event(4, "/books/1"));
+        return log;
+    }
+
+    @Test
+    public void appendedEventsReadIdentically() {
+        try (var log = new EventLog(directory, 1024, objectMapper)) {
+            log.append(event(0, "/books/1"));
+
+            assertThat(read(log, "/books/1", false, -1, Long.MAX_VALUE)).containsExactly(event(0, "/books/1"));
+            assertThat(log.head()).isEqualTo("0");
+        }
+    }
+
+    @Test
+    public void eventsNotNewerThanHeadIgnored() {
+        try (var log = populated(1024)) {
+            assertThat(log.append(event(4, "/books/3"))).isFalse();
+            assertThat(log.append(event(2, "/books/3"))).isFalse();
+            assertThat(read(log, "/books/3", false, -1, Long.MAX_VALUE)).isEmpty();
+        }
+    }
+
+    @Test
+    public void subjectReadNonRecursively() {
+        try (var log = populated(1024)) {
+            assertThat(read(log, "/books/1", false, -1, Long.MAX_VALUE))
+                    .map(Event::id)
+                    .containsExactly("0", "4");
+        }
+    }
+
+    @Test
+    public void subjectReadRecursively() {
+        try (var log = populated(1024)) {
+            assertThat(read(log, "/books/1", true, -1, Long.MAX_VALUE))
+                    .map(Event::id)
+                    .containsExactly("0", "2", "4");
+            assertThat(read(log, "/", true, -1, Long.MAX_VALUE))
+                    .map(Event::id)
+                    .containsExactly("0", "1", "2", "3", "4");
+        }
+    }
+
+    @Test
+    public void subjectReadRecursivelyExcludesSiblingsSharingPrefix() {
+        try (var log = populated(1024)) {
+            log.append(event(5, "/books/1-draft"));
+            log.append(event(6, "/books/1/pages/1/notes/1"));
+            log.append(event(7, "/books/1a"));
+
+            assertThat(read(log, "/books/1", true, -1, Long.MAX_VALUE))
+                    .map(Event::id)
+                    .containsExactly("0", "2", "4", "6");
+            assertThat(read(log, "/books", true, -1, Long.MAX_VALUE))
+                    .map(Event::id)
+                    .containsExactly("0", "1", "2", "3", "4", "5", "6", "7");
+        }
+    }
+
+    @Test
+    public void boundsRespected() {
+        try (var log = populated(1024)) {
+            assertThat(read(log, "/", true, 0, 3)).map(Event::id).containsExactly("1", "2", "3");
+            assertThat(read(log, "/books/1", false, 0, 3)).isEmpty();
+        }
+    }
+
+    @Test
+    public void eventsSpanningMultipleSegmentsRecoveredUponReopen() throws IOException {
+        populated(256).close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        try (var log = new EventLog(directory, 256, objectMapper)) {
+            assertThat(log.head()).isEqualTo("4");
+            assertThat(read(log, "/", true, -1, Long.MAX_VALUE))
+                    .containsExactly(
+                            event(0, "/books/1"),
+                            event(1, "/books/2"),
+                            event(2, "/books/1/pages/1"),
+                            event(3, "/books/10"),
+                            event(4, "/books/1"));
+        }
+    }
+
+    @Test
+    public void corruptRecordTruncatedUponReopen() throws IOException {
+        try (var log = new EventLog(directory, 4096, objectMapper)) {
+            log.append(event(0, "/books/1"));
+            log.append(event(1, "/books/2"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(segment);
+        int secondRecord = 8 + java.nio.ByteBuffer.wrap(content).getInt(0);
+        content[secondRecord + 20] ^= 0x7f;
+        Files.write(segment, content, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try (var log = new EventLog(directory, 4096, objectMapper)) {
+            assertThat(log.head()).isEqualTo("0");
+            assertThat(log.append(event(1, "/books/3"))).isTrue();
+            assertThat(read(log, "/", true, -1, Long.MAX_VALUE))
+                    .containsExactly(event(0, "/books/1"), event(1, "/books/3"));
+        }
+    }
+
+    @Test
+    public void batchAppendedIgnoringEventsNotNewerThanHead() {
+        try (var log = new EventLog(directory, 256, objectMapper)) {
+            log.append(event(0, "/books/1"));
+            assertThat(log.append(List.of(event(0, "/books/1"), event(1, "/books/2"), event(2, "/books/3"))))
+                    .isEqualTo(2);
+            assertThat(log.head()).isEqualTo("2");
+        }
+
+        try (var log = new EventLog(directory, 256, objectMapper)) {
+            assertThat(read(log, "/", true, -1, Long.MAX_VALUE))
+                    .containsExactly(event(0, "/books/1"), event(1, "/books/2"), event(2, "/books/3"));
+        }
+    }
+
+    @Test
+    public void incompleteBatchDiscardedUponReopen() throws IOException {
+        try (var log = new EventLog(directory, 4096, objectMapper)) {
+            log.append(event(0, "/books/1"));
+            log.append(List.of(event(1, "/books/2"), event(2, "/books/3")));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(segment);
+        int batch = 8 + java.nio.ByteBuffer.wrap(content).getInt(0);
+        java.nio.ByteBuffer.wrap(content).putInt(batch, 0);
+        Files.write(segment, content, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try (var log = new EventLog(directory, 4096, objectMapper)) {
+            assertThat(log.head()).isEqualTo("0");
+            assertThat(log.append(event(1, "/books/4"))).isTrue();
+        }
+        try (var log = new EventLog(directory, 4096, objectMapper)) {
+            assertThat(read(log, "/", true, -1, Long.MAX_VALUE))
+                    .containsExactly(event(0, "/books/1"), event(1, "/books/4"));
+        }
+    }
+}
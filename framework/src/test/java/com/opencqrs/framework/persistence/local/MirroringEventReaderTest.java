@@ -0,0 +1,129 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.persistence.local;
+
+import static com.opencqrs.framework.persistence.local.EventLogTest.event;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.opencqrs.esdb.client.EsdbClient;
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.esdb.client.Option;
+import com.opencqrs.framework.persistence.EventReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class MirroringEventReaderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private EsdbClient client;
+
+    private EventLog eventLog;
+
+    private MirroringEventReader subject;
+
+    private final List<Event> consumed = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        eventLog = new EventLog(directory, 4096, new ObjectMapper());
+        eventLog.append(event(0, "/books/1"));
+        eventLog.append(event(1, "/books/2"));
+        eventLog.append(event(2, "/books/1"));
+
+        EventReader delegate = (clientRequestor, eventConsumer) ->
+                clientRequestor.request(client, event -> eventConsumer.accept(c -> {}, event));
+        subject = new MirroringEventReader(delegate, eventLog);
+    }
+
+    @AfterEach
+    public void close() {
+        eventLog.close();
+    }
+
+    private void stubTail(Set<Option> expectedOptions, Event... tail) {
+        doAnswer(invocation -> {
+                    Consumer<Event> consumer = invocation.getArgument(2);
+                    for (Event event : tail) {
+                        consumer.accept(event);
+                    }
+                    return null;
+                })
+                .when(client)
+                .read(eq("/books/1"), eq(expectedOptions), any());
+    }
+
+    @Test
+    public void mirroredEventsReadLocallyAndTailFromClient() {
+        stubTail(Set.of(new Option.LowerBoundExclusive("2")), event(3, "/books/1"));
+
+        subject.consumeRaw(new EventReader.ClientRequestor.Read("/books/1", Set.of()), (c, e) -> consumed.add(e));
+
+        assertThat(consumed).map(Event::id).containsExactly("0", "2", "3");
+    }
+
+    @Test
+    public void lowerBoundAboveHeadReadFromClientOnly() {
+        stubTail(Set.of(new Option.LowerBoundExclusive("5")), event(6, "/books/1"));
+
+        subject.consumeRaw(
+                new EventReader.ClientRequestor.Read("/books/1", Set.of(new Option.LowerBoundInclusive("6"))),
+                (c, e) -> consumed.add(e));
+
+        assertThat(consumed).map(Event::id).containsExactly("6");
+    }
+
+    @Test
+    public void upperBoundBelowHeadReadLocallyOnly() {
+        subject.consumeRaw(
+                new EventReader.ClientRequestor.Read(
+                        "/", Set.of(new Option.Recursive(), new Option.UpperBoundExclusive("2"))),
+                (c, e) -> consumed.add(e));
+
+        assertThat(consumed).map(Event::id).containsExactly("0", "1");
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    public void observationContinuedFromClientAfterHead() {
+        doAnswer(invocation -> {
+                    invocation.<Consumer<Event>>getArgument(2).accept(event(3, "/books/3"));
+                    return null;
+                })
+                .when(client)
+                .observe(eq("/"), eq(Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("2"))), any());
+
+        subject.consumeRaw(
+                new EventReader.ClientRequestor.Observe(
+                        "/", Set.of(new Option.Recursive(), new Option.LowerBoundExclusive("0"))),
+                (c, e) -> consumed.add(e));
+
+        assertThat(consumed).map(Event::id).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    public void antiChronologicalReadDelegatedAsIs() {
+        Set<Option> options = Set.of(new Option.Order(Option.Order.Type.ANTICHRONOLOGICAL));
+
+        subject.consumeRaw(new EventReader.ClientRequestor.Read("/books/1", options), (c, e) -> consumed.add(e));
+
+        verify(client).read(eq("/books/1"), eq(options), any());
+        assertThat(consumed).isEmpty();
+    }
+}
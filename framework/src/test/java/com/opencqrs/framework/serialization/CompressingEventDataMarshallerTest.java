@@ -0,0 +1,71 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+public class CompressingEventDataMarshallerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JacksonEventDataMarshaller delegate = new JacksonEventDataMarshaller(objectMapper);
+
+    private final CompressingEventDataMarshaller subject =
+            new CompressingEventDataMarshaller(delegate, objectMapper, 100, Set.of(BookAddedEvent.class));
+
+    private final EventData<BookAddedEvent> large =
+            new EventData<>(Map.of("userId", "4711"), new BookAddedEvent("x".repeat(1000)));
+
+    @Test
+    public void smallPayloadNotCompressed() {
+        var small = new EventData<>(Map.of("userId", "4711"), new BookAddedEvent("4711"));
+
+        assertThat(subject.serialize(small)).isEqualTo(delegate.serialize(small));
+    }
+
+    @Test
+    public void payloadOfOtherEventClassNotCompressed() {
+        var other = new EventData<>(Map.of(), Map.of("isbn", "x".repeat(1000)));
+
+        assertThat(subject.serialize(other)).isEqualTo(delegate.serialize(other));
+    }
+
+    @Test
+    public void largePayloadCompressedAndMarked() {
+        Map<String, ?> serialized = subject.serialize(large);
+
+        assertThat(serialized.get("payload")).isInstanceOfSatisfying(String.class, payload -> assertThat(payload)
+                .hasSizeLessThan(1000));
+        assertThat(serialized.get("metadata"))
+                .isEqualTo(Map.of(
+                        "userId", "4711",
+                        CompressingEventDataMarshaller.COMPRESSION_META_DATA_KEY, "gzip"));
+    }
+
+    @Test
+    public void compressedPayloadInflatedTransparently() {
+        assertThat(subject.deserialize(subject.serialize(large), BookAddedEvent.class))
+                .isEqualTo(large);
+    }
+
+    @Test
+    public void uncompressedPayloadDeserializedByDelegate() {
+        assertThat(subject.deserialize(delegate.serialize(large), BookAddedEvent.class))
+                .isEqualTo(large);
+    }
+
+    @Test
+    public void corruptedPayloadMappedToNonTransientException() {
+        Map<String, ?> corrupted = Map.of(
+                "metadata", Map.of(CompressingEventDataMarshaller.COMPRESSION_META_DATA_KEY, "gzip"),
+                "payload", "not-compressed");
+
+        assertThatThrownBy(() -> subject.deserialize(corrupted, BookAddedEvent.class))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class);
+    }
+}
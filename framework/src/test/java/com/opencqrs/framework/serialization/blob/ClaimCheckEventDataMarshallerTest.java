@@ -0,0 +1,127 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.JacksonEventDataMarshaller;
+import com.opencqrs.framework.upcaster.AbstractEventDataMarshallingEventUpcaster;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+public class ClaimCheckEventDataMarshallerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JacksonEventDataMarshaller delegate = new JacksonEventDataMarshaller(objectMapper);
+    private final BlobStore blobStore = spy(new InMemoryBlobStore());
+
+    private final ClaimCheckEventDataMarshaller subject =
+            new ClaimCheckEventDataMarshaller(delegate, objectMapper, blobStore, 100, 10_000);
+
+    private final EventData<BookAddedEvent> large =
+            new EventData<>(Map.of("userId", "4711"), new BookAddedEvent("x".repeat(1000)));
+
+    @Test
+    public void smallPayloadNotOffloaded() {
+        var small = new EventData<>(Map.of("userId", "4711"), new BookAddedEvent("4711"));
+
+        assertThat(subject.serialize(small)).isEqualTo(delegate.serialize(small));
+        verifyNoInteractions(blobStore);
+    }
+
+    @Test
+    public void largePayloadOffloadedAndReferenced() {
+        Map<String, ?> serialized = subject.serialize(large);
+
+        assertThat(serialized.get("payload")).isEqualTo(Map.of());
+        assertThat(serialized.get("metadata")).isInstanceOfSatisfying(Map.class, metaData -> {
+            assertThat(metaData).containsEntry("userId", "4711");
+            assertThat(metaData.get(ClaimCheckEventDataMarshaller.CLAIM_CHECK_META_DATA_KEY))
+                    .isInstanceOfSatisfying(String.class, reference -> assertThat(blobStore.get(reference))
+                            .isNotEmpty());
+        });
+    }
+
+    @Test
+    public void offloadedPayloadResolvedTransparently() {
+        Map<String, ?> serialized = subject.serialize(large);
+        var otherInstance = new ClaimCheckEventDataMarshaller(delegate, objectMapper, blobStore, 100, 10_000);
+
+        assertThat(otherInstance.deserialize(serialized, BookAddedEvent.class)).isEqualTo(large);
+        assertThat(otherInstance.deserialize(serialized, BookAddedEvent.class)).isEqualTo(large);
+        verify(blobStore, times(1)).get(any());
+    }
+
+    @Test
+    public void resolvedPayloadsCachedUpToCapacityInBytes() {
+        var capped = new ClaimCheckEventDataMarshaller(delegate, objectMapper, blobStore, 100, 1500);
+        var other = new EventData<>(Map.of("userId", "4711"), new BookAddedEvent("y".repeat(1000)));
+
+        Map<String, ?> serializedLarge = capped.serialize(large);
+        Map<String, ?> serializedOther = capped.serialize(other);
+
+        assertThat(capped.deserialize(serializedOther, BookAddedEvent.class)).isEqualTo(other);
+        assertThat(capped.deserialize(serializedLarge, BookAddedEvent.class)).isEqualTo(large);
+        verify(blobStore, times(1)).get(any());
+    }
+
+    @Test
+    public void regularPayloadDeserializedByDelegate() {
+        assertThat(subject.deserialize(delegate.serialize(large), BookAddedEvent.class))
+                .isEqualTo(large);
+        verifyNoInteractions(blobStore);
+    }
+
+    @Test
+    public void upcastingUnchangedPayloadReusesBlob() {
+        Map<String, ?> serialized = subject.serialize(large);
+        var otherInstance = new ClaimCheckEventDataMarshaller(delegate, objectMapper, blobStore, 100, 10_000);
+        var upcaster = new AbstractEventDataMarshallingEventUpcaster(otherInstance) {
+
+            @Override
+            public boolean canUpcast(Event event) {
+                return true;
+            }
+
+            @Override
+            protected Stream<MetaDataAndPayloadResult> doUpcast(
+                    Event event, Map<String, ?> metaData, Map<String, ?> payload) {
+                Map<String, Object> upcastedMetaData = new HashMap<>(metaData);
+                upcastedMetaData.put("upcasted", "true");
+                return Stream.of(new MetaDataAndPayloadResult("upcasted", upcastedMetaData, payload));
+            }
+        };
+        clearInvocations(blobStore);
+
+        var upcasted = upcaster.upcast(new Event(
+                        "source",
+                        "/books/4711",
+                        "original",
+                        serialized,
+                        "1.0",
+                        "1",
+                        Instant.now(),
+                        "application/json",
+                        "hash",
+                        "predecessor"))
+                .toList();
+
+        assertThat(upcasted).singleElement().satisfies(result -> {
+            assertThat(((Map<?, ?>) result.data().get("metadata"))
+                            .get(ClaimCheckEventDataMarshaller.CLAIM_CHECK_META_DATA_KEY))
+                    .isEqualTo(((Map<?, ?>) serialized.get("metadata"))
+                            .get(ClaimCheckEventDataMarshaller.CLAIM_CHECK_META_DATA_KEY));
+            assertThat(otherInstance.deserialize(result.data(), BookAddedEvent.class).payload())
+                    .isEqualTo(large.payload());
+        });
+        verify(blobStore, never()).put(any());
+    }
+}
@@ -0,0 +1,50 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.serialization.blob;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.opencqrs.framework.CqrsFrameworkException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileSystemBlobStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void storedContentRetrievable() {
+        var subject = new FileSystemBlobStore(directory);
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+
+        String reference = subject.put(content);
+
+        assertThat(new FileSystemBlobStore(directory).get(reference)).isEqualTo(content);
+    }
+
+    @Test
+    public void identicalContentStoredOnce() {
+        var subject = new FileSystemBlobStore(directory);
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(subject.put(content)).isEqualTo(subject.put(content));
+    }
+
+    @Test
+    public void missingContentMappedToNonTransientException() {
+        var subject = new FileSystemBlobStore(directory);
+
+        assertThatThrownBy(() -> subject.get("0123456789abcdef"))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class);
+    }
+
+    @Test
+    public void invalidReferenceRejected() {
+        var subject = new FileSystemBlobStore(directory);
+
+        assertThatThrownBy(() -> subject.get("../../etc/passwd"))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class);
+    }
+}
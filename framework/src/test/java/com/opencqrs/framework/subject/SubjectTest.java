@@ -0,0 +1,26 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.subject;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SubjectTest {
+
+    @Test
+    public void descendantPathsDetermined() {
+        assertThat(Subject.isSameOrDescendantOf("/books/1", "/books/1")).isTrue();
+        assertThat(Subject.isSameOrDescendantOf("/books/1/pages/2", "/books/1")).isTrue();
+        assertThat(Subject.isSameOrDescendantOf("/books/10", "/books/1")).isFalse();
+        assertThat(Subject.isSameOrDescendantOf("/books", "/books/1")).isFalse();
+        assertThat(Subject.isSameOrDescendantOf("/books/1", "/")).isTrue();
+    }
+
+    @Test
+    public void parentPathsDetermined() {
+        assertThat(Subject.parent("/books/4711/pages")).isEqualTo("/books/4711");
+        assertThat(Subject.parent("/books")).isEqualTo("/");
+        assertThat(Subject.parent("/")).isNull();
+        assertThat(Subject.parent("books")).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+/* Copyright (C) 2025 OpenCQRS and contributors */
+package com.opencqrs.framework.upcaster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.opencqrs.esdb.client.Event;
+import com.opencqrs.framework.BookAddedEvent;
+import com.opencqrs.framework.serialization.EventData;
+import com.opencqrs.framework.serialization.EventDataMarshaller;
+import com.opencqrs.framework.serialization.JacksonEventDataMarshaller;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+public class AbstractMutableTreeEventUpcasterTest {
+
+    private final EventDataMarshaller eventDataMarshaller = new JacksonEventDataMarshaller(new ObjectMapper());
+
+    private final EventDataMarshaller spiedEventDataMarshaller = spy(eventDataMarshaller);
+
+    private final Event sourceEvent = new Event(
+            "source",
+            "subject",
+            "v1",
+            eventDataMarshaller.serialize(
+                    new EventData<>(Map.of("key1", "not-upcasted", "key2", "unaffected"), new BookAddedEvent("v1"))),
+            "1.0",
+            "001",
+            Instant.now(),
+            "application/json",
+            "hash",
+            "predecessor");
+
+    private AbstractMutableTreeEventUpcaster upcaster(String sourceType, String targetType) {
+        return new AbstractMutableTreeEventUpcaster(spiedEventDataMarshaller) {
+
+            @Override
+            public boolean canUpcast(Event event) {
+                return sourceType.equals(event.type());
+            }
+
+            @Override
+            protected String doUpcast(Event event, Map<String, Object> metaData, Map<String, Object> payload) {
+                metaData.put("key1", targetType);
+                payload.put("isbn", targetType);
+                return targetType;
+            }
+        };
+    }
+
+    @Test
+    public void upcastsEventDataInPlace() {
+        EventUpcasters subject = new EventUpcasters(upcaster("v1", "v2"));
+
+        assertThat(subject.upcast(sourceEvent))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.type()).isEqualTo("v2");
+                    EventData<BookAddedEvent> eventData =
+                            eventDataMarshaller.deserialize(event.data(), BookAddedEvent.class);
+                    assertThat(eventData.metaData()).isEqualTo(Map.of("key1", "v2", "key2", "unaffected"));
+                    assertThat(eventData.payload()).isEqualTo(new BookAddedEvent("v2"));
+                });
+        assertThat(sourceEvent.data())
+                .isEqualTo(eventDataMarshaller.serialize(new EventData<>(
+                        Map.of("key1", "not-upcasted", "key2", "unaffected"), new BookAddedEvent("v1"))));
+    }
+
+    @Test
+    public void chainedUpcastersDeserializeAndSerializeOnlyOnce() {
+        EventUpcasters subject = new EventUpcasters(upcaster("v1", "v2"), upcaster("v2", "v3"), upcaster("v3", "v4"));
+
+        List<Event> upcasted = subject.upcast(sourceEvent).toList();
+
+        verify(spiedEventDataMarshaller, times(1)).deserialize(any(), any());
+        verify(spiedEventDataMarshaller, never()).serialize(any());
+
+        assertThat(upcasted).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo("v4");
+            EventData<BookAddedEvent> eventData = eventDataMarshaller.deserialize(event.data(), BookAddedEvent.class);
+            assertThat(eventData.metaData()).isEqualTo(Map.of("key1", "v4", "key2", "unaffected"));
+            assertThat(eventData.payload()).isEqualTo(new BookAddedEvent("v4"));
+        });
+        verify(spiedEventDataMarshaller, times(1)).serialize(any());
+    }
+}
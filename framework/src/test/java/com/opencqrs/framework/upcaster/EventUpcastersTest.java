@@ -3,11 +3,15 @@ package com.opencqrs.framework.upcaster;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import com.opencqrs.esdb.client.Event;
+import com.opencqrs.framework.CqrsFrameworkException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -142,4 +146,65 @@ public class EventUpcastersTest {
 
         assertThat(subject.upcast(sourceEvent).collect(toList())).isEmpty();
     }
+
+    @Test
+    public void typedUpcasterNotConsultedForOtherEventTypes() {
+        doReturn(Set.of("other")).when(upcaster1).sourceTypes();
+
+        EventUpcasters subject = new EventUpcasters(upcaster1);
+
+        var result = new ArrayList<Event>();
+        subject.upcast(sourceEvent, result::add);
+
+        assertThat(result).singleElement().isSameAs(sourceEvent);
+        verify(upcaster1, never()).canUpcast(any());
+        verify(upcaster1, never()).upcast(any());
+    }
+
+    @Test
+    public void typedEventUpcastedChained() {
+        EventUpcasters subject = new EventUpcasters(
+                new TypeChangingEventUpcaster("intermediate", "upcasted"),
+                new TypeChangingEventUpcaster("original", "intermediate"));
+
+        assertThat(subject.upcast(sourceEvent).collect(toList()))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e)
+                            .usingRecursiveComparison()
+                            .ignoringFields("type")
+                            .isEqualTo(sourceEvent);
+                    assertThat(e.type()).isEqualTo("upcasted");
+                });
+    }
+
+    @Test
+    public void typedAndUntypedUpcasterAmbiguityDetected() {
+        doReturn(true).when(upcaster1).canUpcast(sourceEvent);
+
+        EventUpcasters subject =
+                new EventUpcasters(upcaster1, new TypeChangingEventUpcaster("original", "upcasted"));
+
+        assertThatThrownBy(() -> subject.upcast(sourceEvent))
+                .isInstanceOf(CqrsFrameworkException.NonTransientException.class)
+                .hasMessageContaining("ambiguous upcasters");
+    }
+
+    @Test
+    public void ambiguousSourceTypesDetectedUponConstruction() {
+        assertThatThrownBy(() -> new EventUpcasters(
+                        new TypeChangingEventUpcaster("original", "upcasted"), new NoEventUpcaster("original")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContainingAll("ambiguous upcasters", "original");
+    }
+
+    @Test
+    public void cyclicUpcastersDetectedUponConstruction() {
+        assertThatThrownBy(() -> new EventUpcasters(
+                        new TypeChangingEventUpcaster("original", "intermediate"),
+                        new TypeChangingEventUpcaster("intermediate", "upcasted"),
+                        new TypeChangingEventUpcaster("upcasted", "original")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContainingAll("cyclic upcasters", "original", "intermediate", "upcasted");
+    }
 }